@@ -0,0 +1,50 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ensures the pg_trgm extension and the trigram GIN index used by product search exist.
+ * Hibernate's schema update cannot create expression or GIN indexes, so they are created here;
+ * both statements are idempotent.
+ *
+ * Product search uses pg_trgm's operators directly, so startup fails if the extension is missing
+ * rather than letting every search fail later. A missing index only makes search slower.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            log.error("Could not create the pg_trgm extension: {}", e.getMessage());
+        }
+
+        Boolean installed = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class);
+        if (!Boolean.TRUE.equals(installed)) {
+            throw new IllegalStateException("The pg_trgm extension is required for product search. "
+                    + "Install it with CREATE EXTENSION pg_trgm as a database superuser, or grant this user the right to create it.");
+        }
+
+        try {
+            jdbcTemplate.execute("""
+                    CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+                    ON products USING gin (LOWER(product_name) gin_trgm_ops)
+                    """);
+        } catch (DataAccessException e) {
+            log.warn("Could not create the trigram index for product search; keyword search will scan "
+                    + "the products table until idx_products_name_trgm exists", e);
+        }
+    }
+}
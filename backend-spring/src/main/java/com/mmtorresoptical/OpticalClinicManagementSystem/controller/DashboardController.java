@@ -1,12 +1,14 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.controller;
 
-import com.mmtorresoptical.OpticalClinicManagementSystem.services.analytics.InventoryAnalyticsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.MetricsSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,11 +16,19 @@ import java.util.Map;
 @RequestMapping("/api/dashboard")
 public class DashboardController {
 
-    private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final MetricsSnapshotCache metricsSnapshotCache;
 
     @GetMapping("/rop-alerts-count")
     public ResponseEntity<Map<String, Long>> getRopAlertsCount() {
-        long count = inventoryAnalyticsService.getReorderNeededCount();
-        return ResponseEntity.ok(Map.of("count", count));
+        MetricsSnapshotCache.Snapshot<Long> snapshot = dashboardMetricsService.getReorderNeededCount();
+        return ResponseEntity.ok()
+                .header(MetricsSnapshotCache.COMPUTED_AT_HEADER, snapshot.computedAt().toString())
+                .body(Map.of("count", snapshot.value()));
+    }
+
+    @GetMapping("/metrics-status")
+    public ResponseEntity<List<MetricsSnapshotCache.SnapshotStatus>> getMetricsStatus() {
+        return ResponseEntity.ok(metricsSnapshotCache.status());
     }
 }
@@ -2,18 +2,29 @@ package com.mmtorresoptical.OpticalClinicManagementSystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.BackupRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.BackupJobResponseDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.ContinuousBackupStatusDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.PointInTimeRestoreRequestDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ActionType;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ResourceType;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.AuditLogRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.security.AesEncryptionService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupManifestEntry;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.job.BackupJob;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.job.BackupJobService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal.ContinuousBackupService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.DatabaseBackupService;
-import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,14 +32,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.OutputStream;
-import java.nio.file.Files;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -37,6 +46,8 @@ import java.util.Map;
 public class DatabaseBackupController {
 
     private final DatabaseBackupService databaseBackupService;
+    private final BackupJobService backupJobService;
+    private final ContinuousBackupService continuousBackupService;
     private final AuditLogRepository auditLogRepository;
     private final ObjectMapper objectMapper;
     private final AesEncryptionService aesEncryptionService;
@@ -107,43 +118,70 @@ public class DatabaseBackupController {
     }
 
     @PostMapping("/backup")
-    public void downloadBackup(
-            @Valid @RequestBody BackupRequestDTO request,
-            HttpServletResponse response) throws Exception {
+    public ResponseEntity<BackupJobResponseDTO> startBackup(@Valid @RequestBody BackupRequestDTO request) {
+        BackupJob job = backupJobService.submitBackup(request.currentPassword());
+        return ResponseEntity.accepted().body(job.toResponse());
+    }
+
+    @PostMapping(value = "/restore", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BackupJobResponseDTO> startRestore(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("currentPassword") String currentPassword) {
 
-        File backupFile = databaseBackupService.generateBackup(request.currentPassword());
+        BackupJob job = backupJobService.submitRestore(file, currentPassword);
+        return ResponseEntity.accepted().body(job.toResponse());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BackupJobResponseDTO> getJobStatus(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(backupJobService.getJob(jobId).toResponse());
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadBackup(@PathVariable UUID jobId) {
+        BackupJob job = backupJobService.getCompletedBackup(jobId);
 
         String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")
                 .withZone(ZoneId.systemDefault())
                 .format(Instant.now());
         String downloadFilename = "backup_" + timestamp + ".dump";
 
-        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-        response.setHeader("Content-Disposition", "attachment; filename=\"" + downloadFilename + "\"");
-        response.setContentLengthLong(backupFile.length());
-
-        try (FileInputStream fis = new FileInputStream(backupFile);
-             OutputStream os = response.getOutputStream()) {
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = fis.read(buffer)) != -1) {
-                os.write(buffer, 0, bytesRead);
-            }
-            os.flush();
-        } finally {
-            Files.deleteIfExists(backupFile.toPath());
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(downloadFilename).build());
+
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(job.getFile()));
     }
 
-    @PostMapping(value = "/restore", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Map<String, String>> restoreBackup(
-            @RequestParam("file") MultipartFile file,
-            @RequestParam("currentPassword") String currentPassword) {
+    @GetMapping("/archive")
+    public ResponseEntity<List<BackupManifestEntry>> listArchive() {
+        return ResponseEntity.ok(databaseBackupService.listArchivedBackups());
+    }
 
-        databaseBackupService.restoreBackup(file, currentPassword);
+    @PostMapping("/archive/{id}/verify")
+    public ResponseEntity<BackupJobResponseDTO> verifyArchivedBackup(@PathVariable String id) {
+        BackupJob job = backupJobService.submitVerification(id);
+        return ResponseEntity.accepted().body(job.toResponse());
+    }
+
+    @GetMapping("/continuous")
+    public ResponseEntity<ContinuousBackupStatusDTO> getContinuousBackupStatus() {
+        return ResponseEntity.ok(continuousBackupService.status());
+    }
+
+    @PostMapping("/continuous/base-backup")
+    public ResponseEntity<BackupJobResponseDTO> takeBaseBackup(@Valid @RequestBody BackupRequestDTO request) {
+        BackupJob job = backupJobService.submitBaseBackup(request.currentPassword());
+        return ResponseEntity.accepted().body(job.toResponse());
+    }
 
-        return ResponseEntity.ok(Map.of(
-                "message", "Database restored successfully. A safety backup was created before the restore operation."
-        ));
+    /**
+     * Prepares a recovered copy of the data directory; the running database is not touched.
+     */
+    @PostMapping("/continuous/point-in-time-restore")
+    public ResponseEntity<BackupJobResponseDTO> preparePointInTimeRestore(
+            @Valid @RequestBody PointInTimeRestoreRequestDTO request) {
+        BackupJob job = backupJobService.submitPointInTimeRestore(request.currentPassword(), request.targetTime());
+        return ResponseEntity.accepted().body(job.toResponse());
     }
 }
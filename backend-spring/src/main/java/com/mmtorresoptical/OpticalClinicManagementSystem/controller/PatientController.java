@@ -10,6 +10,8 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.dto.patient.PatientRequ
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.patient.PatientResponseDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.patient.PatientSearchResultDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.PatientService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.MetricsSnapshotCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -27,6 +29,7 @@ import java.util.UUID;
 public class PatientController {
 
     private final PatientService patientService;
+    private final DashboardMetricsService dashboardMetricsService;
 
     /**
      * Returns summary metrics for the patient dashboard.
@@ -211,7 +214,10 @@ public class PatientController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/dashboard-summary")
     public ResponseEntity<DashboardPatientMetricsDTO> getDashboardPatientMetrics() {
-        return ResponseEntity.ok(patientService.getDashboardPatientMetrics());
+        MetricsSnapshotCache.Snapshot<DashboardPatientMetricsDTO> snapshot = dashboardMetricsService.getPatientMetrics();
+        return ResponseEntity.ok()
+                .header(MetricsSnapshotCache.COMPUTED_AT_HEADER, snapshot.computedAt().toString())
+                .body(snapshot.value());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -171,6 +171,15 @@ public class ProductController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Recount a product's stock from its non-expired batches and correct the stored quantity
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/reconcile-stock")
+    public ResponseEntity<ProductDetailsDTO> reconcileStock(@PathVariable UUID id) {
+        return ResponseEntity.ok(productService.reconcileStock(id));
+    }
+
     /**
      * Get transactions for a specific product
      */
@@ -0,0 +1,27 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.controller;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.DailyRevenueLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/revenue-ledger")
+public class RevenueLedgerController {
+
+    private final DailyRevenueLedgerService dailyRevenueLedgerService;
+
+    /**
+     * Recomputes the daily revenue ledger from transactions and refund receipts,
+     * e.g. after a database restore or a manual data correction.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(Map.of("rows", dailyRevenueLedgerService.rebuild()));
+    }
+}
@@ -12,6 +12,8 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.enums.FulfillmentStatus
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.RefundStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.TransactionService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.MetricsSnapshotCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -28,6 +30,7 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final DashboardMetricsService dashboardMetricsService;
 
     @PostMapping
     public ResponseEntity<TransactionResponseDTO> createTransaction(@Valid @RequestBody TransactionRequestDTO transactionRequestDTO) {
@@ -110,7 +113,10 @@ public class TransactionController {
 
     @GetMapping("/metrics")
     public ResponseEntity<TransactionMetricsDTO> getTransactionMetrics() {
-        return ResponseEntity.ok(transactionService.getTransactionMetrics());
+        MetricsSnapshotCache.Snapshot<TransactionMetricsDTO> snapshot = dashboardMetricsService.getTransactionMetrics();
+        return ResponseEntity.ok()
+                .header(MetricsSnapshotCache.COMPUTED_AT_HEADER, snapshot.computedAt().toString())
+                .body(snapshot.value());
     }
 
     @GetMapping("/daily-cash-inflow")
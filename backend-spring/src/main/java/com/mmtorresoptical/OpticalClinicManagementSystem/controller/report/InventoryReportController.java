@@ -7,9 +7,12 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.ProductMetr
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.product.ProductDetailsDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.objects.TopSellingProductDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.analytics.InventoryAnalyticsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.MetricsSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -26,10 +29,14 @@ import java.util.UUID;
 public class InventoryReportController {
 
     private final InventoryAnalyticsService inventoryAnalyticsService;
+    private final DashboardMetricsService dashboardMetricsService;
 
     @GetMapping("/summary")
-    public InventoryAnalyticsDTO getInventorySummary() {
-        return inventoryAnalyticsService.getInventoryAnalytics();
+    public ResponseEntity<InventoryAnalyticsDTO> getInventorySummary() {
+        MetricsSnapshotCache.Snapshot<InventoryAnalyticsDTO> snapshot = dashboardMetricsService.getInventoryAnalytics();
+        return ResponseEntity.ok()
+                .header(MetricsSnapshotCache.COMPUTED_AT_HEADER, snapshot.computedAt().toString())
+                .body(snapshot.value());
     }
 
     @GetMapping("/lowstock-products")
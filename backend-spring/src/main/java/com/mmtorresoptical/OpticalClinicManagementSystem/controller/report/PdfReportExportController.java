@@ -0,0 +1,46 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.controller.report;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportFormat;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ReportExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reports/pdf")
+public class PdfReportExportController {
+
+    private final ReportExportService reportExportService;
+
+    @GetMapping("/{reportType}")
+    public ResponseEntity<StreamingResponseBody> exportPdf(
+            @PathVariable ReportType reportType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate minDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate maxDate
+    ) {
+        // Dataset is built on the request thread, where the security context needed for "generated by" is available
+        ReportExportService.ReportOutput output =
+                reportExportService.prepare(reportType, ReportFormat.PDF, minDate, maxDate);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(output.contentType()));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(output.filename()).build());
+
+        StreamingResponseBody body = outputStream -> output.writer().writeTo(outputStream);
+
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
@@ -3,16 +3,12 @@ package com.mmtorresoptical.OpticalClinicManagementSystem.controller.report;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ActionType;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ResourceType;
-import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.BadRequestException;
-import com.mmtorresoptical.OpticalClinicManagementSystem.repository.TransactionRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.AuditLogService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.JSONService;
-import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ComprehensiveInventoryReportDataset;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.PatientReportDataset;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ReportAggregationService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ReportExportService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.TransactionMonthlyTrendPoint;
-import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.TransactionPdfAggregationService;
-import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionHierarchicalReportDataset;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -24,7 +20,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -32,9 +27,8 @@ import java.util.List;
 @RequestMapping("/api/reports")
 public class ReportDataController {
 
-    private final TransactionPdfAggregationService transactionPdfAggregationService;
+    private final ReportExportService reportExportService;
     private final ReportAggregationService reportAggregationService;
-    private final TransactionRepository transactionRepository;
     private final AuditLogService auditLogService;
     private final JSONService jsonService;
 
@@ -44,37 +38,7 @@ public class ReportDataController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate minDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate maxDate
     ) {
-        return switch (reportType) {
-            case TRANSACTIONS -> {
-                LocalDate effectiveMin = minDate;
-                LocalDate effectiveMax = maxDate;
-                if (effectiveMin == null || effectiveMax == null) {
-                    LocalDateTime dbMin = transactionRepository.findMinTransactionDate();
-                    LocalDateTime dbMax = transactionRepository.findMaxTransactionDate();
-                    if (effectiveMin == null) {
-                        effectiveMin = dbMin != null ? dbMin.toLocalDate() : LocalDate.of(2020, 1, 1);
-                    }
-                    if (effectiveMax == null) {
-                        effectiveMax = dbMax != null ? dbMax.toLocalDate() : LocalDate.of(2099, 12, 31);
-                    }
-                }
-                TransactionHierarchicalReportDataset dataset =
-                        transactionPdfAggregationService.buildTransactionReport(effectiveMin, effectiveMax);
-                yield ResponseEntity.ok(dataset);
-            }
-            case PATIENTS -> {
-                PatientReportDataset dataset =
-                        reportAggregationService.buildPatientReport(reportType, minDate, maxDate);
-                yield ResponseEntity.ok(dataset);
-            }
-            case INVENTORY_ANALYTICS -> {
-                ComprehensiveInventoryReportDataset dataset =
-                        reportAggregationService.buildInventoryAnalyticsReport();
-                yield ResponseEntity.ok(dataset);
-            }
-            default -> throw new BadRequestException(
-                    "Report data endpoint currently supports TRANSACTIONS, PATIENTS, and INVENTORY_ANALYTICS report types.");
-        };
+        return ResponseEntity.ok(reportExportService.buildReportData(reportType, minDate, maxDate));
     }
 
     @GetMapping("/patient-growth-trend")
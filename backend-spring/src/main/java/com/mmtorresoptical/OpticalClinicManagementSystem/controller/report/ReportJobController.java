@@ -0,0 +1,53 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.controller.report;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.report.ReportJobRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.report.ReportJobResponseDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.job.ReportJob;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.job.ReportJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reports/jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobResponseDTO> submit(@Valid @RequestBody ReportJobRequestDTO request) {
+        ReportJob job = reportJobService.submit(
+                request.reportType(), request.format(), request.minDate(), request.maxDate());
+        return ResponseEntity.accepted().body(job.toResponse());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobResponseDTO> getStatus(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId).toResponse());
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> download(@PathVariable UUID jobId) {
+        ReportJob job = reportJobService.getCompletedJob(jobId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getContentType()));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(job.getFilename()).build());
+
+        return ResponseEntity.ok().headers(headers).body(new FileSystemResource(job.getFile()));
+    }
+}
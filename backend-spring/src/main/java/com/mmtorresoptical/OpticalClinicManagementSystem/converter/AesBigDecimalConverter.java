@@ -10,8 +10,11 @@ import java.math.BigDecimal;
 public class AesBigDecimalConverter
         implements AttributeConverter<BigDecimal, String> {
 
-    private final AesEncryptionService encryptionService =
-            new AesEncryptionService();
+    private final AesEncryptionService encryptionService;
+
+    public AesBigDecimalConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
 
     @Override
     public String convertToDatabaseColumn(BigDecimal attribute) {
@@ -9,8 +9,11 @@ import jakarta.persistence.Converter;
 public class AesCorrectionTypeConverter
         implements AttributeConverter<CorrectionType, String> {
 
-    private final AesEncryptionService encryptionService =
-            new AesEncryptionService();
+    private final AesEncryptionService encryptionService;
+
+    public AesCorrectionTypeConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
 
     @Override
     public String convertToDatabaseColumn(CorrectionType attribute) {
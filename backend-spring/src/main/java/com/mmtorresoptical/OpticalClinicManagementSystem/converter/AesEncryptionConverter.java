@@ -7,8 +7,12 @@ import jakarta.persistence.Converter;
 @Converter
 public class AesEncryptionConverter implements AttributeConverter<String, String> {
 
-    private final AesEncryptionService encryptionService =
-            new AesEncryptionService();
+    private final AesEncryptionService encryptionService;
+
+    // Instantiated by Hibernate through Spring's bean container, so the shared service is injected
+    public AesEncryptionConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
 
     // Convert Entity → Database
     @Override
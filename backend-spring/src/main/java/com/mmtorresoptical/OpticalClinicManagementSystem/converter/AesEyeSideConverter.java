@@ -9,8 +9,11 @@ import jakarta.persistence.Converter;
 public class AesEyeSideConverter
         implements AttributeConverter<EyeSide, String> {
 
-    private final AesEncryptionService encryptionService =
-            new AesEncryptionService();
+    private final AesEncryptionService encryptionService;
+
+    public AesEyeSideConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
 
     @Override
     public String convertToDatabaseColumn(EyeSide attribute) {
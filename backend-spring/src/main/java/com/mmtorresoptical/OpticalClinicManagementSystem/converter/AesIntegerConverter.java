@@ -8,8 +8,11 @@ import jakarta.persistence.Converter;
 public class AesIntegerConverter
         implements AttributeConverter<Integer, String> {
 
-    private final AesEncryptionService encryptionService =
-            new AesEncryptionService();
+    private final AesEncryptionService encryptionService;
+
+    public AesIntegerConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
 
     @Override
     public String convertToDatabaseColumn(Integer attribute) {
@@ -9,8 +9,11 @@ import jakarta.persistence.Converter;
 public class AesLensTypeConverter
         implements AttributeConverter<LensType, String> {
 
-    private final AesEncryptionService encryptionService =
-            new AesEncryptionService();
+    private final AesEncryptionService encryptionService;
+
+    public AesLensTypeConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
 
     @Override
     public String convertToDatabaseColumn(LensType attribute) {
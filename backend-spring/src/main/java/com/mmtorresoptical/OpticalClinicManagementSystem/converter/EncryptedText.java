@@ -0,0 +1,79 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.converter;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.security.AesEncryptionService;
+
+import java.util.Objects;
+
+/**
+ * Encrypted text column value that defers AES work until it is needed.
+ *
+ * Values loaded from the database hold only their ciphertext and decrypt on the first {@link #get()};
+ * values set by the application hold only their plaintext and encrypt when they are written.
+ * Instances are immutable from the outside — replace the value rather than modifying it.
+ */
+public final class EncryptedText {
+
+    private final AesEncryptionService encryptionService;
+    private volatile String ciphertext;
+    private volatile String plaintext;
+
+    private EncryptedText(AesEncryptionService encryptionService, String ciphertext, String plaintext) {
+        this.encryptionService = encryptionService;
+        this.ciphertext = ciphertext;
+        this.plaintext = plaintext;
+    }
+
+    public static EncryptedText of(String plaintext) {
+        return plaintext == null ? null : new EncryptedText(null, null, plaintext);
+    }
+
+    static EncryptedText fromCiphertext(String ciphertext, AesEncryptionService encryptionService) {
+        return new EncryptedText(encryptionService, ciphertext, null);
+    }
+
+    /** Null-safe plaintext accessor for entity getters. */
+    public static String plaintextOf(EncryptedText value) {
+        return value == null ? null : value.get();
+    }
+
+    public String get() {
+        String value = plaintext;
+        if (value == null) {
+            value = encryptionService.decrypt(ciphertext);
+            plaintext = value;
+        }
+        return value;
+    }
+
+    String ciphertext(AesEncryptionService service) {
+        String value = ciphertext;
+        if (value == null) {
+            value = service.encrypt(plaintext);
+            ciphertext = value;
+        }
+        return value;
+    }
+
+    boolean isDecrypted() {
+        return plaintext != null;
+    }
+
+    // Equality is by plaintext; an untouched loaded value compares by reference or ciphertext without decrypting
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EncryptedText other)) return false;
+        if (ciphertext != null && ciphertext.equals(other.ciphertext)) return true;
+        return Objects.equals(get(), other.get());
+    }
+
+    @Override
+    public int hashCode() {
+        return get().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return isDecrypted() ? "EncryptedText[decrypted]" : "EncryptedText[encrypted]";
+    }
+}
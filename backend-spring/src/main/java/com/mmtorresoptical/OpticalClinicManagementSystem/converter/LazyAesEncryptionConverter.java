@@ -0,0 +1,38 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.converter;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.security.AesEncryptionService;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Counterpart of {@link AesEncryptionConverter} for large or rarely displayed text columns:
+ * hydrates the ciphertext into an {@link EncryptedText} and leaves decryption to the first read.
+ * Marked immutable so Hibernate dirty-checks by reference and never decrypts untouched values.
+ */
+@Converter
+@Immutable
+public class LazyAesEncryptionConverter implements AttributeConverter<EncryptedText, String> {
+
+    private final AesEncryptionService encryptionService;
+
+    public LazyAesEncryptionConverter(AesEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(EncryptedText attribute) {
+
+        if (attribute == null) return null;
+
+        return attribute.ciphertext(encryptionService);
+    }
+
+    @Override
+    public EncryptedText convertToEntityAttribute(String dbData) {
+
+        if (dbData == null) return null;
+
+        return EncryptedText.fromCiphertext(dbData, encryptionService);
+    }
+}
@@ -0,0 +1,28 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.BackupJobStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.BackupJobType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record BackupJobResponseDTO(
+        UUID jobId,
+        BackupJobType type,
+        BackupJobStatus status,
+        String phase,
+        Integer percent,
+        long bytesProcessed,
+        Long bytesTotal,
+        int tablesProcessed,
+        Integer tablesTotal,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant completedAt,
+        Instant expiresAt,
+        String filename,
+        Long sizeBytes,
+        BackupVerificationDTO verification,
+        PointInTimeRestorePlanDTO restorePlan,
+        String errorMessage
+) {}
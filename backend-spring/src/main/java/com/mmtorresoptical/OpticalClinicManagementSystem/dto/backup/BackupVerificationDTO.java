@@ -0,0 +1,11 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup;
+
+public record BackupVerificationDTO(
+        String id,
+        String path,
+        boolean checksumMatches,
+        boolean restored,
+        Integer tableCount,
+        long durationMs,
+        String error
+) {}
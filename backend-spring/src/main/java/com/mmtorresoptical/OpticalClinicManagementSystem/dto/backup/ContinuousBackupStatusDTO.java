@@ -0,0 +1,20 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal.BaseBackupEntry;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ContinuousBackupStatusDTO(
+        boolean enabled,
+        boolean receiverRunning,
+        Instant receiverStartedAt,
+        String lastReceiverError,
+        String slotName,
+        int walSegments,
+        long walBytes,
+        String latestWalFile,
+        Instant latestWalWrittenAt,
+        boolean replacesDailyDumps,
+        List<BaseBackupEntry> baseBackups
+) {}
@@ -0,0 +1,11 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup;
+
+import java.time.Instant;
+
+public record PointInTimeRestorePlanDTO(
+        String baseBackupId,
+        Instant targetTime,
+        String dataDirectory,
+        String serverDataDirectory,
+        String instructions
+) {}
@@ -0,0 +1,14 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+public record PointInTimeRestoreRequestDTO(
+        @NotBlank(message = "Current password is required")
+        String currentPassword,
+
+        @NotNull(message = "Target time is required")
+        Instant targetTime
+) {}
@@ -0,0 +1,19 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat projection of an overdue deposit; patient names are null for walk-in customers.
+ */
+public record AgingReceivableRow(
+        UUID transactionId,
+        String transactionNumber,
+        LocalDateTime transactionDate,
+        String patientFirstName,
+        String patientLastName,
+        BigDecimal totalAmount,
+        BigDecimal amountPaid,
+        BigDecimal balanceDue
+) {}
@@ -0,0 +1,18 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.report;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportFormat;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public record ReportJobRequestDTO(
+        @NotNull(message = "Report type is required")
+        ReportType reportType,
+
+        @NotNull(message = "Format is required")
+        ReportFormat format,
+
+        LocalDate minDate,
+        LocalDate maxDate
+) {}
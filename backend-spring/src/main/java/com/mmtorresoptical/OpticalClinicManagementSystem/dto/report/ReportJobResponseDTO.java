@@ -0,0 +1,25 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.dto.report;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportFormat;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportJobStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record ReportJobResponseDTO(
+        UUID jobId,
+        ReportType reportType,
+        ReportFormat format,
+        LocalDate minDate,
+        LocalDate maxDate,
+        ReportJobStatus status,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant completedAt,
+        Instant expiresAt,
+        Long sizeBytes,
+        String filename,
+        String errorMessage
+) {}
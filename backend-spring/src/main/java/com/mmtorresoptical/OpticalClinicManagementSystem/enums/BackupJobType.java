@@ -0,0 +1,9 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.enums;
+
+public enum BackupJobType {
+    BACKUP,
+    RESTORE,
+    VERIFY,
+    BASE_BACKUP,
+    POINT_IN_TIME_RESTORE
+}
@@ -0,0 +1,7 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.enums;
+
+public enum ReportFormat {
+    EXCEL,
+    PDF,
+    JSON
+}
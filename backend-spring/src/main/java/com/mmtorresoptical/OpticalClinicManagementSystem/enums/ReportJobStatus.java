@@ -0,0 +1,8 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.enums;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -21,6 +21,10 @@ public enum ReportType {
         return this != INVENTORY_ANALYTICS;
     }
 
+    public boolean supportsPdf() {
+        return this != PATIENTS;
+    }
+
     private static String toTitleCase(String enumName) {
         String[] parts = enumName.toLowerCase().split("_");
         StringBuilder builder = new StringBuilder();
@@ -5,6 +5,8 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.Confli
 import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.InsufficientStockException;
 import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.MethodNotAllowedException;
 import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ResourceNotFoundException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.TooManyRequestsException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -98,6 +100,16 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    // Concurrent update that still conflicted after retries (e.g. two checkouts on the same batch)
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<String> handleConcurrencyFailure(
+            ConcurrencyFailureException ex
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("The record was updated by another user at the same time. Please try again.");
+    }
+
     @ExceptionHandler(MethodNotAllowedException.class)
     public ResponseEntity<String> handleMethodNotAllowed(
             MethodNotAllowedException ex
@@ -107,6 +119,15 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(
+            TooManyRequestsException ex
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(
             RuntimeException ex
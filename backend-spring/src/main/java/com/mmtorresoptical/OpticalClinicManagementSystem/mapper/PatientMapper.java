@@ -24,6 +24,15 @@ public interface PatientMapper {
     )
     PatientDetailsDTO entityToDetailedResponse(Patient patient);
 
+    // List rows leave out the lazily decrypted free-text fields
+    @Mapping(
+            target = "sex",
+            expression = "java(patient.getSex().name())"
+    )
+    @Mapping(target = "address", ignore = true)
+    @Mapping(target = "medicalHistory", ignore = true)
+    PatientDetailsDTO entityToListResponse(Patient patient);
+
     @Mapping(
             target = "sex",
             expression = "java(patient.getSex().name())"
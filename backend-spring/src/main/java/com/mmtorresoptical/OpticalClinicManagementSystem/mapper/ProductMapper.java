@@ -16,6 +16,7 @@ public interface ProductMapper {
 
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "supplier", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product createRequestDTOToEntity(CreateProductRequestDTO createProductRequestDTO);
 
     @AfterMapping
@@ -65,14 +66,13 @@ public interface ProductMapper {
 
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "supplier", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateProductFromUpdateRequestDTO(UpdateProductRequestDTO updateProductRequestDTO, @MappingTarget Product product);
 
     @AfterMapping
     default void applyServiceDefaultsOnUpdate(UpdateProductRequestDTO dto, @MappingTarget Product product) {
+        // quantity is not updatable; stock corrections go through ProductBatchService and the reconciler
         if (dto.getProductType() == ProductType.SERVICE) {
-            if (product.getQuantity() == null || product.getQuantity() < 0) {
-                product.setQuantity(0);
-            }
             if (product.getLowLevelThreshold() == null) {
                 product.setLowLevelThreshold(0);
             }
@@ -0,0 +1,36 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cash-basis revenue per day. Gross revenue, the transaction count and voided amounts are
+ * posted against the transaction date; refunded cash against the refund receipt date.
+ * Maintained incrementally by the payment, void and refund paths; read by the dashboard.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "daily_revenue_ledger")
+public class DailyRevenueLedger {
+
+    @Id
+    @Column(name = "ledger_date", nullable = false)
+    private LocalDate ledgerDate;
+
+    @Column(name = "gross_revenue", nullable = false, precision = 15, scale = 2)
+    private BigDecimal grossRevenue;
+
+    @Column(name = "refunded_cash", nullable = false, precision = 15, scale = 2)
+    private BigDecimal refundedCash;
+
+    @Column(name = "voided_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal voidedAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+}
@@ -0,0 +1,29 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-day counter row backing transaction and refund receipt numbers.
+ * The key is the full number prefix (e.g. {@code TXN-20250101-}) and
+ * {@code lastValue} is the highest sequence value handed out so far.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "document_sequences")
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "sequence_key", length = 40, updatable = false, nullable = false)
+    private String sequenceKey;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,8 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.model;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.converter.AesEncryptionConverter;
+import com.mmtorresoptical.OpticalClinicManagementSystem.converter.EncryptedText;
+import com.mmtorresoptical.OpticalClinicManagementSystem.converter.LazyAesEncryptionConverter;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.EyeExamStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ExamType;
 import jakarta.persistence.*;
@@ -37,13 +39,13 @@ public class EyeExam {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "chief_complaint", columnDefinition = "TEXT")
-    private String chiefComplaint;
+    private EncryptedText chiefComplaint;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "medical_history_snapshot", columnDefinition = "TEXT")
-    private String medicalHistorySnapshot;
+    private EncryptedText medicalHistorySnapshot;
 
     @Convert(converter = AesEncryptionConverter.class)
     @Column(name = "va_unconverted_od", columnDefinition = "TEXT")
@@ -69,21 +71,21 @@ public class EyeExam {
     @Column(name = "iop_os", columnDefinition = "TEXT")
     private String iopOs;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "slit_lamp_examination", columnDefinition = "TEXT")
-    private String slitLampExamination;
+    private EncryptedText slitLampExamination;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "fundus_examination", columnDefinition = "TEXT")
-    private String fundusExamination;
+    private EncryptedText fundusExamination;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "clinical_impression", columnDefinition = "TEXT")
-    private String clinicalImpression;
+    private EncryptedText clinicalImpression;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "plan_notes", columnDefinition = "TEXT")
-    private String planNotes;
+    private EncryptedText planNotes;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "exam_type", nullable = false)
@@ -105,4 +107,53 @@ public class EyeExam {
     @ManyToOne
     @JoinColumn(name = "voided_by_user_id")
     private User voidedBy;
+
+    // Lazily decrypted columns are exposed as plain strings
+    public String getChiefComplaint() {
+        return EncryptedText.plaintextOf(chiefComplaint);
+    }
+
+    public void setChiefComplaint(String chiefComplaint) {
+        this.chiefComplaint = EncryptedText.of(chiefComplaint);
+    }
+
+    public String getMedicalHistorySnapshot() {
+        return EncryptedText.plaintextOf(medicalHistorySnapshot);
+    }
+
+    public void setMedicalHistorySnapshot(String medicalHistorySnapshot) {
+        this.medicalHistorySnapshot = EncryptedText.of(medicalHistorySnapshot);
+    }
+
+    public String getSlitLampExamination() {
+        return EncryptedText.plaintextOf(slitLampExamination);
+    }
+
+    public void setSlitLampExamination(String slitLampExamination) {
+        this.slitLampExamination = EncryptedText.of(slitLampExamination);
+    }
+
+    public String getFundusExamination() {
+        return EncryptedText.plaintextOf(fundusExamination);
+    }
+
+    public void setFundusExamination(String fundusExamination) {
+        this.fundusExamination = EncryptedText.of(fundusExamination);
+    }
+
+    public String getClinicalImpression() {
+        return EncryptedText.plaintextOf(clinicalImpression);
+    }
+
+    public void setClinicalImpression(String clinicalImpression) {
+        this.clinicalImpression = EncryptedText.of(clinicalImpression);
+    }
+
+    public String getPlanNotes() {
+        return EncryptedText.plaintextOf(planNotes);
+    }
+
+    public void setPlanNotes(String planNotes) {
+        this.planNotes = EncryptedText.of(planNotes);
+    }
 }
@@ -1,12 +1,15 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.model;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.converter.AesEncryptionConverter;
+import com.mmtorresoptical.OpticalClinicManagementSystem.converter.EncryptedText;
+import com.mmtorresoptical.OpticalClinicManagementSystem.converter.LazyAesEncryptionConverter;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.Sex;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDate;
@@ -15,7 +18,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
-@Data
+@Getter
+@Setter
 @Entity
 @Table(name = "patients")
 public class Patient {
@@ -80,11 +84,9 @@ public class Patient {
     @Column(name = "birth_date", nullable = false)
     private LocalDate birthDate;
 
-    @Convert(converter = AesEncryptionConverter.class)
-    @Size(max = 255)
-    @NotNull
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "address", nullable = false, columnDefinition = "TEXT")
-    private String address;
+    private EncryptedText address;
 
     @Column(name = "is_archived", nullable = false)
     private Boolean isArchived = false;
@@ -98,9 +100,9 @@ public class Patient {
     @Column(name = "full_name_sortable", nullable = false, updatable = false)
     private String fullNameSortable;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "medical_history", columnDefinition = "TEXT")
-    private String medicalHistory;
+    private EncryptedText medicalHistory;
 
     // Relationships
     @OneToMany(mappedBy = "patient")
@@ -108,4 +110,23 @@ public class Patient {
 
     @OneToMany(mappedBy = "patient")
     private List<Transaction> transactions;
+
+    // Lazily decrypted columns are exposed as plain strings
+    @Size(max = 255)
+    @NotNull
+    public String getAddress() {
+        return EncryptedText.plaintextOf(address);
+    }
+
+    public void setAddress(String address) {
+        this.address = EncryptedText.of(address);
+    }
+
+    public String getMedicalHistory() {
+        return EncryptedText.plaintextOf(medicalHistory);
+    }
+
+    public void setMedicalHistory(String medicalHistory) {
+        this.medicalHistory = EncryptedText.of(medicalHistory);
+    }
 }
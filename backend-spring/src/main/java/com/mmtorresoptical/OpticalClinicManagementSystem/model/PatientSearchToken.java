@@ -0,0 +1,43 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Blind-index entry for patient search: the HMAC of one normalized name or
+ * contact-number prefix. Lets the encrypted name and phone columns be searched
+ * with indexed equality lookups without storing any plaintext.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "patient_search_tokens",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_patient_search_tokens_patient_token",
+                columnNames = {"patient_id", "token_hash"}
+        ),
+        indexes = @Index(name = "idx_patient_search_tokens_token", columnList = "token_hash")
+)
+public class PatientSearchToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "patient_id", nullable = false)
+    private UUID patientId;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    public PatientSearchToken(UUID patientId, String tokenHash) {
+        this.patientId = patientId;
+        this.tokenHash = tokenHash;
+    }
+}
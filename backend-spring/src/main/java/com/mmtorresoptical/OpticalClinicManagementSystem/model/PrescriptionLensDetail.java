@@ -2,6 +2,8 @@ package com.mmtorresoptical.OpticalClinicManagementSystem.model;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.converter.AesBigDecimalConverter;
 import com.mmtorresoptical.OpticalClinicManagementSystem.converter.AesEncryptionConverter;
+import com.mmtorresoptical.OpticalClinicManagementSystem.converter.EncryptedText;
+import com.mmtorresoptical.OpticalClinicManagementSystem.converter.LazyAesEncryptionConverter;
 import com.mmtorresoptical.OpticalClinicManagementSystem.converter.AesIntegerConverter;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -27,9 +29,9 @@ public class PrescriptionLensDetail {
     @JoinColumn(name = "prescription_id", nullable = false)
     private Prescription prescription;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "lens_type_purpose", columnDefinition = "TEXT", nullable = false)
-    private String lensTypePurpose;
+    private EncryptedText lensTypePurpose;
 
     // Right eye
     @Convert(converter = AesBigDecimalConverter.class)
@@ -110,9 +112,9 @@ public class PrescriptionLensDetail {
     @Column(name = "diameter", columnDefinition = "TEXT")
     private BigDecimal diameter;
 
-    @Convert(converter = AesEncryptionConverter.class)
+    @Convert(converter = LazyAesEncryptionConverter.class)
     @Column(name = "notes", columnDefinition = "TEXT")
-    private String notes;
+    private EncryptedText notes;
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
@@ -121,4 +123,21 @@ public class PrescriptionLensDetail {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User user;
+
+    // Lazily decrypted columns are exposed as plain strings
+    public String getLensTypePurpose() {
+        return EncryptedText.plaintextOf(lensTypePurpose);
+    }
+
+    public void setLensTypePurpose(String lensTypePurpose) {
+        this.lensTypePurpose = EncryptedText.of(lensTypePurpose);
+    }
+
+    public String getNotes() {
+        return EncryptedText.plaintextOf(notes);
+    }
+
+    public void setNotes(String notes) {
+        this.notes = EncryptedText.of(notes);
+    }
 }
@@ -39,7 +39,8 @@ public class Product {
     @Column(name = "product_type", nullable = false)
     private ProductType productType = ProductType.PHYSICAL;
 
-    @Column(nullable = false)
+    // Maintained by ProductBatchService deltas and ProductStockReconciliationService, never by entity updates
+    @Column(nullable = false, updatable = false)
     private Integer quantity;
 
     @Column(nullable = false)
@@ -63,6 +64,10 @@ public class Product {
 
     private Boolean isArchived = false;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     //Relationships
     @OneToMany(mappedBy = "product",
             cascade = CascadeType.ALL)
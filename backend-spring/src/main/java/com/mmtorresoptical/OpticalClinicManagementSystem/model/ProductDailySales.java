@@ -0,0 +1,39 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Net units sold per product per sales day (transaction date), counting only
+ * PAID/DEPOSIT transactions and excluding refunded quantities.
+ * Maintained incrementally on sale, void and refund; read by the reorder-point logic.
+ */
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "product_daily_sales",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_product_daily_sales_product_date",
+                columnNames = {"product_id", "sales_date"}
+        )
+)
+public class ProductDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "units_sold", nullable = false)
+    private Integer unitsSold;
+}
@@ -19,7 +19,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "transactions")
+@Table(
+        name = "transactions",
+        indexes = @Index(name = "idx_transactions_status_date", columnList = "transaction_status, transaction_date")
+)
 public class Transaction {
 
     @Id
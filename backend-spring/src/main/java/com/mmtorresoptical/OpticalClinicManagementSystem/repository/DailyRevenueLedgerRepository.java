@@ -0,0 +1,97 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.DailyRevenueLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueLedgerRepository extends JpaRepository<DailyRevenueLedger, LocalDate> {
+
+    /*
+     * Adds (possibly negative) deltas to one day, creating the row on first use
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_revenue_ledger (ledger_date, gross_revenue, refunded_cash, voided_amount, transaction_count)
+        VALUES (:ledgerDate, :grossRevenue, :refundedCash, :voidedAmount, :transactionCount)
+        ON CONFLICT (ledger_date)
+        DO UPDATE SET gross_revenue = daily_revenue_ledger.gross_revenue + EXCLUDED.gross_revenue,
+                      refunded_cash = daily_revenue_ledger.refunded_cash + EXCLUDED.refunded_cash,
+                      voided_amount = daily_revenue_ledger.voided_amount + EXCLUDED.voided_amount,
+                      transaction_count = daily_revenue_ledger.transaction_count + EXCLUDED.transaction_count
+        """, nativeQuery = true)
+    int addDelta(@Param("ledgerDate") LocalDate ledgerDate,
+                 @Param("grossRevenue") BigDecimal grossRevenue,
+                 @Param("refundedCash") BigDecimal refundedCash,
+                 @Param("voidedAmount") BigDecimal voidedAmount,
+                 @Param("transactionCount") long transactionCount);
+
+    List<DailyRevenueLedger> findByLedgerDateBetweenOrderByLedgerDateAsc(LocalDate start, LocalDate end);
+
+    /*
+     * PERIOD SUMMARY — one row:
+     * [totalCount, totalGross, totalRefunded,
+     *  todayCount, todayGross, todayRefunded, todayVoided,
+     *  monthCount, monthGross, monthRefunded]
+     */
+    @Query(value = """
+        SELECT COALESCE(SUM(l.transaction_count), 0) AS total_count,
+               COALESCE(SUM(l.gross_revenue), 0) AS total_gross,
+               COALESCE(SUM(l.refunded_cash), 0) AS total_refunded,
+               COALESCE(SUM(l.transaction_count) FILTER (WHERE l.ledger_date = :today), 0) AS today_count,
+               COALESCE(SUM(l.gross_revenue) FILTER (WHERE l.ledger_date = :today), 0) AS today_gross,
+               COALESCE(SUM(l.refunded_cash) FILTER (WHERE l.ledger_date = :today), 0) AS today_refunded,
+               COALESCE(SUM(l.voided_amount) FILTER (WHERE l.ledger_date = :today), 0) AS today_voided,
+               COALESCE(SUM(l.transaction_count) FILTER (WHERE l.ledger_date BETWEEN :monthStart AND :monthEnd), 0) AS month_count,
+               COALESCE(SUM(l.gross_revenue) FILTER (WHERE l.ledger_date BETWEEN :monthStart AND :monthEnd), 0) AS month_gross,
+               COALESCE(SUM(l.refunded_cash) FILTER (WHERE l.ledger_date BETWEEN :monthStart AND :monthEnd), 0) AS month_refunded
+        FROM daily_revenue_ledger l
+        """, nativeQuery = true)
+    List<Object[]> summarize(@Param("today") LocalDate today,
+                             @Param("monthStart") LocalDate monthStart,
+                             @Param("monthEnd") LocalDate monthEnd);
+
+    /*
+     * Waits for in-flight postings to commit and holds new ones until the rebuild commits,
+     * so none is lost between the delete and the recomputation
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE daily_revenue_ledger IN EXCLUSIVE MODE", nativeQuery = true)
+    int lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_revenue_ledger", nativeQuery = true)
+    int deleteAllRows();
+
+    /*
+     * Recomputes every day from transactions and refund receipts
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_revenue_ledger (ledger_date, gross_revenue, refunded_cash, voided_amount, transaction_count)
+        SELECT d.ledger_date, SUM(d.gross_revenue), SUM(d.refunded_cash), SUM(d.voided_amount), SUM(d.transaction_count)
+        FROM (
+            SELECT CAST(t.transaction_date AS DATE) AS ledger_date,
+                   CASE t.transaction_status
+                       WHEN 'PAID' THEN t.total_amount
+                       WHEN 'DEPOSIT' THEN COALESCE(t.amount_paid, 0)
+                       ELSE 0 END AS gross_revenue,
+                   0 AS refunded_cash,
+                   CASE WHEN t.transaction_status = 'VOIDED' THEN t.total_amount ELSE 0 END AS voided_amount,
+                   CASE WHEN t.transaction_status <> 'VOIDED' THEN 1 ELSE 0 END AS transaction_count
+            FROM transactions t
+            UNION ALL
+            SELECT CAST(r.created_at AS DATE), 0, COALESCE(r.actual_cashback, 0), 0, 0
+            FROM refund_receipts r
+        ) d
+        GROUP BY d.ledger_date
+        """, nativeQuery = true)
+    int rebuild();
+}
@@ -0,0 +1,43 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.DocumentSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, String> {
+
+    /**
+     * Atomically advances an existing counter row by {@code blockSize} and returns the new last value.
+     * Runs in its own transaction so the row lock is released before the caller's checkout commits.
+     * Returns {@code null} when no row exists yet for the key.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+        UPDATE document_sequences
+        SET last_value = last_value + :blockSize, updated_at = NOW()
+        WHERE sequence_key = :sequenceKey
+        RETURNING last_value
+        """, nativeQuery = true)
+    Long advance(@Param("sequenceKey") String sequenceKey, @Param("blockSize") int blockSize);
+
+    /**
+     * Creates the counter row starting after {@code seedValue}, or advances it if another
+     * instance created it first. Returns the new last value.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+        INSERT INTO document_sequences (sequence_key, last_value, updated_at)
+        VALUES (:sequenceKey, :seedValue + :blockSize, NOW())
+        ON CONFLICT (sequence_key) DO UPDATE
+        SET last_value = document_sequences.last_value + :blockSize, updated_at = NOW()
+        RETURNING last_value
+        """, nativeQuery = true)
+    Long createOrAdvance(@Param("sequenceKey") String sequenceKey,
+                         @Param("seedValue") long seedValue,
+                         @Param("blockSize") int blockSize);
+}
@@ -4,6 +4,7 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.enums.FollowUpStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.PatientFollowUp;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -31,8 +32,37 @@ public interface PatientFollowUpRepository
     @Query("SELECT MAX(f.actualVisitDate) FROM PatientFollowUp f WHERE f.patient.patientId = :patientId AND f.status = 'COMPLETED'")
     LocalDate findMaxActualVisitDateByPatientId(UUID patientId);
 
-    @Query("SELECT f FROM PatientFollowUp f WHERE f.status = 'PENDING' AND f.scheduledDate < :cutoffDate AND f.isArchived = false")
-    List<PatientFollowUp> findStalePendingFollowUps(@Param("cutoffDate") LocalDate cutoffDate);
+    /*
+     * AUTO NO-SHOW — marks every stale PENDING follow-up in one statement; returns the row count
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE patient_follow_ups
+        SET status = 'NO_SHOW', updated_at = LOCALTIMESTAMP
+        WHERE status = 'PENDING' AND scheduled_date < :cutoffDate AND is_archived = false
+        """, nativeQuery = true)
+    int markStalePendingAsNoShow(@Param("cutoffDate") LocalDate cutoffDate);
+
+    /*
+     * AUTO NO-SHOW (chunked) — marks up to :limit stale PENDING follow-ups, oldest first, and returns
+     * [followUpId, patientId, scheduledDate] for each. Rows locked by a concurrent run are skipped.
+     */
+    @Query(value = """
+        WITH stale AS (
+            SELECT f.follow_up_id
+            FROM patient_follow_ups f
+            WHERE f.status = 'PENDING' AND f.scheduled_date < :cutoffDate AND f.is_archived = false
+            ORDER BY f.scheduled_date
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        UPDATE patient_follow_ups u
+        SET status = 'NO_SHOW', updated_at = LOCALTIMESTAMP
+        FROM stale
+        WHERE u.follow_up_id = stale.follow_up_id
+        RETURNING u.follow_up_id, u.patient_id, u.scheduled_date
+        """, nativeQuery = true)
+    List<Object[]> markStalePendingAsNoShowChunk(@Param("cutoffDate") LocalDate cutoffDate, @Param("limit") int limit);
 
     Optional<PatientFollowUp> findByPatientPatientIdAndScheduledDateAndStatus(
         UUID patientId, LocalDate scheduledDate, FollowUpStatus status);
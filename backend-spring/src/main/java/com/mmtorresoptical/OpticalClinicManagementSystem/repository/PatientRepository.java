@@ -7,6 +7,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +26,17 @@ public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpec
     Boolean existsByFirstNameHashAndMiddleNameHashAndLastNameHash(String firstNameHash, String middleNameHash,String lastNameHash);
     Boolean existsByEmailHash(String emailHash);
 
+    // Patients with no blind-index tokens yet (created before the search index existed), keyset-paged by id
+    @Query("""
+        SELECT p FROM Patient p
+        WHERE p.patientId > :afterId
+          AND NOT EXISTS (
+            SELECT 1 FROM PatientSearchToken t WHERE t.patientId = p.patientId
+          )
+        ORDER BY p.patientId
+    """)
+    List<Patient> findPatientsWithoutSearchTokens(@Param("afterId") UUID afterId, Pageable pageable);
+
     // Aggregation queries for reports
     long countByIsArchived(boolean archived);
 
@@ -39,9 +51,6 @@ public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpec
     @Query("SELECT COUNT(DISTINCT p) FROM Patient p JOIN p.prescriptions pr WHERE p.isArchived = false AND pr.isArchived = false")
     long countActivePatientsWithPrescriptions();
 
-    @Query("SELECT p FROM Patient p WHERE p.createdAt >= :start ORDER BY p.createdAt")
-    List<Patient> findByCreatedAtAfter(LocalDateTime start);
-
     @Query("SELECT FUNCTION('DATE', p.createdAt) as day, COUNT(p) " +
            "FROM Patient p " +
            "WHERE p.createdAt >= :start AND p.createdAt < :end " +
@@ -49,6 +58,16 @@ public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpec
            "ORDER BY FUNCTION('DATE', p.createdAt)")
     List<Object[]> countPatientsGroupedByDay(LocalDateTime start, LocalDateTime end);
 
+    // [month 'YYYY-MM', newPatients] for months with at least one new patient
+    @Query(value = """
+        SELECT to_char(date_trunc('month', p.created_at), 'YYYY-MM') AS month, COUNT(*) AS patient_count
+        FROM patients p
+        WHERE p.created_at >= :start AND p.created_at < :end
+        GROUP BY date_trunc('month', p.created_at)
+        ORDER BY date_trunc('month', p.created_at)
+        """, nativeQuery = true)
+    List<Object[]> countPatientsGroupedByMonth(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     @Query("SELECT COUNT(p) FROM Patient p WHERE p.isArchived = false AND NOT EXISTS (SELECT t FROM Transaction t WHERE t.patient.patientId = p.patientId)")
     long countActivePatientsWithNoTransactions();
 }
@@ -0,0 +1,18 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.PatientSearchToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface PatientSearchTokenRepository extends JpaRepository<PatientSearchToken, UUID> {
+
+    @Modifying
+    @Query("DELETE FROM PatientSearchToken t WHERE t.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") UUID patientId);
+}
@@ -1,25 +1,43 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.ProductBatch;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProductBatchRepository extends JpaRepository<ProductBatch, Long> {
 
+    /**
+     * FEFO-ordered active batches for several products, locked FOR UPDATE until the caller's
+     * transaction ends so concurrent deductions of the same batch are serialized.
+     * The batch id tiebreaker keeps the lock order deterministic across transactions.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
         SELECT b FROM ProductBatch b
-        WHERE b.product.productId = :productId
+        WHERE b.product.productId IN :productIds
           AND b.quantityRemaining > 0
           AND (b.expiryDate IS NULL OR b.expiryDate >= CURRENT_DATE)
-        ORDER BY b.expiryDate ASC NULLS LAST, b.receivedDate ASC
+        ORDER BY b.expiryDate ASC NULLS LAST, b.receivedDate ASC, b.productBatchId ASC
     """)
-    List<ProductBatch> findActiveBatchesFefo(@Param("productId") UUID productId);
+    List<ProductBatch> lockActiveBatchesFefoForProducts(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * One batch, locked FOR UPDATE until the caller's transaction ends, for deductions from a
+     * batch picked by the user rather than by FEFO.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ProductBatch b WHERE b.productBatchId = :batchId")
+    Optional<ProductBatch> lockById(@Param("batchId") Long batchId);
 
     @Query("""
         SELECT b FROM ProductBatch b
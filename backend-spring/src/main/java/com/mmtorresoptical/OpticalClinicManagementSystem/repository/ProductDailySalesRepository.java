@@ -0,0 +1,70 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.ProductDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, UUID> {
+
+    /*
+     * Adds a (possibly negative) unit delta to one product's sales day, creating the row on first use
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO product_daily_sales (id, product_id, sales_date, units_sold)
+        VALUES (gen_random_uuid(), :productId, :salesDate, :delta)
+        ON CONFLICT (product_id, sales_date)
+        DO UPDATE SET units_sold = product_daily_sales.units_sold + EXCLUDED.units_sold
+        """, nativeQuery = true)
+    int addUnits(@Param("productId") UUID productId,
+                 @Param("salesDate") LocalDate salesDate,
+                 @Param("delta") int delta);
+
+    /*
+     * [productId, totalNetUnitsSold] over sales days on or after :sinceDate
+     */
+    @Query("""
+        SELECT s.productId, SUM(s.unitsSold)
+        FROM ProductDailySales s
+        WHERE s.salesDate >= :sinceDate
+        GROUP BY s.productId
+    """)
+    List<Object[]> sumUnitsSoldPerProductSince(@Param("sinceDate") LocalDate sinceDate);
+
+    /*
+     * Waits for in-flight postings to commit and holds new ones until the rebuild commits,
+     * so none is lost or counted twice between the delete and the recomputation
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE product_daily_sales IN EXCLUSIVE MODE", nativeQuery = true)
+    int lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM product_daily_sales", nativeQuery = true)
+    int deleteAllRows();
+
+    /*
+     * Recomputes the rollup from transaction items for transactions on or after :since
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO product_daily_sales (id, product_id, sales_date, units_sold)
+        SELECT gen_random_uuid(), ti.product_id, CAST(t.transaction_date AS DATE),
+               SUM(ti.quantity - COALESCE(ti.refunded_quantity, 0))
+        FROM transaction_items ti
+        JOIN transactions t ON ti.transaction_id = t.transaction_id
+        WHERE t.transaction_status IN ('PAID', 'DEPOSIT')
+          AND t.transaction_date >= :since
+        GROUP BY ti.product_id, CAST(t.transaction_date AS DATE)
+        """, nativeQuery = true)
+    int rebuildSince(@Param("since") LocalDateTime since);
+}
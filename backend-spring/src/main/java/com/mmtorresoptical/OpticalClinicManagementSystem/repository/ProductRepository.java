@@ -4,10 +4,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,12 +24,50 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
     Page<Product> findAllByIsArchivedFalse(Pageable pageable);
     Page<Product> findAllByIsArchivedTrue(Pageable pageable);
 
+    // Stock counter maintenance — quantity is not updatable through the entity
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :delta WHERE p.productId = :productId")
+    int adjustQuantity(@Param("productId") UUID productId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = :quantity WHERE p.productId = :productId")
+    int overwriteQuantity(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    @Query(value = "SELECT quantity FROM products WHERE product_id = :productId FOR UPDATE", nativeQuery = true)
+    Integer lockQuantity(@Param("productId") UUID productId);
+
+    /*
+     * PHYSICAL products whose stored quantity differs from the sum of their non-expired batches
+     */
+    @Query(value = """
+        SELECT p.product_id
+        FROM products p
+        LEFT JOIN product_batches b
+            ON b.product_id = p.product_id
+           AND (b.expiry_date IS NULL OR b.expiry_date >= CURRENT_DATE)
+        WHERE p.product_type = 'PHYSICAL'
+        GROUP BY p.product_id, p.quantity
+        HAVING p.quantity <> COALESCE(SUM(b.quantity_remaining), 0)
+        """, nativeQuery = true)
+    List<UUID> findProductIdsWithStockDrift();
+
+    /*
+     * Trigram product search. Both the substring LIKE and the word-similarity (<%) match are
+     * answered by the idx_products_name_trgm GIN index, so only matching rows are ranked
+     * (see ProductSearchIndexInitializer).
+     */
     @Query(value = """
         SELECT * FROM (
-            SELECT * FROM products p
+            SELECT p.* FROM products p
+            LEFT JOIN (
+                SELECT s.product_id, SUM(s.units_sold) AS units_sold
+                FROM product_daily_sales s
+                WHERE s.sales_date >= :velocitySince
+                GROUP BY s.product_id
+            ) v ON v.product_id = p.product_id
             WHERE (
                 LOWER(p.product_name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                OR levenshtein(LOWER(p.product_name), LOWER(:keyword)) <= :maxDistance
+                OR LOWER(:keyword) <% LOWER(p.product_name)
             )
             AND (:categoryId IS NULL OR p.category_id = CAST(:categoryId AS UUID))
             AND (:supplierId IS NULL OR p.supplier_id = CAST(:supplierId AS UUID))
@@ -39,21 +79,28 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
             AND (:archivedStatus IS NULL OR p.is_archived = :archivedStatus)
             AND (:stockStatus IS NULL
                 OR (:stockStatus = 'OUT_OF_STOCK' AND p.product_type != 'SERVICE' AND p.quantity = 0)
-                OR (:stockStatus = 'LOW_STOCK' AND p.product_type != 'SERVICE' AND p.quantity > 0 AND p.quantity <= GREATEST(p.low_level_threshold, ROUND((SELECT COALESCE(SUM(ti.quantity - COALESCE(ti.refunded_quantity, 0)), 0)::float / 30.0 * COALESCE(p.lead_time_days, 3) FROM transaction_items ti JOIN transactions t ON ti.transaction_id = t.transaction_id WHERE ti.product_id = p.product_id AND t.transaction_status IN ('PAID', 'DEPOSIT') AND t.transaction_date >= NOW() - INTERVAL '30 days'))::int + 2))
+                OR (:stockStatus = 'LOW_STOCK' AND p.product_type != 'SERVICE' AND p.quantity > 0 AND p.quantity <= GREATEST(p.low_level_threshold, ROUND((COALESCE(v.units_sold, 0)::float / 30.0 * COALESCE(p.lead_time_days, 3)))::int + 2))
                 OR (:stockStatus = 'OVERSTOCKED' AND p.product_type != 'SERVICE' AND p.quantity >= p.overstocked_threshold)
-                OR (:stockStatus = 'NORMAL' AND p.product_type != 'SERVICE' AND p.quantity > GREATEST(p.low_level_threshold, ROUND((SELECT COALESCE(SUM(ti.quantity - COALESCE(ti.refunded_quantity, 0)), 0)::float / 30.0 * COALESCE(p.lead_time_days, 3) FROM transaction_items ti JOIN transactions t ON ti.transaction_id = t.transaction_id WHERE ti.product_id = p.product_id AND t.transaction_status IN ('PAID', 'DEPOSIT') AND t.transaction_date >= NOW() - INTERVAL '30 days'))::int + 2) AND p.quantity < p.overstocked_threshold)
+                OR (:stockStatus = 'NORMAL' AND p.product_type != 'SERVICE' AND p.quantity > GREATEST(p.low_level_threshold, ROUND((COALESCE(v.units_sold, 0)::float / 30.0 * COALESCE(p.lead_time_days, 3)))::int + 2) AND p.quantity < p.overstocked_threshold)
                 OR (:stockStatus = 'REORDER_NEEDED' AND p.is_archived = false AND p.product_type != 'SERVICE' AND p.quantity > 0)
             )
             ORDER BY
                 CASE WHEN LOWER(p.product_name) LIKE LOWER(CONCAT('%', :keyword, '%')) THEN 0 ELSE 1 END,
-                levenshtein(LOWER(p.product_name), LOWER(:keyword)) ASC
+                word_similarity(LOWER(:keyword), LOWER(p.product_name)) DESC,
+                p.product_name ASC
         ) AS fuzzy_results
         """,
         countQuery = """
         SELECT count(*) FROM products p
+        LEFT JOIN (
+            SELECT s.product_id, SUM(s.units_sold) AS units_sold
+            FROM product_daily_sales s
+            WHERE s.sales_date >= :velocitySince
+            GROUP BY s.product_id
+        ) v ON v.product_id = p.product_id
         WHERE (
             LOWER(p.product_name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-            OR levenshtein(LOWER(p.product_name), LOWER(:keyword)) <= :maxDistance
+            OR LOWER(:keyword) <% LOWER(p.product_name)
         )
         AND (:categoryId IS NULL OR p.category_id = CAST(:categoryId AS UUID))
         AND (:supplierId IS NULL OR p.supplier_id = CAST(:supplierId AS UUID))
@@ -65,16 +112,15 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
         AND (:archivedStatus IS NULL OR p.is_archived = :archivedStatus)
         AND (:stockStatus IS NULL
             OR (:stockStatus = 'OUT_OF_STOCK' AND p.product_type != 'SERVICE' AND p.quantity = 0)
-            OR (:stockStatus = 'LOW_STOCK' AND p.product_type != 'SERVICE' AND p.quantity > 0 AND p.quantity <= GREATEST(p.low_level_threshold, ROUND((SELECT COALESCE(SUM(ti.quantity - COALESCE(ti.refunded_quantity, 0)), 0)::float / 30.0 * COALESCE(p.lead_time_days, 3) FROM transaction_items ti JOIN transactions t ON ti.transaction_id = t.transaction_id WHERE ti.product_id = p.product_id AND t.transaction_status IN ('PAID', 'DEPOSIT') AND t.transaction_date >= NOW() - INTERVAL '30 days'))::int + 2))
+            OR (:stockStatus = 'LOW_STOCK' AND p.product_type != 'SERVICE' AND p.quantity > 0 AND p.quantity <= GREATEST(p.low_level_threshold, ROUND((COALESCE(v.units_sold, 0)::float / 30.0 * COALESCE(p.lead_time_days, 3)))::int + 2))
             OR (:stockStatus = 'OVERSTOCKED' AND p.product_type != 'SERVICE' AND p.quantity >= p.overstocked_threshold)
-            OR (:stockStatus = 'NORMAL' AND p.product_type != 'SERVICE' AND p.quantity > GREATEST(p.low_level_threshold, ROUND((SELECT COALESCE(SUM(ti.quantity - COALESCE(ti.refunded_quantity, 0)), 0)::float / 30.0 * COALESCE(p.lead_time_days, 3) FROM transaction_items ti JOIN transactions t ON ti.transaction_id = t.transaction_id WHERE ti.product_id = p.product_id AND t.transaction_status IN ('PAID', 'DEPOSIT') AND t.transaction_date >= NOW() - INTERVAL '30 days'))::int + 2) AND p.quantity < p.overstocked_threshold)
+            OR (:stockStatus = 'NORMAL' AND p.product_type != 'SERVICE' AND p.quantity > GREATEST(p.low_level_threshold, ROUND((COALESCE(v.units_sold, 0)::float / 30.0 * COALESCE(p.lead_time_days, 3)))::int + 2) AND p.quantity < p.overstocked_threshold)
             OR (:stockStatus = 'REORDER_NEEDED' AND p.is_archived = false AND p.product_type != 'SERVICE' AND p.quantity > 0)
         )
         """,
         nativeQuery = true)
     Page<Product> fuzzySearchProducts(
         @Param("keyword") String keyword,
-        @Param("maxDistance") int maxDistance,
         @Param("categoryId") UUID categoryId,
         @Param("supplierId") UUID supplierId,
         @Param("productType") String productType,
@@ -84,6 +130,7 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
         @Param("maxQty") Integer maxQty,
         @Param("archivedStatus") Boolean archivedStatus,
         @Param("stockStatus") String stockStatus,
+        @Param("velocitySince") LocalDate velocitySince,
         Pageable pageable
     );
 }
\ No newline at end of file
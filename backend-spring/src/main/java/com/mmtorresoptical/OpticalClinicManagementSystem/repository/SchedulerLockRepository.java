@@ -0,0 +1,39 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /*
+     * Takes the lock if it is free or its holder's lease has run out; returns 1 when taken, 0 otherwise.
+     * Times come from the database clock so instances with drifting clocks agree.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO scheduler_locks (lock_name, locked_until, locked_at, locked_by)
+        VALUES (:lockName, LOCALTIMESTAMP + make_interval(secs => CAST(:lockSeconds AS double precision)),
+                LOCALTIMESTAMP, :lockedBy)
+        ON CONFLICT (lock_name)
+        DO UPDATE SET locked_until = EXCLUDED.locked_until,
+                      locked_at = EXCLUDED.locked_at,
+                      locked_by = EXCLUDED.locked_by
+        WHERE scheduler_locks.locked_until <= LOCALTIMESTAMP
+        """, nativeQuery = true)
+    int tryAcquire(@Param("lockName") String lockName,
+                   @Param("lockSeconds") long lockSeconds,
+                   @Param("lockedBy") String lockedBy);
+
+    @Modifying
+    @Query(value = """
+        UPDATE scheduler_locks
+        SET locked_until = LOCALTIMESTAMP
+        WHERE lock_name = :lockName AND locked_by = :lockedBy
+        """, nativeQuery = true)
+    int release(@Param("lockName") String lockName, @Param("lockedBy") String lockedBy);
+}
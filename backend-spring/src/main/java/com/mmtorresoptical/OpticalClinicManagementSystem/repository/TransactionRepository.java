@@ -1,5 +1,6 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.repository;
 
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.AgingReceivableRow;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.FulfillmentStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.Transaction;
@@ -7,7 +8,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.Nullable;
 import org.springframework.data.domain.Sort;
@@ -16,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID>, JpaSpecificationExecutor<Transaction> {
 
@@ -69,42 +74,20 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
     @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM Transaction t WHERE t.transactionStatus <> :excludedStatus AND t.transactionDate >= :start AND t.transactionDate < :end")
     BigDecimal sumTotalAmountByTransactionDateBetweenExcludingStatus(LocalDateTime start, LocalDateTime end, TransactionStatus excludedStatus);
 
-    @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM Transaction t WHERE t.transactionStatus = :status AND t.transactionDate >= :start AND t.transactionDate < :end")
-    BigDecimal sumTotalAmountByTransactionStatusAndDateBetween(@Param("status") TransactionStatus status, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query("SELECT COALESCE(SUM(t.amountPaid), 0) FROM Transaction t WHERE t.transactionStatus = :status AND t.transactionDate >= :start AND t.transactionDate < :end")
-    BigDecimal sumAmountPaidByTransactionStatusAndDateBetween(@Param("status") TransactionStatus status, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query("SELECT FUNCTION('DATE', t.transactionDate) as day, COALESCE(SUM(t.totalAmount), 0) " +
-           "FROM Transaction t " +
-           "WHERE t.transactionStatus = :status " +
-           "AND t.transactionDate >= :start AND t.transactionDate < :end " +
-           "GROUP BY FUNCTION('DATE', t.transactionDate) " +
-           "ORDER BY FUNCTION('DATE', t.transactionDate)")
-    List<Object[]> sumTotalAmountByStatusGroupedByDay(@Param("status") TransactionStatus status, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query("SELECT FUNCTION('DATE', t.transactionDate) as day, COALESCE(SUM(t.amountPaid), 0) " +
-           "FROM Transaction t " +
-           "WHERE t.transactionStatus = :status " +
-           "AND t.transactionDate >= :start AND t.transactionDate < :end " +
-           "GROUP BY FUNCTION('DATE', t.transactionDate) " +
-           "ORDER BY FUNCTION('DATE', t.transactionDate)")
-    List<Object[]> sumAmountPaidByStatusGroupedByDay(@Param("status") TransactionStatus status, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
-
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.transactionStatus <> :status")
-    long countByTransactionStatusNot(TransactionStatus status);
-
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.transactionStatus <> :status AND t.transactionDate >= :start AND t.transactionDate < :end")
-    long countByTransactionStatusNotAndTransactionDateBetween(TransactionStatus status, LocalDateTime start, LocalDateTime end);
-
-    @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM Transaction t WHERE t.transactionStatus = com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus.VOIDED AND t.transactionDate >= :start AND t.transactionDate < :end")
-    BigDecimal sumVoidedAmountByTransactionDateBetween(LocalDateTime start, LocalDateTime end);
-
-    @Query("SELECT COALESCE(SUM(t.totalAmount - t.amountPaid + COALESCE(t.totalRefundedCash, 0)), 0) FROM Transaction t WHERE t.transactionStatus = com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus.DEPOSIT")
-    BigDecimal sumBalanceDueByTransactionStatusPartiallyPaid();
-
-    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.patient WHERE t.transactionStatus = com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus.DEPOSIT AND (t.totalAmount - t.amountPaid + COALESCE(t.totalRefundedCash, 0)) > 0 AND t.transactionDate < :cutoffDate ORDER BY t.transactionDate ASC")
-    List<Transaction> findAgingAccountsReceivable(LocalDateTime cutoffDate);
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.AgingReceivableRow(
+            t.transactionId, t.transactionNumber, t.transactionDate,
+            p.firstName, p.lastName,
+            t.totalAmount, t.amountPaid, t.balanceDue
+        )
+        FROM Transaction t
+        LEFT JOIN t.patient p
+        WHERE t.transactionStatus = com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus.DEPOSIT
+          AND (t.totalAmount - t.amountPaid + COALESCE(t.totalRefundedCash, 0)) > 0
+          AND t.transactionDate < :cutoffDate
+        ORDER BY t.transactionDate ASC
+    """)
+    List<AgingReceivableRow> findAgingAccountsReceivable(@Param("cutoffDate") LocalDateTime cutoffDate);
 
     @Query("SELECT MIN(t.transactionDate) FROM Transaction t")
     LocalDateTime findMinTransactionDate();
@@ -122,4 +105,59 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>,
            "GROUP BY FUNCTION('DATE', t.transactionDate) " +
            "ORDER BY FUNCTION('DATE', t.transactionDate)")
     List<Object[]> sumGrossRevenueGroupedByDay(LocalDateTime start, LocalDateTime end, TransactionStatus excludedStatus);
-}
\ No newline at end of file
+
+    /*
+     * OPEN TRANSACTIONS — one row: [accountsReceivable, awaitingPickupCount, depositsPendingCount].
+     */
+    @Query(value = """
+        SELECT COALESCE(SUM(t.total_amount - t.amount_paid + COALESCE(t.total_refunded_cash, 0))
+                        FILTER (WHERE t.transaction_status = 'DEPOSIT'), 0) AS accounts_receivable,
+               COUNT(*) FILTER (WHERE t.fulfillment_status = 'FOR_PICKUP') AS awaiting_pickup_count,
+               COUNT(*) FILTER (WHERE t.transaction_status = 'DEPOSIT') AS deposits_pending_count
+        FROM transactions t
+        WHERE t.transaction_status = 'DEPOSIT' OR t.fulfillment_status = 'FOR_PICKUP'
+        """, nativeQuery = true)
+    List<Object[]> summarizeOpenTransactions();
+
+    /*
+     * MONTHLY TREND — one row per month with activity: [month 'YYYY-MM', transactionCount, netRevenue].
+     * Net revenue is cash-basis (PAID → total, DEPOSIT → amount paid, VOIDED → 0) minus the cash
+     * actually returned on refunded transactions.
+     */
+    @Query(value = """
+        SELECT to_char(date_trunc('month', t.transaction_date), 'YYYY-MM') AS month,
+               COUNT(*) AS transaction_count,
+               COALESCE(SUM(CASE t.transaction_status
+                                WHEN 'PAID' THEN t.total_amount
+                                WHEN 'DEPOSIT' THEN t.amount_paid
+                                ELSE 0 END), 0)
+             - COALESCE(SUM(CASE WHEN t.refund_status IN ('PARTIAL', 'FULL')
+                                 THEN r.cashback ELSE 0 END), 0) AS net_revenue
+        FROM transactions t
+        LEFT JOIN (
+            SELECT rr.transaction_id, SUM(rr.actual_cashback) AS cashback
+            FROM refund_receipts rr
+            GROUP BY rr.transaction_id
+        ) r ON r.transaction_id = t.transaction_id
+        WHERE t.transaction_date >= :start AND t.transaction_date < :end
+        GROUP BY date_trunc('month', t.transaction_date)
+        ORDER BY date_trunc('month', t.transaction_date)
+        """, nativeQuery = true)
+    List<Object[]> summarizeMonthlyTrend(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /*
+     * Flat rows for the tabular transactions export, read through a server-side cursor:
+     * [transactionId, transactionDate, totalAmount, amountPaid, balanceDue, transactionStatus]
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT t.transactionId, t.transactionDate, t.totalAmount, t.amountPaid, t.balanceDue, t.transactionStatus
+        FROM Transaction t
+        WHERE t.transactionDate BETWEEN :start AND :end
+        ORDER BY t.transactionDate DESC
+    """)
+    Stream<Object[]> streamReportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,286 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.repository.report;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Transaction;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.RefundItemCreditRow;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionHeaderRow;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionItemRow;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionPaymentRow;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionStatusTotalRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flat projections for the hierarchical transaction PDF report.
+ *
+ * The range queries cover every transaction in the date range at once, so the on-screen report
+ * is assembled from four statements regardless of its size. The PDF instead reads one status
+ * group at a time in keyset pages and loads the children of each page by id.
+ */
+@Repository
+public interface TransactionReportRepository extends JpaRepository<Transaction, UUID> {
+
+    /*
+     * TRANSACTION HEADERS WITH PATIENT / CASHIER / VOIDER NAMES
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionHeaderRow(
+            t.transactionId,
+            t.transactionNumber,
+            t.transactionDate,
+            t.totalAmount,
+            t.amountPaid,
+            t.balanceDue,
+            t.transactionStatus,
+            t.refundStatus,
+            t.voidReason,
+            t.voidedAt,
+            p.firstName,
+            p.lastName,
+            u.firstName,
+            u.lastName,
+            vb.firstName,
+            vb.lastName
+        )
+        FROM Transaction t
+        LEFT JOIN t.patient p
+        LEFT JOIN t.user u
+        LEFT JOIN t.voidedBy vb
+        WHERE t.transactionDate BETWEEN :start AND :end
+        ORDER BY t.transactionDate DESC
+    """)
+    List<TransactionHeaderRow> findHeaderRows(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /*
+     * LINE ITEMS OF TRANSACTIONS IN RANGE
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionItemRow(
+            t.transactionId,
+            ti.transactionItemId,
+            pr.productName,
+            ti.quantity,
+            ti.unitPrice,
+            ti.subtotal,
+            ti.discountType,
+            ti.discountValue,
+            ti.refundedQuantity
+        )
+        FROM TransactionItem ti
+        JOIN ti.transaction t
+        LEFT JOIN ti.product pr
+        WHERE t.transactionDate BETWEEN :start AND :end
+    """)
+    List<TransactionItemRow> findItemRows(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /*
+     * PAYMENTS OF TRANSACTIONS IN RANGE
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionPaymentRow(
+            t.transactionId,
+            pm.amount,
+            pm.paymentMethod,
+            pm.gcashNumber,
+            pm.referenceNumber,
+            pm.createdAt
+        )
+        FROM Payment pm
+        JOIN pm.transaction t
+        WHERE t.transactionDate BETWEEN :start AND :end
+        ORDER BY pm.createdAt
+    """)
+    List<TransactionPaymentRow> findPaymentRows(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /*
+     * REFUND CREDITS PER TRANSACTION ITEM
+     * Oldest receipt first so the first reason seen per item is the original one
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.RefundItemCreditRow(
+            ti.transactionItemId,
+            ri.itemCreditAmount,
+            ri.refundReason
+        )
+        FROM RefundItem ri
+        JOIN ri.transactionItem ti
+        JOIN ri.refundReceipt rr
+        JOIN rr.transaction t
+        WHERE t.transactionDate BETWEEN :start AND :end
+        ORDER BY rr.createdAt
+    """)
+    List<RefundItemCreditRow> findRefundItemCreditRows(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /*
+     * COUNT AND TOTAL PER STATUS / REFUND STATUS, FOR THE PDF SUMMARY AND GROUP HEADINGS
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionStatusTotalRow(
+            t.transactionStatus,
+            t.refundStatus,
+            COUNT(t),
+            SUM(t.totalAmount)
+        )
+        FROM Transaction t
+        WHERE t.transactionDate BETWEEN :start AND :end
+        GROUP BY t.transactionStatus, t.refundStatus
+    """)
+    List<TransactionStatusTotalRow> findStatusTotals(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    /*
+     * FIRST PAGE OF ONE STATUS GROUP, NEWEST FIRST
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionHeaderRow(
+            t.transactionId,
+            t.transactionNumber,
+            t.transactionDate,
+            t.totalAmount,
+            t.amountPaid,
+            t.balanceDue,
+            t.transactionStatus,
+            t.refundStatus,
+            t.voidReason,
+            t.voidedAt,
+            p.firstName,
+            p.lastName,
+            u.firstName,
+            u.lastName,
+            vb.firstName,
+            vb.lastName
+        )
+        FROM Transaction t
+        LEFT JOIN t.patient p
+        LEFT JOIN t.user u
+        LEFT JOIN t.voidedBy vb
+        WHERE t.transactionStatus = :status
+          AND t.transactionDate BETWEEN :start AND :end
+        ORDER BY t.transactionDate DESC, t.transactionId DESC
+    """)
+    List<TransactionHeaderRow> findHeaderRowsByStatus(
+            @Param("status") TransactionStatus status,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            Pageable pageable
+    );
+
+    /*
+     * NEXT PAGE OF ONE STATUS GROUP, AFTER THE LAST ROW OF THE PREVIOUS PAGE
+     */
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionHeaderRow(
+            t.transactionId,
+            t.transactionNumber,
+            t.transactionDate,
+            t.totalAmount,
+            t.amountPaid,
+            t.balanceDue,
+            t.transactionStatus,
+            t.refundStatus,
+            t.voidReason,
+            t.voidedAt,
+            p.firstName,
+            p.lastName,
+            u.firstName,
+            u.lastName,
+            vb.firstName,
+            vb.lastName
+        )
+        FROM Transaction t
+        LEFT JOIN t.patient p
+        LEFT JOIN t.user u
+        LEFT JOIN t.voidedBy vb
+        WHERE t.transactionStatus = :status
+          AND t.transactionDate BETWEEN :start AND :end
+          AND (t.transactionDate < :lastDate
+               OR (t.transactionDate = :lastDate AND t.transactionId < :lastId))
+        ORDER BY t.transactionDate DESC, t.transactionId DESC
+    """)
+    List<TransactionHeaderRow> findHeaderRowsByStatusAfter(
+            @Param("status") TransactionStatus status,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("lastDate") LocalDateTime lastDate,
+            @Param("lastId") UUID lastId,
+            Pageable pageable
+    );
+
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionItemRow(
+            t.transactionId,
+            ti.transactionItemId,
+            pr.productName,
+            ti.quantity,
+            ti.unitPrice,
+            ti.subtotal,
+            ti.discountType,
+            ti.discountValue,
+            ti.refundedQuantity
+        )
+        FROM TransactionItem ti
+        JOIN ti.transaction t
+        LEFT JOIN ti.product pr
+        WHERE t.transactionId IN :transactionIds
+    """)
+    List<TransactionItemRow> findItemRowsByTransactionIds(
+            @Param("transactionIds") Collection<UUID> transactionIds
+    );
+
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionPaymentRow(
+            t.transactionId,
+            pm.amount,
+            pm.paymentMethod,
+            pm.gcashNumber,
+            pm.referenceNumber,
+            pm.createdAt
+        )
+        FROM Payment pm
+        JOIN pm.transaction t
+        WHERE t.transactionId IN :transactionIds
+        ORDER BY pm.createdAt
+    """)
+    List<TransactionPaymentRow> findPaymentRowsByTransactionIds(
+            @Param("transactionIds") Collection<UUID> transactionIds
+    );
+
+    @Query("""
+        SELECT new com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.RefundItemCreditRow(
+            ti.transactionItemId,
+            ri.itemCreditAmount,
+            ri.refundReason
+        )
+        FROM RefundItem ri
+        JOIN ri.transactionItem ti
+        JOIN ri.refundReceipt rr
+        JOIN rr.transaction t
+        WHERE t.transactionId IN :transactionIds
+        ORDER BY rr.createdAt
+    """)
+    List<RefundItemCreditRow> findRefundItemCreditRowsByTransactionIds(
+            @Param("transactionIds") Collection<UUID> transactionIds
+    );
+}
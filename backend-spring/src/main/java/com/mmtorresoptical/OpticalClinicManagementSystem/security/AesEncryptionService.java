@@ -1,6 +1,5 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.security;
 
-import com.mmtorresoptical.OpticalClinicManagementSystem.config.EncryptionConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -8,9 +7,16 @@ import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
+/**
+ * AES-GCM field encryption shared by the JPA attribute converters and the audit log.
+ *
+ * The key is parsed once at startup. Each thread keeps its own Cipher (Cipher is not thread-safe)
+ * and re-initializes it per call with a fresh IV from one shared SecureRandom.
+ */
 @Service
 public class AesEncryptionService {
 
@@ -19,9 +25,19 @@ public class AesEncryptionService {
     private static final int IV_LENGTH = 12;      // Recommended for GCM
     private static final int TAG_LENGTH = 128;    // Authentication tag
 
-    private String getKey() {
-        return EncryptionConfig.SECRET_KEY;
+    private final SecretKeySpec keySpec;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<Cipher> cipherPerThread = ThreadLocal.withInitial(AesEncryptionService::newCipher);
+
+    public AesEncryptionService(@Value("${encryption.secret-key}") String hexKey) {
+        byte[] key = hexStringToByteArray(hexKey);
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalStateException(
+                    "encryption.secret-key must be a 128, 192 or 256-bit key in hex, got " + key.length * 8 + " bits");
+        }
+        this.keySpec = new SecretKeySpec(key, ALGORITHM);
     }
+
     // ---------------- ENCRYPT ----------------
     public String encrypt(String plainText) {
 
@@ -29,38 +45,19 @@ public class AesEncryptionService {
             // Initialization Vector
             // Random data added to encryption.
             byte[] iv = new byte[IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
-
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            secureRandom.nextBytes(iv);
 
-            // Convert HEX → byte array
-            // Wrap it as AES key object
-            SecretKeySpec keySpec =
-                    new SecretKeySpec(hexStringToByteArray(getKey()), ALGORITHM);
+            Cipher cipher = cipherPerThread.get();
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH, iv));
 
-            // Use this IV
-            // Use 128-bit security tag
-            GCMParameterSpec gcmSpec =
-                    new GCMParameterSpec(TAG_LENGTH, iv);
+            byte[] plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
 
-            // Turn encryption machine ON
-            // Load key
-            // Load IV
-            // Set to encrypt mode
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec, gcmSpec);
-
-            // Convert text → bytes
-            // Encrypt bytes
-            // Output encrypted bytes
-            byte[] encryptedData =
-                    cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
-
-            // Combine IV + CipherText
+            // Output layout: IV + CipherText (tag appended by GCM)
             byte[] encryptedWithIv =
-                    new byte[IV_LENGTH + encryptedData.length];
+                    new byte[IV_LENGTH + cipher.getOutputSize(plainBytes.length)];
 
             System.arraycopy(iv, 0, encryptedWithIv, 0, IV_LENGTH);
-            System.arraycopy(encryptedData, 0, encryptedWithIv, IV_LENGTH, encryptedData.length);
+            cipher.doFinal(plainBytes, 0, plainBytes.length, encryptedWithIv, IV_LENGTH);
 
             return Base64.getEncoder().encodeToString(encryptedWithIv);
 
@@ -76,25 +73,13 @@ public class AesEncryptionService {
             byte[] decodedData =
                     Base64.getDecoder().decode(encryptedText);
 
-            byte[] iv = new byte[IV_LENGTH];
-            byte[] cipherText =
-                    new byte[decodedData.length - IV_LENGTH];
-
-            System.arraycopy(decodedData, 0, iv, 0, IV_LENGTH);
-            System.arraycopy(decodedData, IV_LENGTH, cipherText, 0, cipherText.length);
-
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-
-            SecretKeySpec keySpec =
-                    new SecretKeySpec(hexStringToByteArray(getKey()), ALGORITHM);
-
-            GCMParameterSpec gcmSpec =
-                    new GCMParameterSpec(TAG_LENGTH, iv);
-
-            cipher.init(Cipher.DECRYPT_MODE, keySpec, gcmSpec);
+            // IV and ciphertext are read in place from the decoded buffer
+            Cipher cipher = cipherPerThread.get();
+            cipher.init(Cipher.DECRYPT_MODE, keySpec,
+                    new GCMParameterSpec(TAG_LENGTH, decodedData, 0, IV_LENGTH));
 
             byte[] decrypted =
-                    cipher.doFinal(cipherText);
+                    cipher.doFinal(decodedData, IV_LENGTH, decodedData.length - IV_LENGTH);
 
             return new String(decrypted, StandardCharsets.UTF_8);
 
@@ -103,8 +88,16 @@ public class AesEncryptionService {
         }
     }
 
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is not available", e);
+        }
+    }
+
     // ---------------- HEX KEY CONVERTER ----------------
-    private byte[] hexStringToByteArray(String hex) {
+    private static byte[] hexStringToByteArray(String hex) {
 
         int length = hex.length();
         byte[] result = new byte[length / 2];
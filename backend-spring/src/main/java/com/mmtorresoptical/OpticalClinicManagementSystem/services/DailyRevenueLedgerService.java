@@ -0,0 +1,134 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.DailyRevenueLedger;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.RefundReceipt;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Transaction;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.DailyRevenueLedgerRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the {@code daily_revenue_ledger} that backs the cash-inflow chart and the dashboard's
+ * period totals.
+ *
+ * Callers take a {@link Position} of a transaction before changing it and post the difference
+ * afterwards, inside their own transaction, so a rolled-back payment, void or refund leaves no
+ * trace in the ledger. Postings are additive upserts, never recomputations, so concurrent
+ * checkouts on the same day do not overwrite each other.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyRevenueLedgerService {
+
+    private final DailyRevenueLedgerRepository dailyRevenueLedgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * What one transaction currently contributes to its day.
+     */
+    public record Position(BigDecimal grossRevenue, BigDecimal voidedAmount, long transactionCount) {
+        public static final Position NONE = new Position(BigDecimal.ZERO, BigDecimal.ZERO, 0);
+    }
+
+    public Position positionOf(Transaction transaction) {
+        TransactionStatus status = transaction.getTransactionStatus();
+        if (status == null) {
+            return Position.NONE;
+        }
+        return switch (status) {
+            case PAID -> new Position(transaction.getTotalAmount(), BigDecimal.ZERO, 1);
+            case DEPOSIT -> new Position(orZero(transaction.getAmountPaid()), BigDecimal.ZERO, 1);
+            case VOIDED -> new Position(BigDecimal.ZERO, transaction.getTotalAmount(), 0);
+        };
+    }
+
+    public void recordNew(Transaction transaction) {
+        recordChange(transaction, Position.NONE);
+    }
+
+    public void recordChange(Transaction transaction, Position before) {
+        Position after = positionOf(transaction);
+        BigDecimal grossDelta = after.grossRevenue().subtract(before.grossRevenue());
+        BigDecimal voidedDelta = after.voidedAmount().subtract(before.voidedAmount());
+        long countDelta = after.transactionCount() - before.transactionCount();
+
+        if (grossDelta.signum() == 0 && voidedDelta.signum() == 0 && countDelta == 0) {
+            return;
+        }
+        dailyRevenueLedgerRepository.addDelta(
+                ledgerDate(transaction), grossDelta, BigDecimal.ZERO, voidedDelta, countDelta);
+    }
+
+    public void recordRefund(RefundReceipt receipt) {
+        BigDecimal cashback = orZero(receipt.getActualCashback());
+        if (cashback.signum() == 0) {
+            return;
+        }
+        LocalDate refundDate = receipt.getCreatedAt() != null
+                ? receipt.getCreatedAt().toLocalDate()
+                : LocalDate.now();
+        dailyRevenueLedgerRepository.addDelta(refundDate, BigDecimal.ZERO, cashback, BigDecimal.ZERO, 0);
+    }
+
+    /**
+     * Ledger rows from start to end inclusive; days without activity have no row.
+     */
+    public List<DailyRevenueLedger> findDays(LocalDate start, LocalDate end) {
+        return dailyRevenueLedgerRepository.findByLedgerDateBetweenOrderByLedgerDateAsc(start, end);
+    }
+
+    /**
+     * All-time, today's and this month's totals; see {@link DailyRevenueLedgerRepository#summarize}
+     * for the column order.
+     */
+    public Object[] summarize(LocalDate today) {
+        return dailyRevenueLedgerRepository.summarize(
+                today, today.withDayOfMonth(1), today.withDayOfMonth(today.lengthOfMonth())).get(0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (dailyRevenueLedgerRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes the whole ledger from transactions and refund receipts.
+     * Returns the number of day rows written.
+     */
+    public int rebuild() {
+        long startedAt = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> {
+            dailyRevenueLedgerRepository.lockForRebuild();
+            dailyRevenueLedgerRepository.deleteAllRows();
+            return dailyRevenueLedgerRepository.rebuild();
+        });
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.transactions());
+        log.info("Daily revenue ledger rebuilt: {} row(s) in {} ms", rows, System.currentTimeMillis() - startedAt);
+        return rows != null ? rows : 0;
+    }
+
+    private LocalDate ledgerDate(Transaction transaction) {
+        return transaction.getTransactionDate() != null
+                ? transaction.getTransactionDate().toLocalDate()
+                : LocalDate.now();
+    }
+
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
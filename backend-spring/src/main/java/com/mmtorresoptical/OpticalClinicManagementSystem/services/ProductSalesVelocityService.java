@@ -0,0 +1,133 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Transaction;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.TransactionItem;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductDailySalesRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@code product_daily_sales} rollup that backs the reorder-point calculations.
+ *
+ * Sales, voids and refunds post their unit deltas against the original transaction's date,
+ * inside the caller's transaction, so the rollup always agrees with
+ * SUM(quantity - refunded_quantity) over PAID/DEPOSIT transaction items.
+ * A nightly rebuild recomputes the retained days from transaction items and drops older ones;
+ * it runs on one instance at a time and holds the table lock until it commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSalesVelocityService {
+
+    /** Number of sales days, today included, that velocity is averaged over. */
+    public static final int VELOCITY_WINDOW_DAYS = 30;
+
+    private static final int RETAINED_DAYS = VELOCITY_WINDOW_DAYS * 2;
+
+    private static final String REBUILD_LOCK_NAME = "product-daily-sales-rebuild";
+
+    private static final Duration REBUILD_LOCK_AT_MOST = Duration.ofMinutes(30);
+
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    /** First sales day inside the current velocity window. */
+    public static LocalDate windowStart() {
+        return LocalDate.now().minusDays(VELOCITY_WINDOW_DAYS - 1);
+    }
+
+    public void recordSale(Transaction transaction) {
+        post(transaction, +1);
+    }
+
+    public void recordVoid(Transaction transaction) {
+        post(transaction, -1);
+    }
+
+    public void recordRefund(TransactionItem item, int quantityRefunded) {
+        if (quantityRefunded <= 0) {
+            return;
+        }
+        productDailySalesRepository.addUnits(
+                item.getProduct().getProductId(),
+                salesDate(item.getTransaction()),
+                -quantityRefunded);
+    }
+
+    /**
+     * productId → net units sold within the velocity window.
+     */
+    public Map<UUID, Long> getUnitsSoldInWindow() {
+        return productDailySalesRepository.sumUnitsSoldPerProductSince(windowStart())
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> (UUID) row[0],
+                        row -> ((Number) row[1]).longValue()
+                ));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (productDailySalesRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "0 20 0 * * ?")
+    public void scheduledRebuild() {
+        schedulerLockService.runExclusively(REBUILD_LOCK_NAME, REBUILD_LOCK_AT_MOST, this::rebuild);
+    }
+
+    /**
+     * Recomputes the retained days from transaction items.
+     * Returns the number of rows written.
+     */
+    public int rebuild() {
+        long startedAt = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> {
+            productDailySalesRepository.lockForRebuild();
+            productDailySalesRepository.deleteAllRows();
+            return productDailySalesRepository.rebuildSince(
+                    LocalDate.now().minusDays(RETAINED_DAYS - 1).atStartOfDay());
+        });
+        log.info("Daily sales rollup rebuilt: {} row(s) in {} ms", rows, System.currentTimeMillis() - startedAt);
+        return rows != null ? rows : 0;
+    }
+
+    // Net units per product, posted in product order so concurrent checkouts lock rollup rows consistently
+    private void post(Transaction transaction, int sign) {
+        Map<UUID, Integer> netUnits = new TreeMap<>();
+        for (TransactionItem item : transaction.getTransactionItems()) {
+            int refunded = item.getRefundedQuantity() == null ? 0 : item.getRefundedQuantity();
+            netUnits.merge(item.getProduct().getProductId(), item.getQuantity() - refunded, Integer::sum);
+        }
+
+        LocalDate salesDate = salesDate(transaction);
+        netUnits.forEach((productId, units) -> {
+            if (units != 0) {
+                productDailySalesRepository.addUnits(productId, salesDate, sign * units);
+            }
+        });
+    }
+
+    private LocalDate salesDate(Transaction transaction) {
+        return transaction.getTransactionDate() != null
+                ? transaction.getTransactionDate().toLocalDate()
+                : LocalDate.now();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ResourceNotFoundException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductBatchRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verifies the denormalized {@code products.quantity} counter against the sum of each product's
+ * non-expired batches and corrects any drift.
+ *
+ * Stock writes only apply deltas, so the counter legitimately falls behind when a batch
+ * passes its expiry date; the hourly run (the 00:10 one in particular) folds those in.
+ * Every correction is logged with the recorded and recounted values so unexpected drift can be traced.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockReconciliationService {
+
+    private final ProductRepository productRepository;
+    private final ProductBatchRepository productBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(cron = "${app.stock.reconcile-cron:0 10 * * * ?}")
+    public void reconcileAll() {
+        long startedAt = System.currentTimeMillis();
+        List<UUID> candidates = productRepository.findProductIdsWithStockDrift();
+
+        if (candidates.isEmpty()) {
+            log.debug("Stock reconciliation: no drift found.");
+            return;
+        }
+
+        int corrected = 0;
+        for (UUID productId : candidates) {
+            if (reconcileProduct(productId).drifted()) {
+                corrected++;
+            }
+        }
+
+        log.info("Stock reconciliation: {} candidate(s), {} corrected in {} ms",
+                candidates.size(), corrected, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Recomputes one product's available quantity and stores it if it drifted.
+     * The product row is locked first, so a concurrent delta either lands before the
+     * recount (and is included) or waits and applies on top of the corrected value.
+     */
+    public Result reconcileProduct(UUID productId) {
+        return transactionTemplate.execute(status -> {
+            Integer recorded = productRepository.lockQuantity(productId);
+            if (recorded == null) {
+                throw new ResourceNotFoundException("Product not found: " + productId);
+            }
+
+            int actual = productBatchRepository.sumAvailableQuantity(productId);
+            if (actual == recorded) {
+                return new Result(actual, false);
+            }
+
+            log.warn("Stock drift on product {}: recorded {}, batches {} — correcting", productId, recorded, actual);
+            productRepository.overwriteQuantity(productId, actual);
+            eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
+            return new Result(actual, true);
+        });
+    }
+
+    /**
+     * The product's current non-expired batch total, read without locking or correcting the counter.
+     */
+    public int availableQuantity(UUID productId) {
+        return productBatchRepository.sumAvailableQuantity(productId);
+    }
+
+    public record Result(int quantity, boolean drifted) {}
+}
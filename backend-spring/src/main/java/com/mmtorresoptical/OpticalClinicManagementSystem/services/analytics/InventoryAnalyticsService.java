@@ -13,6 +13,7 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.objects.TopSellingProdu
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.InventoryValueSnapshotRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.analytics.InventoryAnalyticsRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.ProductSalesVelocityService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.specification.ProductSpecification;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -44,6 +45,7 @@ public class InventoryAnalyticsService {
     private final InventoryValueSnapshotRepository snapshotRepository;
     private final ProductMapper productMapper;
     private final ProductRepository productRepository;
+    private final ProductSalesVelocityService productSalesVelocityService;
 
     public InventoryAnalyticsDTO getInventoryAnalytics() {
         long totalProducts = inventoryAnalyticsRepository.countActiveProducts();
@@ -398,16 +400,10 @@ public class InventoryAnalyticsService {
 
     /**
      * Builds a map of productId → total net units sold over the past 30 days
-     * from PAID/DEPOSIT transactions (net of refunded quantities).
+     * from PAID/DEPOSIT transactions (net of refunded quantities), read from the daily sales rollup.
      */
     private Map<UUID, Long> fetchSalesVelocityMap() {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        return inventoryAnalyticsRepository.sumUnitsSoldPerProductSince(thirtyDaysAgo)
-                .stream()
-                .collect(Collectors.toMap(
-                        row -> (UUID) row[0],
-                        row -> (Long) row[1]
-                ));
+        return productSalesVelocityService.getUnitsSoldInWindow();
     }
 
     /**
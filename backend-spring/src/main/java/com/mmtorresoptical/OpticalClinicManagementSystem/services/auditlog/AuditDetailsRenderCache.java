@@ -0,0 +1,113 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory LRU cache of rendered (decrypted and sanitized) audit log details, keyed by log id.
+ *
+ * Audit rows never change, but rendering resolves patient and user names that can, so entries
+ * also expire after a TTL. The cache is bounded by the total characters it holds rather than
+ * by entry count, since detail payloads range from a few bytes to large update diffs.
+ */
+@Slf4j
+@Component
+public class AuditDetailsRenderCache {
+
+    private final long maxChars;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentChars;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AuditDetailsRenderCache(
+            @Value("${app.audit.render-cache.max-chars:8000000}") long maxChars,
+            @Value("${app.audit.render-cache.ttl:PT1H}") Duration ttl) {
+        this.maxChars = Math.max(0, maxChars);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached rendering for the log, or renders it and caches the result.
+     * Rendering runs outside the lock, so two concurrent misses on one id may both render.
+     */
+    public String get(UUID logId, Supplier<String> renderer) {
+        if (logId == null || maxChars == 0) {
+            return renderer.get();
+        }
+
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = entries.get(logId);
+            if (entry != null) {
+                if (now - entry.cachedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                remove(logId);
+            }
+        }
+
+        misses.incrementAndGet();
+        String rendered = renderer.get();
+        if (rendered != null && rendered.length() <= maxChars) {
+            put(logId, new Entry(rendered, now));
+        }
+        return rendered;
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return new Stats(entries.size(), currentChars, hits.get(), misses.get(), evictions.get());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.render-cache.stats-interval-ms:3600000}")
+    public void logStats() {
+        Stats stats = stats();
+        if (stats.hits() + stats.misses() > 0) {
+            log.info("Audit detail cache: {} entries, {} chars, {} hits, {} misses, {} evictions",
+                    stats.entries(), stats.chars(), stats.hits(), stats.misses(), stats.evictions());
+        }
+    }
+
+    private synchronized void put(UUID logId, Entry entry) {
+        remove(logId);
+        entries.put(logId, entry);
+        currentChars += entry.value.length();
+
+        // Evict least recently used entries until back under the size bound
+        Iterator<Map.Entry<UUID, Entry>> it = entries.entrySet().iterator();
+        while (currentChars > maxChars && it.hasNext()) {
+            Map.Entry<UUID, Entry> eldest = it.next();
+            currentChars -= eldest.getValue().value.length();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(UUID logId) {
+        Entry previous = entries.remove(logId);
+        if (previous != null) {
+            currentChars -= previous.value.length();
+        }
+    }
+
+    private record Entry(String value, long cachedAt) {}
+
+    public record Stats(int entries, long chars, long hits, long misses, long evictions) {}
+}
@@ -36,6 +36,7 @@ public class AuditLogService {
     private final AuditMapper auditMapper;
     private final JSONService jsonService;
     private final AesEncryptionService aesEncryptionService;
+    private final AuditDetailsRenderCache renderCache;
 
     public void log(ActionType actionType,
                     ResourceType resourceType,
@@ -74,14 +75,23 @@ public class AuditLogService {
         auditLogRepository.save(log);
     }
 
-    private String decryptIfNeeded(String detailsJson, String userName) {
+    private String decryptIfNeeded(String detailsJson) {
         if (detailsJson != null && detailsJson.startsWith(ENC_PREFIX)) {
-            log.info("Admin user '{}' viewed encrypted audit data", userName);
             return aesEncryptionService.decrypt(detailsJson.substring(ENC_PREFIX.length()));
         }
         return detailsJson;
     }
 
+    // Decrypted and sanitized details; cached per log since audit rows never change
+    private String renderDetails(AuditDetailsDTO dto) {
+        String stored = dto.getDetailsJson();
+        if (stored != null && stored.startsWith(ENC_PREFIX)) {
+            log.info("Admin user '{}' viewed encrypted audit data", dto.getUserName());
+        }
+        return renderCache.get(dto.getLogId(), () -> jsonService.sanitizeAuditDetailsJson(
+                decryptIfNeeded(stored), dto.getActionType(), dto.getUserName()));
+    }
+
     private boolean isSystemGeneratedBackup(AuditDetailsDTO dto) {
         if (!"BACKUP".equals(dto.getActionType()) || !"DATABASE".equals(dto.getResourceType())) {
             return false;
@@ -113,9 +123,7 @@ public class AuditLogService {
             }
 
             AuditDetailsDTO dto = auditMapper.entityToDetailsDTO(log.get());
-            String raw = decryptIfNeeded(dto.getDetailsJson(), dto.getUserName());
-            dto.setDetailsJson(jsonService.sanitizeAuditDetailsJson(
-                    raw, dto.getActionType(), dto.getUserName()));
+            dto.setDetailsJson(renderDetails(dto));
 
             return new PageImpl<>(
                     List.of(dto),
@@ -169,9 +177,7 @@ public class AuditLogService {
 
         return auditLogs.map(auditLog -> {
             AuditDetailsDTO dto = auditMapper.entityToDetailsDTO(auditLog);
-            String raw = decryptIfNeeded(dto.getDetailsJson(), dto.getUserName());
-            dto.setDetailsJson(jsonService.sanitizeAuditDetailsJson(
-                    raw, dto.getActionType(), dto.getUserName()));
+            dto.setDetailsJson(renderDetails(dto));
             
             if (isSystemGeneratedBackup(dto)) {
                 dto.setUserName("SYSTEM GENERATED");
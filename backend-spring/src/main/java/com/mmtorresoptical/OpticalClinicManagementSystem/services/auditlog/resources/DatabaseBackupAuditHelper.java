@@ -119,4 +119,27 @@ public class DatabaseBackupAuditHelper {
                 jsonService.toJson(dto)
         );
     }
+
+    public void logPointInTimeRestorePrepared(String baseBackupId, Instant targetTime, String dataDirectory) {
+        User user = authenticatedUserService.getCurrentUser();
+
+        DatabaseBackupAuditDTO dto = new DatabaseBackupAuditDTO(
+                "POINT_IN_TIME_RESTORE",
+                dataDirectory,
+                null,
+                Instant.now(),
+                targetTime.toString(),
+                user.getFirstName() + " " + user.getLastName()
+        );
+
+        String details = "Prepared point-in-time restore to " + targetTime + " from base backup " + baseBackupId;
+
+        auditLogService.log(
+                ActionType.RESTORE,
+                ResourceType.DATABASE,
+                null,
+                details,
+                jsonService.toJson(dto)
+        );
+    }
 }
@@ -0,0 +1,269 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the dumps in the backups folder in a {@code manifest.json} next to them, with each
+ * file's SHA-256, and prunes them with a grandfather-father-son policy: the newest backup of
+ * each of the last N days, weeks and months that have backups is kept, everything else deleted.
+ *
+ * The manifest lives on disk rather than in the database so that restoring an older dump
+ * cannot roll it back.
+ */
+@Slf4j
+@Service
+public class BackupArchiveService {
+
+    private static final String MANIFEST_FILE = "manifest.json";
+
+    private final ObjectMapper objectMapper;
+    private final Path baseDir;
+    private final int keepDaily;
+    private final int keepWeekly;
+    private final int keepMonthly;
+
+    // Guarded by this
+    private final List<BackupManifestEntry> entries = new ArrayList<>();
+
+    public BackupArchiveService(
+            ObjectMapper objectMapper,
+            @Value("${app.project.dir:}") String projectDir,
+            @Value("${app.database.backup.retention.daily:7}") int keepDaily,
+            @Value("${app.database.backup.retention.weekly:4}") int keepWeekly,
+            @Value("${app.database.backup.retention.monthly:6}") int keepMonthly) {
+        this.objectMapper = objectMapper;
+        String dir = projectDir != null && !projectDir.isBlank()
+                ? projectDir
+                : System.getProperty("user.dir");
+        this.baseDir = Path.of(dir, "backups");
+        this.keepDaily = Math.max(1, keepDaily);
+        this.keepWeekly = Math.max(0, keepWeekly);
+        this.keepMonthly = Math.max(0, keepMonthly);
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        try {
+            Files.createDirectories(baseDir);
+            entries.addAll(readManifest());
+            int adopted = adoptUntrackedDumps();
+            pruneMissing();
+            writeManifest();
+            if (adopted > 0) {
+                log.info("Backup archive: added {} existing dump(s) to the manifest", adopted);
+            }
+        } catch (IOException e) {
+            log.error("Failed to initialize backup archive in {}", baseDir.toAbsolutePath(), e);
+        }
+    }
+
+    public Path getBaseDir() {
+        return baseDir;
+    }
+
+    public synchronized BackupManifestEntry record(Path file, Instant createdAt, String performedBy,
+                                                   String sha256, String compression, String format,
+                                                   long durationMs) {
+        try {
+            BackupManifestEntry entry = new BackupManifestEntry(
+                    UUID.randomUUID().toString(), relativize(file), createdAt, performedBy,
+                    Files.size(file), sha256, compression, format, durationMs);
+            entries.add(entry);
+            writeManifest();
+            return entry;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to record backup in manifest", e);
+        }
+    }
+
+    /**
+     * Archived backups, newest first. Entries whose file was removed are dropped.
+     */
+    public synchronized List<BackupManifestEntry> list() {
+        if (pruneMissing()) {
+            writeManifestQuietly();
+        }
+        return entries.stream()
+                .sorted(Comparator.comparing(BackupManifestEntry::createdAt).reversed())
+                .toList();
+    }
+
+    public synchronized Optional<BackupManifestEntry> find(String id) {
+        return entries.stream().filter(entry -> entry.id().equals(id)).findFirst();
+    }
+
+    public Path resolve(BackupManifestEntry entry) {
+        return baseDir.resolve(entry.path());
+    }
+
+    /**
+     * Deletes backups the retention policy no longer keeps; returns how many were deleted.
+     */
+    public synchronized int applyRetention() {
+        List<BackupManifestEntry> newestFirst = entries.stream()
+                .sorted(Comparator.comparing(BackupManifestEntry::createdAt).reversed())
+                .toList();
+        if (newestFirst.isEmpty()) {
+            return 0;
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        Set<String> keep = new HashSet<>();
+        keep.add(newestFirst.get(0).id());
+        keep.addAll(newestPerPeriod(newestFirst, keepDaily,
+                entry -> LocalDate.ofInstant(entry.createdAt(), zone)));
+        keep.addAll(newestPerPeriod(newestFirst, keepWeekly, entry -> {
+            LocalDate date = LocalDate.ofInstant(entry.createdAt(), zone);
+            return date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+        }));
+        keep.addAll(newestPerPeriod(newestFirst, keepMonthly,
+                entry -> YearMonth.from(LocalDate.ofInstant(entry.createdAt(), zone))));
+
+        int deleted = 0;
+        for (BackupManifestEntry entry : newestFirst) {
+            if (keep.contains(entry.id())) {
+                continue;
+            }
+            Path file = resolve(entry);
+            try {
+                Files.deleteIfExists(file);
+                deleteFolderIfEmpty(file.getParent());
+                entries.remove(entry);
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Retention: could not delete backup {}: {}", entry.path(), e.getMessage());
+            }
+        }
+
+        if (deleted > 0) {
+            writeManifestQuietly();
+            log.info("Backup retention removed {} backup(s); {} kept", deleted, entries.size());
+        }
+        return deleted;
+    }
+
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Newest entry of each of the first `periods` distinct periods, walking newest first
+    private <K> Set<String> newestPerPeriod(List<BackupManifestEntry> newestFirst, int periods,
+                                            Function<BackupManifestEntry, K> periodOf) {
+        Map<K, String> newest = new LinkedHashMap<>();
+        for (BackupManifestEntry entry : newestFirst) {
+            if (newest.size() >= periods && !newest.containsKey(periodOf.apply(entry))) {
+                break;
+            }
+            newest.putIfAbsent(periodOf.apply(entry), entry.id());
+        }
+        return new HashSet<>(newest.values());
+    }
+
+    // Dumps written before the manifest existed are adopted so retention covers them too
+    private int adoptUntrackedDumps() throws IOException {
+        Set<String> tracked = entries.stream().map(BackupManifestEntry::path).collect(Collectors.toSet());
+        List<Path> untracked;
+        try (Stream<Path> files = Files.walk(baseDir, 2)) {
+            untracked = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(".dump"))
+                    .filter(path -> !tracked.contains(relativize(path)))
+                    .toList();
+        }
+
+        for (Path file : untracked) {
+            entries.add(new BackupManifestEntry(
+                    UUID.randomUUID().toString(), relativize(file),
+                    Files.getLastModifiedTime(file).toInstant(), null,
+                    Files.size(file), sha256(file), null, null, null));
+        }
+        return untracked.size();
+    }
+
+    private boolean pruneMissing() {
+        return entries.removeIf(entry -> !Files.exists(resolve(entry)));
+    }
+
+    private void deleteFolderIfEmpty(Path folder) throws IOException {
+        if (folder == null || folder.equals(baseDir)) {
+            return;
+        }
+        try (Stream<Path> children = Files.list(folder)) {
+            if (children.findAny().isEmpty()) {
+                Files.delete(folder);
+            }
+        }
+    }
+
+    private String relativize(Path file) {
+        return baseDir.relativize(file).toString().replace('\\', '/');
+    }
+
+    private List<BackupManifestEntry> readManifest() throws IOException {
+        Path manifest = baseDir.resolve(MANIFEST_FILE);
+        if (!Files.exists(manifest)) {
+            return List.of();
+        }
+        return objectMapper.readValue(manifest.toFile(), new TypeReference<List<BackupManifestEntry>>() {});
+    }
+
+    private void writeManifest() throws IOException {
+        Path manifest = baseDir.resolve(MANIFEST_FILE);
+        Path partial = baseDir.resolve(MANIFEST_FILE + ".part");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(partial.toFile(), entries);
+        Files.move(partial, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeManifestQuietly() {
+        try {
+            writeManifest();
+        } catch (IOException e) {
+            log.warn("Failed to write backup manifest: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup;
+
+import java.time.Instant;
+
+/**
+ * One archived backup file. {@code path} is relative to the backups folder and uses '/'.
+ * {@code compression} is the pg_dump -Z setting the dump was taken with ("default" when unset)
+ * and {@code format} is "custom" or "directory", so sizes and durations of different settings
+ * can be compared from the manifest.
+ */
+public record BackupManifestEntry(
+        String id,
+        String path,
+        Instant createdAt,
+        String performedBy,
+        long sizeBytes,
+        String sha256,
+        String compression,
+        String format,
+        Long durationMs
+) {}
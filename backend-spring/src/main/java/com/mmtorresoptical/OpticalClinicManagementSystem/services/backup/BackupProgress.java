@@ -0,0 +1,114 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one backup, restore or verification, updated by the thread running it and read
+ * by status requests.
+ *
+ * Two signals are tracked per phase: bytes streamed to or from the dump file, and tables whose
+ * data pg_dump/pg_restore has reported in its verbose output. The table total is an estimate
+ * (the live database's table count), so the percentage is held below 100 until the job ends.
+ */
+public class BackupProgress {
+
+    private volatile String phase;
+    private volatile Long bytesTotal;
+    private volatile Integer tablesTotal;
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicInteger tablesProcessed = new AtomicInteger();
+
+    /**
+     * Starts a new phase; counters and totals from the previous phase are cleared.
+     */
+    public void startPhase(String phase) {
+        this.phase = phase;
+        this.bytesTotal = null;
+        this.tablesTotal = null;
+        bytesProcessed.set(0);
+        tablesProcessed.set(0);
+    }
+
+    public void expectBytes(long bytesTotal) {
+        this.bytesTotal = bytesTotal;
+    }
+
+    public void expectTables(Integer tablesTotal) {
+        this.tablesTotal = tablesTotal;
+    }
+
+    public void addBytes(long bytes) {
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    // For tools that report their own running totals, such as pg_basebackup --progress
+    public void reportBytes(long processed, long total) {
+        bytesProcessed.set(processed);
+        bytesTotal = total;
+    }
+
+    /**
+     * Takes one stderr line from pg_dump or pg_restore run with --verbose. Returns true for
+     * routine verbose lines, which callers leave out of error messages; errors, warnings and
+     * their detail lines return false.
+     */
+    public boolean onToolOutput(String line) {
+        if (line.contains("dumping contents of table") || line.contains("processing data for table")) {
+            tablesProcessed.incrementAndGet();
+        }
+        return isVerboseLine(line);
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getBytesProcessed() {
+        return bytesProcessed.get();
+    }
+
+    public Long getBytesTotal() {
+        return bytesTotal;
+    }
+
+    public int getTablesProcessed() {
+        return tablesProcessed.get();
+    }
+
+    public Integer getTablesTotal() {
+        return tablesTotal;
+    }
+
+    // Tables when a total is known, otherwise bytes; null when neither gives a fraction
+    public Integer getPercent() {
+        Integer tables = tablesTotal;
+        if (tables != null && tables > 0) {
+            return (int) Math.min(99, tablesProcessed.get() * 100L / tables);
+        }
+        Long bytes = bytesTotal;
+        if (bytes != null && bytes > 0) {
+            return (int) Math.min(99, bytesProcessed.get() * 100 / bytes);
+        }
+        return null;
+    }
+
+    private static boolean isVerboseLine(String line) {
+        int prefixEnd;
+        if (line.startsWith("pg_dump: ")) {
+            prefixEnd = "pg_dump: ".length();
+        } else if (line.startsWith("pg_restore: ")) {
+            prefixEnd = "pg_restore: ".length();
+        } else {
+            return false;
+        }
+        String message = line.substring(prefixEnd);
+        return !(message.startsWith("error")
+                || message.startsWith("warning")
+                || message.startsWith("detail")
+                || message.startsWith("hint")
+                || message.startsWith("[")
+                || message.contains("ERROR")
+                || message.contains("FATAL"));
+    }
+}
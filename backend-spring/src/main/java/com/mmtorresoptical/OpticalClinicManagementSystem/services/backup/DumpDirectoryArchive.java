@@ -0,0 +1,94 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Packs a pg_dump directory-format dump (toc.dat plus one file per table) into a single tar
+ * stream, so it can sit behind the metadata header like a custom-format dump, and unpacks it
+ * again for pg_restore -j.
+ *
+ * The dump directory is flat. Entries may be named "toc.dat" or "./toc.dat" depending on which
+ * tar wrote them; anything outside the directory is rejected.
+ */
+public final class DumpDirectoryArchive {
+
+    // ustar header: magic at offset 257 of the first 512-byte block
+    public static final int HEAD_BYTES = 512;
+    private static final int MAGIC_OFFSET = 257;
+    private static final byte[] USTAR_MAGIC = "ustar".getBytes(StandardCharsets.US_ASCII);
+
+    private DumpDirectoryArchive() {
+    }
+
+    public static boolean isArchive(byte[] head, int length) {
+        int magicEnd = MAGIC_OFFSET + USTAR_MAGIC.length;
+        return length >= magicEnd
+                && Arrays.equals(head, MAGIC_OFFSET, magicEnd, USTAR_MAGIC, 0, USTAR_MAGIC.length);
+    }
+
+    public static boolean isArchive(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEAD_BYTES);
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                // fill the first tar block
+            }
+            return isArchive(buffer.array(), buffer.position());
+        }
+    }
+
+    /**
+     * Writes every file in {@code dumpDir} to {@code out} as a tar stream. {@code out} is left open.
+     */
+    public static void pack(Path dumpDir, OutputStream out) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dumpDir)) {
+            files = listing.filter(Files::isRegularFile).sorted().toList();
+        }
+
+        TarArchiveOutputStream tar = new TarArchiveOutputStream(out);
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        for (Path file : files) {
+            tar.putArchiveEntry(new TarArchiveEntry(file.toFile(), file.getFileName().toString()));
+            Files.copy(file, tar);
+            tar.closeArchiveEntry();
+        }
+        tar.finish();
+        tar.flush();
+    }
+
+    /**
+     * Extracts the tar stream in {@code in} into {@code dumpDir}, which must exist. {@code in} is left open.
+     */
+    public static void unpack(InputStream in, Path dumpDir) throws IOException {
+        Path dir = dumpDir.toAbsolutePath().normalize();
+        TarArchiveInputStream tar = new TarArchiveInputStream(in);
+        TarArchiveEntry entry;
+        while ((entry = tar.getNextEntry()) != null) {
+            if (!entry.isFile()) {
+                continue;
+            }
+            String name = entry.getName().startsWith("./") ? entry.getName().substring(2) : entry.getName();
+            Path target = dir.resolve(name).normalize();
+            if (!dir.equals(target.getParent())) {
+                throw new IOException("Unexpected entry in backup archive: " + entry.getName());
+            }
+            Files.copy(tar, target);
+        }
+    }
+}
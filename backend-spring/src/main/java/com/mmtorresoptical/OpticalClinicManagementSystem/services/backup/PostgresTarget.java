@@ -0,0 +1,25 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup;
+
+/**
+ * Host, port and database name of the configured PostgreSQL datasource, for the command-line
+ * tools that cannot take a JDBC URL.
+ */
+public record PostgresTarget(String host, String port, String database) {
+
+    // Parse jdbc:postgresql://host:port/dbname
+    public static PostgresTarget parse(String datasourceUrl) {
+        String url = datasourceUrl.replace("jdbc:postgresql://", "");
+        int slashIdx = url.indexOf('/');
+        if (slashIdx < 0) {
+            throw new IllegalStateException("Invalid datasource URL: expected jdbc:postgresql://host:port/dbname but got: " + datasourceUrl);
+        }
+        String hostPort = url.substring(0, slashIdx);
+        String database = url.substring(slashIdx + 1);
+
+        int colonIdx = hostPort.indexOf(':');
+        if (colonIdx > 0) {
+            return new PostgresTarget(hostPort.substring(0, colonIdx), hostPort.substring(colonIdx + 1), database);
+        }
+        return new PostgresTarget(hostPort, "5432", database);
+    }
+}
@@ -0,0 +1,116 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.job;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.BackupJobResponseDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.BackupVerificationDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.PointInTimeRestorePlanDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.BackupJobStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.BackupJobType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupProgress;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * In-memory state of one background backup, restore, verification or continuous-backup operation.
+ *
+ * Only the worker thread writes; request threads read. Result fields are assigned before the
+ * volatile status, so a reader that sees COMPLETED also sees the result they describe.
+ */
+public class BackupJob {
+
+    private final UUID id;
+    private final BackupJobType type;
+    private final Instant submittedAt;
+    private final BackupProgress progress = new BackupProgress();
+
+    private volatile BackupJobStatus status = BackupJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile Instant expiresAt;
+    private volatile Path file;
+    private volatile Long sizeBytes;
+    private volatile BackupVerificationDTO verification;
+    private volatile PointInTimeRestorePlanDTO restorePlan;
+    private volatile String errorMessage;
+
+    BackupJob(BackupJobType type, Instant submittedAt) {
+        this.id = UUID.randomUUID();
+        this.type = type;
+        this.submittedAt = submittedAt;
+        progress.startPhase("Waiting for other backup operations");
+    }
+
+    void markRunning(Instant now) {
+        startedAt = now;
+        status = BackupJobStatus.RUNNING;
+    }
+
+    void markCompleted(Path file, Long sizeBytes, BackupVerificationDTO verification,
+                       PointInTimeRestorePlanDTO restorePlan, Instant now, Instant expiresAt) {
+        this.file = file;
+        this.sizeBytes = sizeBytes;
+        this.verification = verification;
+        this.restorePlan = restorePlan;
+        this.completedAt = now;
+        this.expiresAt = expiresAt;
+        this.status = BackupJobStatus.COMPLETED;
+    }
+
+    void markFailed(String errorMessage, Instant now, Instant expiresAt) {
+        this.errorMessage = errorMessage;
+        this.completedAt = now;
+        this.expiresAt = expiresAt;
+        this.status = BackupJobStatus.FAILED;
+    }
+
+    boolean isExpired(Instant now) {
+        Instant expiry = expiresAt;
+        return expiry != null && !expiry.isAfter(now);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public BackupJobType getType() {
+        return type;
+    }
+
+    public BackupJobStatus getStatus() {
+        return status;
+    }
+
+    public BackupProgress getProgress() {
+        return progress;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public BackupJobResponseDTO toResponse() {
+        BackupJobStatus current = status;
+        boolean finished = current == BackupJobStatus.COMPLETED || current == BackupJobStatus.FAILED;
+        return new BackupJobResponseDTO(
+                id,
+                type,
+                current,
+                finished ? null : progress.getPhase(),
+                current == BackupJobStatus.COMPLETED ? Integer.valueOf(100) : progress.getPercent(),
+                progress.getBytesProcessed(),
+                progress.getBytesTotal(),
+                progress.getTablesProcessed(),
+                progress.getTablesTotal(),
+                submittedAt,
+                startedAt,
+                completedAt,
+                expiresAt,
+                file != null ? file.getFileName().toString() : null,
+                sizeBytes,
+                verification,
+                restorePlan,
+                errorMessage
+        );
+    }
+}
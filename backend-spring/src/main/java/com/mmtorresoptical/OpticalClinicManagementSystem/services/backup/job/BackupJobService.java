@@ -0,0 +1,202 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.job;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.BackupVerificationDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.PointInTimeRestorePlanDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.BackupJobStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.BackupJobType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ConflictException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ResourceNotFoundException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.TooManyRequestsException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal.BaseBackupEntry;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal.ContinuousBackupService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.DatabaseBackupService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs manual backups, restores, verifications and continuous-backup operations in the background so pg_dump/pg_restore never
+ * hold a request thread. Requests are checked (password, upload) before they are queued and
+ * return the job at once; its progress is then polled.
+ *
+ * All jobs share one worker thread, so they run one at a time in submission order, and
+ * {@link DatabaseBackupService} additionally serializes them with the scheduled and shutdown
+ * backups.
+ */
+@Slf4j
+@Service
+public class BackupJobService {
+
+    private final DatabaseBackupService databaseBackupService;
+    private final ContinuousBackupService continuousBackupService;
+    private final Duration resultTtl;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, BackupJob> jobs = new ConcurrentHashMap<>();
+
+    public BackupJobService(
+            DatabaseBackupService databaseBackupService,
+            ContinuousBackupService continuousBackupService,
+            @Value("${app.database.backup.background.result-ttl:PT1H}") Duration resultTtl,
+            @Value("${app.database.backup.background.queue-capacity:5}") int queueCapacity) {
+        this.databaseBackupService = databaseBackupService;
+        this.continuousBackupService = continuousBackupService;
+        this.resultTtl = resultTtl;
+        this.executor = new ThreadPoolExecutor(
+                1, 1,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "backup-job");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public BackupJob submitBackup(String currentPassword) {
+        databaseBackupService.checkPassword(currentPassword);
+
+        BackupJob job = new BackupJob(BackupJobType.BACKUP, Instant.now());
+        submit(job, () -> {
+            File backupFile = databaseBackupService.generateBackup(job.getProgress());
+            complete(job, backupFile.toPath(), backupFile.length(), null, null);
+        }, null);
+        return job;
+    }
+
+    /**
+     * The upload is validated and moved out of the request before queueing, since the container
+     * deletes it when the request ends.
+     */
+    public BackupJob submitRestore(MultipartFile file, String currentPassword) {
+        databaseBackupService.checkPassword(currentPassword);
+        Path stagedUpload = databaseBackupService.stageRestoreUpload(file);
+        String originalFilename = file.getOriginalFilename();
+        long fileSize = file.getSize();
+
+        BackupJob job = new BackupJob(BackupJobType.RESTORE, Instant.now());
+        submit(job, () -> {
+            databaseBackupService.restoreBackup(stagedUpload, originalFilename, fileSize, job.getProgress());
+            complete(job, null, null, null, null);
+        }, stagedUpload);
+        return job;
+    }
+
+    public BackupJob submitVerification(String archiveId) {
+        // Fails fast on an unknown id instead of queueing a job that can only fail
+        databaseBackupService.findArchivedBackup(archiveId);
+
+        BackupJob job = new BackupJob(BackupJobType.VERIFY, Instant.now());
+        submit(job, () -> {
+            BackupVerificationDTO result = databaseBackupService.verifyBackup(archiveId, job.getProgress());
+            complete(job, null, null, result, null);
+        }, null);
+        return job;
+    }
+
+    public BackupJob submitBaseBackup(String currentPassword) {
+        databaseBackupService.checkPassword(currentPassword);
+
+        BackupJob job = new BackupJob(BackupJobType.BASE_BACKUP, Instant.now());
+        submit(job, () -> {
+            BaseBackupEntry entry = continuousBackupService.takeManualBaseBackup(job.getProgress());
+            complete(job, null, entry.sizeBytes(), null, null);
+        }, null);
+        return job;
+    }
+
+    public BackupJob submitPointInTimeRestore(String currentPassword, Instant targetTime) {
+        databaseBackupService.checkPassword(currentPassword);
+
+        BackupJob job = new BackupJob(BackupJobType.POINT_IN_TIME_RESTORE, Instant.now());
+        submit(job, () -> {
+            PointInTimeRestorePlanDTO plan = continuousBackupService.preparePointInTimeRestore(targetTime, job.getProgress());
+            complete(job, null, null, null, plan);
+        }, null);
+        return job;
+    }
+
+    public BackupJob getJob(UUID jobId) {
+        BackupJob job = jobs.get(jobId);
+        if (job == null || job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundException("Backup job not found or expired: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the backup job if its file is ready to download.
+     */
+    public BackupJob getCompletedBackup(UUID jobId) {
+        BackupJob job = getJob(jobId);
+        if (job.getType() != BackupJobType.BACKUP) {
+            throw new ConflictException("Only backup jobs have a file to download.");
+        }
+        if (job.getStatus() != BackupJobStatus.COMPLETED) {
+            throw new ConflictException("Backup job is " + job.getStatus().name().toLowerCase() + ", not ready for download.");
+        }
+        if (job.getFile() == null || !Files.exists(job.getFile())) {
+            throw new ResourceNotFoundException("The backup file is no longer in the backups folder.");
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${app.database.backup.background.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> job.isExpired(now));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // stagedFile, if any, is deleted when the job cannot be queued
+    private void submit(BackupJob job, Runnable work, Path stagedFile) {
+        try {
+            // The submitter's authentication is carried over for the audit log and backup metadata
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job, work)));
+        } catch (RejectedExecutionException ex) {
+            databaseBackupService.discardStagedUpload(stagedFile);
+            throw new TooManyRequestsException("Too many backup operations are queued. Please try again shortly.");
+        }
+        jobs.put(job.getId(), job);
+    }
+
+    private void run(BackupJob job, Runnable work) {
+        job.markRunning(Instant.now());
+        long startedAt = System.currentTimeMillis();
+        try {
+            work.run();
+            log.info("Backup job {} ({}) completed in {} ms", job.getId(), job.getType(), System.currentTimeMillis() - startedAt);
+        } catch (Exception ex) {
+            log.error("Backup job {} ({}) failed", job.getId(), job.getType(), ex);
+            Instant now = Instant.now();
+            job.markFailed(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName(), now, now.plus(resultTtl));
+        }
+    }
+
+    private void complete(BackupJob job, Path file, Long sizeBytes, BackupVerificationDTO verification,
+                          PointInTimeRestorePlanDTO restorePlan) {
+        Instant now = Instant.now();
+        job.markCompleted(file, sizeBytes, verification, restorePlan, now, now.plus(resultTtl));
+    }
+}
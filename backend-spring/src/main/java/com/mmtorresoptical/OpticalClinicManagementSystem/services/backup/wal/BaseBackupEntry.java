@@ -0,0 +1,18 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal;
+
+import java.time.Instant;
+
+/**
+ * One pg_basebackup in the continuous archive. {@code path} is relative to the archive folder.
+ * {@code startWalFile} is the WAL segment that was current when the backup started; segments
+ * before it are not needed to recover from this backup.
+ */
+public record BaseBackupEntry(
+        String id,
+        String path,
+        Instant startedAt,
+        Instant finishedAt,
+        String startWalFile,
+        long sizeBytes,
+        String performedBy
+) {}
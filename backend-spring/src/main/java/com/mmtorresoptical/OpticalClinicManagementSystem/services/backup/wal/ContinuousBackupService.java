@@ -0,0 +1,698 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.ContinuousBackupStatusDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.PointInTimeRestorePlanDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.BadRequestException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ConflictException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.User;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.AuthenticatedUserService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.resources.DatabaseBackupAuditHelper;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupArchiveService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupProgress;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.PostgresTarget;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Continuous backup: periodic pg_basebackups plus every WAL segment streamed off the server by
+ * a long-running pg_receivewal, so the database can be recovered to any moment since the
+ * oldest kept base backup instead of only to the last nightly dump.
+ *
+ * pg_receivewal uses a physical replication slot, so the server keeps WAL it has not received
+ * yet (for example while the app is down). It runs with --no-loop and is restarted by the
+ * supervisor instead, which keeps its state visible in {@link #status()}. It flushes and
+ * acknowledges each write (--synchronous), but commits only wait for it when the server lists
+ * it in synchronous_standby_names (application name "pg_receivewal"); otherwise the archive can
+ * trail the server by whatever was in flight.
+ *
+ * A point-in-time restore is prepared, not performed: the live cluster cannot be replaced while
+ * this application is connected to it, so the base backup is unpacked into a new data directory
+ * configured to replay the archive up to the target time, and an operator starts PostgreSQL on it.
+ *
+ * In Docker mode the tools run inside the container through docker exec, so the archive folder
+ * must be a bind mount; {@code container-dir} is where the container sees it.
+ */
+@Slf4j
+@Service
+public class ContinuousBackupService {
+
+    private static final String BASE_MANIFEST_FILE = "base-backups.json";
+    private static final long PROCESS_TIMEOUT_MINUTES = 60;
+    // A weekly base backup plus slack; older than this and the archive no longer stands in for dumps
+    private static final Duration BASE_BACKUP_MAX_AGE = Duration.ofDays(8);
+    private static final Pattern WAL_FILE = Pattern.compile("^[0-9A-F]{24}(\\.partial)?$");
+    private static final Pattern BASEBACKUP_PROGRESS = Pattern.compile("(\\d+)/(\\d+) kB");
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")
+            .withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter RECOVERY_TARGET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssxxx")
+            .withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseBackupAuditHelper databaseBackupAuditHelper;
+    private final AuthenticatedUserService authenticatedUserService;
+
+    private final boolean enabled;
+    private final boolean replaceDailyDumps;
+    private final Path archiveDir;
+    private final String toolArchiveDir;
+    private final String slotName;
+    private final int keepBaseBackups;
+    private final long maxWalLagBytes;
+    private final boolean useDocker;
+    private final String dockerContainer;
+    private final String datasourceUsername;
+    private final String datasourcePassword;
+    private final PostgresTarget target;
+
+    private final ReentrantLock baseBackupLock = new ReentrantLock();
+
+    // Guarded by this
+    private final List<BaseBackupEntry> baseBackups = new ArrayList<>();
+
+    private volatile Process receiver;
+    private volatile Instant receiverStartedAt;
+    private volatile String lastReceiverError;
+    private volatile boolean stopping;
+
+    public ContinuousBackupService(
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            DatabaseBackupAuditHelper databaseBackupAuditHelper,
+            AuthenticatedUserService authenticatedUserService,
+            BackupArchiveService backupArchiveService,
+            @Value("${spring.datasource.url}") String datasourceUrl,
+            @Value("${spring.datasource.username}") String datasourceUsername,
+            @Value("${spring.datasource.password}") String datasourcePassword,
+            @Value("${app.database.backup.use-docker:false}") boolean useDocker,
+            @Value("${app.database.backup.docker-container:postgres-db}") String dockerContainer,
+            @Value("${app.database.backup.continuous.enabled:false}") boolean enabled,
+            @Value("${app.database.backup.continuous.replace-daily-dumps:true}") boolean replaceDailyDumps,
+            @Value("${app.database.backup.continuous.dir:}") String dir,
+            @Value("${app.database.backup.continuous.container-dir:}") String containerDir,
+            @Value("${app.database.backup.continuous.slot-name:clinic_wal_archive}") String slotName,
+            @Value("${app.database.backup.continuous.keep-base-backups:2}") int keepBaseBackups,
+            @Value("${app.database.backup.continuous.max-wal-lag-bytes:67108864}") long maxWalLagBytes) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseBackupAuditHelper = databaseBackupAuditHelper;
+        this.authenticatedUserService = authenticatedUserService;
+        this.enabled = enabled;
+        this.replaceDailyDumps = replaceDailyDumps;
+        this.archiveDir = dir != null && !dir.isBlank()
+                ? Path.of(dir).toAbsolutePath().normalize()
+                : backupArchiveService.getBaseDir().resolve("continuous").toAbsolutePath();
+        this.toolArchiveDir = useDocker && containerDir != null && !containerDir.isBlank()
+                ? containerDir.replaceAll("/+$", "")
+                : archiveDir.toString();
+        this.slotName = slotName;
+        this.keepBaseBackups = Math.max(1, keepBaseBackups);
+        this.maxWalLagBytes = Math.max(0, maxWalLagBytes);
+        this.useDocker = useDocker;
+        this.dockerContainer = dockerContainer;
+        this.datasourceUsername = datasourceUsername;
+        this.datasourcePassword = datasourcePassword;
+        this.target = PostgresTarget.parse(datasourceUrl);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            dropSlotIfPresent();
+            return;
+        }
+        try {
+            Files.createDirectories(archiveDir.resolve("wal"));
+            Files.createDirectories(archiveDir.resolve("base"));
+            synchronized (this) {
+                baseBackups.addAll(readBaseManifest());
+            }
+            ensureSlot();
+            startReceiver();
+            log.info("Continuous backup enabled: archiving WAL to {} (slot {})", archiveDir, slotName);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to start continuous backup in {}", archiveDir, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.database.backup.continuous.check-interval-ms:60000}")
+    public void superviseReceiver() {
+        if (!enabled || stopping) {
+            return;
+        }
+        Process current = receiver;
+        if (current != null && current.isAlive()) {
+            return;
+        }
+        if (current != null) {
+            log.warn("pg_receivewal exited with code {}: {}; restarting", current.exitValue(), lastReceiverError);
+        }
+        try {
+            ensureSlot();
+            startReceiver();
+        } catch (RuntimeException e) {
+            lastReceiverError = e.getMessage();
+            log.error("Failed to restart pg_receivewal", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.database.backup.continuous.base-backup-cron:0 0 3 * * SUN}")
+    public void scheduledBaseBackup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            BaseBackupEntry entry = takeBaseBackup("SYSTEM", new BackupProgress());
+            databaseBackupAuditHelper.logSystemBackup(entry.path(), entry.sizeBytes(), "SYSTEM-CONTINUOUS");
+        } catch (Exception e) {
+            log.error("Scheduled base backup failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        Process current = receiver;
+        if (current == null) {
+            return;
+        }
+        // The walsender is ended from the server side: in Docker mode, killing the local
+        // docker exec client would leave pg_receivewal running in the container
+        try {
+            jdbcTemplate.queryForList(
+                    "SELECT pg_terminate_backend(active_pid) FROM pg_replication_slots WHERE slot_name = ? AND active_pid IS NOT NULL",
+                    slotName);
+        } catch (RuntimeException e) {
+            log.warn("Failed to stop the WAL receiver connection: {}", e.getMessage());
+        }
+        current.destroy();
+    }
+
+    /**
+     * True while WAL is demonstrably reaching the archive and a base backup is recent enough, in
+     * which case the daily and shutdown dumps are redundant and may be skipped. A live receiver
+     * process is not enough on its own: the slot must be streaming and no more than
+     * {@code max-wal-lag-bytes} behind the server.
+     */
+    public boolean coversDailyBackup() {
+        return checkCoverage(true);
+    }
+
+    // Status polling checks the same conditions without logging each refusal
+    private boolean checkCoverage(boolean logReason) {
+        if (!enabled || !replaceDailyDumps) {
+            return false;
+        }
+        Process current = receiver;
+        if (current == null || !current.isAlive()) {
+            return notCovered(logReason, "the WAL receiver is not running");
+        }
+        boolean recentBase = latestBaseBackup()
+                .map(entry -> entry.finishedAt().isAfter(Instant.now().minus(BASE_BACKUP_MAX_AGE)))
+                .orElse(false);
+        if (!recentBase) {
+            return notCovered(logReason, "no base backup in the last {} days",
+                    BASE_BACKUP_MAX_AGE.toDays());
+        }
+        return walIsFlowing(logReason);
+    }
+
+    // The slot's restart_lsn follows the flush position pg_receivewal reports back
+    private boolean walIsFlowing(boolean logReason) {
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT active, pg_wal_lsn_diff(pg_current_wal_lsn(), restart_lsn)::bigint AS lag_bytes "
+                            + "FROM pg_replication_slots WHERE slot_name = ?",
+                    slotName);
+            if (rows.isEmpty()) {
+                return notCovered(logReason, "replication slot {} is missing", slotName);
+            }
+            Object active = rows.get(0).get("active");
+            Object lag = rows.get(0).get("lag_bytes");
+            if (!Boolean.TRUE.equals(active) || lag == null) {
+                return notCovered(logReason, "nothing is streaming from slot {}", slotName);
+            }
+            long lagBytes = ((Number) lag).longValue();
+            if (lagBytes > maxWalLagBytes) {
+                return notCovered(logReason, "the archive is {} bytes behind the server (limit {})",
+                        lagBytes, maxWalLagBytes);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return notCovered(logReason, "could not check slot {}: {}", slotName, e.getMessage());
+        }
+    }
+
+    private static boolean notCovered(boolean logReason, String reason, Object... args) {
+        if (logReason) {
+            log.warn("Continuous backup does not cover the daily dump: " + reason, args);
+        }
+        return false;
+    }
+
+    public ContinuousBackupStatusDTO status() {
+        List<Path> walFiles = listWalFiles();
+        long walBytes = 0;
+        Path latest = null;
+        Instant latestAt = null;
+        for (Path file : walFiles) {
+            try {
+                walBytes += Files.size(file);
+                Instant modified = Files.getLastModifiedTime(file).toInstant();
+                if (latestAt == null || modified.isAfter(latestAt)) {
+                    latest = file;
+                    latestAt = modified;
+                }
+            } catch (IOException ignored) {
+                // segment renamed or removed while listing
+            }
+        }
+
+        Process current = receiver;
+        List<BaseBackupEntry> newestFirst;
+        synchronized (this) {
+            newestFirst = baseBackups.stream()
+                    .sorted(Comparator.comparing(BaseBackupEntry::finishedAt).reversed())
+                    .toList();
+        }
+        return new ContinuousBackupStatusDTO(
+                enabled,
+                current != null && current.isAlive(),
+                receiverStartedAt,
+                lastReceiverError,
+                slotName,
+                walFiles.size(),
+                walBytes,
+                latest != null ? latest.getFileName().toString() : null,
+                latestAt,
+                checkCoverage(false),
+                newestFirst);
+    }
+
+    public BaseBackupEntry takeManualBaseBackup(BackupProgress progress) {
+        User user = authenticatedUserService.getCurrentUser();
+        BaseBackupEntry entry = takeBaseBackup(user.getFirstName() + " " + user.getLastName(), progress);
+        databaseBackupAuditHelper.logBackup(entry.path(), entry.sizeBytes());
+        return entry;
+    }
+
+    /**
+     * Takes a compressed tar-format base backup with its own WAL streamed alongside, records it
+     * and removes base backups and WAL segments the retention no longer needs.
+     */
+    public BaseBackupEntry takeBaseBackup(String performedBy, BackupProgress progress) {
+        requireEnabled();
+        if (!baseBackupLock.tryLock()) {
+            throw new ConflictException("A base backup is already in progress. Please wait for it to complete.");
+        }
+        try {
+            Instant startedAt = Instant.now();
+            String id = "base_" + ID_FORMAT.format(startedAt);
+            String startWalFile = jdbcTemplate.queryForObject("SELECT pg_walfile_name(pg_current_wal_lsn())", String.class);
+
+            progress.startPhase("Taking base backup");
+            runToCompletion(buildBaseBackupCommand(toolArchiveDir + "/base/" + id, id), "pg_basebackup", progress);
+
+            Path backupDir = archiveDir.resolve("base").resolve(id);
+            BaseBackupEntry entry = new BaseBackupEntry(id, "base/" + id, startedAt, Instant.now(),
+                    startWalFile, directorySize(backupDir), performedBy);
+            synchronized (this) {
+                baseBackups.add(entry);
+                writeBaseManifest();
+            }
+            applyRetention();
+
+            log.info("Base backup {} completed: {} bytes in {} ms", id, entry.sizeBytes(),
+                    Duration.between(startedAt, entry.finishedAt()).toMillis());
+            return entry;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to record base backup: " + e.getMessage(), e);
+        } finally {
+            baseBackupLock.unlock();
+        }
+    }
+
+    /**
+     * Unpacks the newest base backup finished before {@code targetTime} into a new data directory
+     * set up to replay archived WAL up to {@code targetTime} and then promote.
+     */
+    public PointInTimeRestorePlanDTO preparePointInTimeRestore(Instant targetTime, BackupProgress progress) {
+        requireEnabled();
+        if (targetTime.isAfter(Instant.now())) {
+            throw new BadRequestException("Target time must not be in the future.");
+        }
+        BaseBackupEntry base;
+        synchronized (this) {
+            base = baseBackups.stream()
+                    .filter(entry -> !entry.finishedAt().isAfter(targetTime))
+                    .max(Comparator.comparing(BaseBackupEntry::finishedAt))
+                    .orElseThrow(() -> new BadRequestException(
+                            "No base backup finished before " + targetTime + "; the earliest recoverable time is the end of the oldest base backup."));
+        }
+
+        String restoreId = "pitr_" + ID_FORMAT.format(targetTime) + "_" + Instant.now().getEpochSecond();
+        Path dataDir = archiveDir.resolve("restore").resolve(restoreId);
+        Path baseDir = archiveDir.resolve(base.path());
+        try {
+            progress.startPhase("Unpacking base backup");
+            Files.createDirectories(dataDir.resolve("pg_wal"));
+            extractTarGz(baseDir.resolve("base.tar.gz"), dataDir, progress);
+            Path walTar = baseDir.resolve("pg_wal.tar.gz");
+            if (Files.exists(walTar)) {
+                extractTarGz(walTar, dataDir.resolve("pg_wal"), progress);
+            }
+
+            progress.startPhase("Writing recovery settings");
+            Files.createFile(dataDir.resolve("recovery.signal"));
+            String walDir = toolArchiveDir + "/wal";
+            // The newest segment may still be .partial; it is replayed under its final name
+            String restoreCommand = "cp \"" + walDir + "/%f\" \"%p\" || cp \"" + walDir + "/%f.partial\" \"%p\"";
+            String settings = "\n# Point-in-time restore prepared " + Instant.now() + " from " + base.id() + "\n"
+                    + "restore_command = '" + restoreCommand.replace("'", "''") + "'\n"
+                    + "recovery_target_time = '" + RECOVERY_TARGET_FORMAT.format(targetTime) + "'\n"
+                    + "recovery_target_action = 'promote'\n";
+            Files.writeString(dataDir.resolve("postgresql.auto.conf"), settings, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare point-in-time restore: " + e.getMessage(), e);
+        }
+
+        String serverDataDir = toolArchiveDir + "/restore/" + restoreId;
+        String instructions = "Stop PostgreSQL, make " + serverDataDir + " its data directory "
+                + "(owned by the postgres user, mode 700), and start it. It replays archived WAL up to "
+                + RECOVERY_TARGET_FORMAT.format(targetTime) + " and then opens for writes. "
+                + "Keep the current data directory until the result has been checked.";
+
+        databaseBackupAuditHelper.logPointInTimeRestorePrepared(base.id(), targetTime, serverDataDir);
+        log.info("Point-in-time restore to {} prepared from {} in {}", targetTime, base.id(), dataDir);
+        return new PointInTimeRestorePlanDTO(base.id(), targetTime, dataDir.toString(), serverDataDir, instructions);
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new BadRequestException("Continuous backup is not enabled (app.database.backup.continuous.enabled).");
+        }
+    }
+
+    private synchronized Optional<BaseBackupEntry> latestBaseBackup() {
+        return baseBackups.stream().max(Comparator.comparing(BaseBackupEntry::finishedAt));
+    }
+
+    // ---- Receiver ----
+
+    private void ensureSlot() {
+        jdbcTemplate.queryForList(
+                "SELECT pg_create_physical_replication_slot(?, true) "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM pg_replication_slots WHERE slot_name = ?)",
+                slotName, slotName);
+    }
+
+    // A slot nobody reads from makes the server keep WAL forever
+    private void dropSlotIfPresent() {
+        try {
+            List<?> dropped = jdbcTemplate.queryForList(
+                    "SELECT pg_drop_replication_slot(slot_name) FROM pg_replication_slots WHERE slot_name = ? AND NOT active",
+                    slotName);
+            if (!dropped.isEmpty()) {
+                log.info("Continuous backup is disabled; dropped replication slot {}", slotName);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check for replication slot {}: {}", slotName, e.getMessage());
+        }
+    }
+
+    private synchronized void startReceiver() {
+        try {
+            Process process = buildReceiverCommand()
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            Thread stderrThread = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lastReceiverError = line;
+                        log.warn("pg_receivewal: {}", line);
+                    }
+                } catch (IOException ignored) {
+                }
+            }, "pg-receivewal-stderr");
+            stderrThread.setDaemon(true);
+            stderrThread.start();
+
+            receiver = process;
+            receiverStartedAt = Instant.now();
+            lastReceiverError = null;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start pg_receivewal: " + e.getMessage(), e);
+        }
+    }
+
+    // ---- Retention ----
+
+    private void applyRetention() {
+        List<BaseBackupEntry> removed;
+        BaseBackupEntry oldestKept;
+        synchronized (this) {
+            List<BaseBackupEntry> newestFirst = baseBackups.stream()
+                    .sorted(Comparator.comparing(BaseBackupEntry::finishedAt).reversed())
+                    .toList();
+            removed = newestFirst.subList(Math.min(keepBaseBackups, newestFirst.size()), newestFirst.size());
+            oldestKept = newestFirst.get(Math.min(keepBaseBackups, newestFirst.size()) - 1);
+            baseBackups.removeAll(removed);
+            writeBaseManifestQuietly();
+        }
+
+        for (BaseBackupEntry entry : removed) {
+            deleteDirectory(archiveDir.resolve(entry.path()));
+            log.info("Continuous backup retention removed base backup {}", entry.id());
+        }
+
+        // WAL before the oldest kept base backup can no longer be replayed from any backup
+        int deletedSegments = 0;
+        for (Path file : listWalFiles()) {
+            String segment = file.getFileName().toString().substring(0, 24);
+            if (segment.compareTo(oldestKept.startWalFile()) < 0) {
+                try {
+                    Files.deleteIfExists(file);
+                    deletedSegments++;
+                } catch (IOException e) {
+                    log.warn("Retention: could not delete WAL segment {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        }
+        if (deletedSegments > 0) {
+            log.info("Continuous backup retention removed {} WAL segment(s) before {}", deletedSegments, oldestKept.startWalFile());
+        }
+    }
+
+    private List<Path> listWalFiles() {
+        Path walDir = archiveDir.resolve("wal");
+        if (!Files.isDirectory(walDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(walDir)) {
+            return files.filter(file -> WAL_FILE.matcher(file.getFileName().toString()).matches()).toList();
+        } catch (IOException e) {
+            log.warn("Could not list WAL archive {}: {}", walDir, e.getMessage());
+            return List.of();
+        }
+    }
+
+    // ---- Commands ----
+
+    private ProcessBuilder buildReceiverCommand() {
+        return buildToolCommand("pg_receivewal", List.of(
+                "-D", toolArchiveDir + "/wal",
+                "-S", slotName,
+                "--synchronous",
+                "--no-loop"));
+    }
+
+    private ProcessBuilder buildBaseBackupCommand(String directory, String label) {
+        return buildToolCommand("pg_basebackup", List.of(
+                "-D", directory,
+                "-Ft",
+                "-z",
+                "-X", "stream",
+                "--checkpoint=fast",
+                "--progress",
+                "-l", label));
+    }
+
+    // Replication connections: in Docker over the container's Unix socket, which the official
+    // image trusts for replication; locally the server must allow replication for this user
+    private ProcessBuilder buildToolCommand(String tool, List<String> args) {
+        List<String> cmd = new ArrayList<>();
+        if (useDocker) {
+            cmd.addAll(List.of("docker", "exec", "-e", "PGPASSWORD=" + datasourcePassword, dockerContainer, tool));
+        } else {
+            cmd.addAll(List.of(tool, "-h", target.host(), "-p", target.port()));
+        }
+        cmd.addAll(List.of("--no-password", "-U", datasourceUsername));
+        cmd.addAll(args);
+        ProcessBuilder pb = new ProcessBuilder(cmd);
+        if (!useDocker) {
+            pb.environment().put("PGPASSWORD", datasourcePassword);
+        }
+        return pb;
+    }
+
+    private void runToCompletion(ProcessBuilder command, String toolName, BackupProgress progress) {
+        Process process = null;
+        try {
+            process = command.redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            process.getOutputStream().close();
+
+            StringBuilder stderrCapture = new StringBuilder();
+            Process started = process;
+            Thread stderrThread = new Thread(() -> {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(started.getErrorStream()))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        // --progress lines are "123/456 kB (26%), 0/1 tablespace"
+                        Matcher matcher = BASEBACKUP_PROGRESS.matcher(line);
+                        if (matcher.find()) {
+                            progress.reportBytes(Long.parseLong(matcher.group(1)) * 1024, Long.parseLong(matcher.group(2)) * 1024);
+                            continue;
+                        }
+                        synchronized (stderrCapture) {
+                            stderrCapture.append(line).append("\n");
+                        }
+                    }
+                } catch (IOException ignored) {
+                }
+            });
+            stderrThread.setDaemon(true);
+            stderrThread.start();
+
+            boolean finished = process.waitFor(PROCESS_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            stderrThread.join(5000);
+            if (!finished) {
+                process.destroyForcibly();
+                throw new RuntimeException(toolName + " timed out after " + PROCESS_TIMEOUT_MINUTES + " minutes");
+            }
+            if (process.exitValue() != 0) {
+                String errorOutput = !stderrCapture.isEmpty()
+                        ? stderrCapture.toString().trim()
+                        : "exit code " + process.exitValue();
+                log.error("{} failed: {}", toolName, errorOutput);
+                throw new RuntimeException(toolName + " failed: " + errorOutput);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to execute " + toolName + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            throw new RuntimeException(toolName + " was interrupted", e);
+        }
+    }
+
+    // ---- Files ----
+
+    private void extractTarGz(Path archive, Path destination, BackupProgress progress) throws IOException {
+        Path root = destination.toAbsolutePath().normalize();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive));
+             TarArchiveInputStream tar = new TarArchiveInputStream(new GzipCompressorInputStream(in))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextEntry()) != null) {
+                Path target = root.resolve(entry.getName()).normalize();
+                if (!target.startsWith(root)) {
+                    throw new IOException("Unexpected entry in base backup: " + entry.getName());
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else if (entry.isFile()) {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(tar, target, StandardCopyOption.REPLACE_EXISTING);
+                    progress.addBytes(entry.getSize());
+                } else {
+                    log.warn("Skipping {} in base backup: only files and directories are restored", entry.getName());
+                }
+            }
+        }
+    }
+
+    private long directorySize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).map(Path::toFile).mapToLong(File::length).sum();
+        }
+    }
+
+    private void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private List<BaseBackupEntry> readBaseManifest() throws IOException {
+        Path manifest = archiveDir.resolve(BASE_MANIFEST_FILE);
+        if (!Files.exists(manifest)) {
+            return List.of();
+        }
+        List<BaseBackupEntry> entries = objectMapper.readValue(manifest.toFile(), new TypeReference<List<BaseBackupEntry>>() {});
+        return entries.stream().filter(entry -> Files.isDirectory(archiveDir.resolve(entry.path()))).toList();
+    }
+
+    // Caller holds this
+    private void writeBaseManifest() throws IOException {
+        Path manifest = archiveDir.resolve(BASE_MANIFEST_FILE);
+        Path partial = archiveDir.resolve(BASE_MANIFEST_FILE + ".part");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(partial.toFile(), baseBackups);
+        Files.move(partial, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeBaseManifestQuietly() {
+        try {
+            writeBaseManifest();
+        } catch (IOException e) {
+            log.warn("Failed to write base backup manifest: {}", e.getMessage());
+        }
+    }
+}
@@ -1,40 +1,66 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.services.controller;
 
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.backup.BackupVerificationDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.BadRequestException;
-import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ConflictException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ResourceNotFoundException;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.User;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.AuthenticatedUserService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.resources.DatabaseBackupAuditHelper;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupArchiveService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupManifestEntry;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.BackupProgress;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.DumpDirectoryArchive;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.PostgresTarget;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.backup.wal.ContinuousBackupService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -43,6 +69,9 @@ public class DatabaseBackupService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticatedUserService authenticatedUserService;
     private final DatabaseBackupAuditHelper databaseBackupAuditHelper;
+    private final BackupArchiveService backupArchiveService;
+    private final ContinuousBackupService continuousBackupService;
+    private final JdbcTemplate jdbcTemplate;
 
     private final String datasourceUsername;
     private final String datasourcePassword;
@@ -51,13 +80,19 @@ public class DatabaseBackupService {
     private final String dbName;
     private final boolean useDocker;
     private final String dockerContainer;
+    private final String compression;
+    private final boolean directoryFormat;
+    private final int jobs;
     private final Path backupBaseDir;
 
-    private final ReentrantLock restoreLock = new ReentrantLock();
+    private final ReentrantLock operationLock = new ReentrantLock(true);
 
     private static final byte[] PGDUMP_MAGIC = {'P', 'G', 'D', 'M', 'P'};
     private static final long MAX_BACKUP_FILE_SIZE = 2L * 1024 * 1024 * 1024; // 2 GB
     private static final long PROCESS_TIMEOUT_MINUTES = 30;
+    private static final int MAX_HEADER_BYTES = 2048;
+    private static final long TRANSFER_CHUNK_BYTES = 8L * 1024 * 1024;
+    private static final int MAX_AUTO_JOBS = 8;
 
     private boolean isScheduledBackupExecuted = false;
     private LocalDate scheduledBackupDate = null;
@@ -66,42 +101,37 @@ public class DatabaseBackupService {
             PasswordEncoder passwordEncoder,
             AuthenticatedUserService authenticatedUserService,
             DatabaseBackupAuditHelper databaseBackupAuditHelper,
+            BackupArchiveService backupArchiveService,
+            ContinuousBackupService continuousBackupService,
+            JdbcTemplate jdbcTemplate,
             @Value("${spring.datasource.url}") String datasourceUrl,
             @Value("${spring.datasource.username}") String datasourceUsername,
             @Value("${spring.datasource.password}") String datasourcePassword,
             @Value("${app.database.backup.use-docker:false}") boolean useDocker,
             @Value("${app.database.backup.docker-container:postgres-db}") String dockerContainer,
-            @Value("${app.project.dir:}") String projectDir) {
+            @Value("${app.database.backup.compression:}") String compression,
+            @Value("${app.database.backup.format:custom}") String format,
+            @Value("${app.database.backup.jobs:0}") int jobs) {
         this.passwordEncoder = passwordEncoder;
         this.authenticatedUserService = authenticatedUserService;
         this.databaseBackupAuditHelper = databaseBackupAuditHelper;
+        this.backupArchiveService = backupArchiveService;
+        this.continuousBackupService = continuousBackupService;
+        this.jdbcTemplate = jdbcTemplate;
         this.datasourceUsername = datasourceUsername;
         this.datasourcePassword = datasourcePassword;
         this.useDocker = useDocker;
         this.dockerContainer = dockerContainer;
-
-        String baseDir = projectDir != null && !projectDir.isBlank()
-                ? projectDir
-                : System.getProperty("user.dir");
-        this.backupBaseDir = Path.of(baseDir, "backups");
-
-        // Parse jdbc:postgresql://host:port/dbname
-        String url = datasourceUrl.replace("jdbc:postgresql://", "");
-        int slashIdx = url.indexOf('/');
-        if (slashIdx < 0) {
-            throw new IllegalStateException("Invalid datasource URL: expected jdbc:postgresql://host:port/dbname but got: " + datasourceUrl);
-        }
-        String hostPort = url.substring(0, slashIdx);
-        this.dbName = url.substring(slashIdx + 1);
-
-        int colonIdx = hostPort.indexOf(':');
-        if (colonIdx > 0) {
-            this.dbHost = hostPort.substring(0, colonIdx);
-            this.dbPort = hostPort.substring(colonIdx + 1);
-        } else {
-            this.dbHost = hostPort;
-            this.dbPort = "5432";
-        }
+        this.compression = compression != null ? compression.trim() : "";
+        this.directoryFormat = "directory".equalsIgnoreCase(format);
+        // Each job is one more database connection, so auto-sizing stops at MAX_AUTO_JOBS
+        this.jobs = jobs > 0 ? jobs : Math.min(Runtime.getRuntime().availableProcessors(), MAX_AUTO_JOBS);
+        this.backupBaseDir = backupArchiveService.getBaseDir();
+
+        PostgresTarget target = PostgresTarget.parse(datasourceUrl);
+        this.dbHost = target.host();
+        this.dbPort = target.port();
+        this.dbName = target.database();
     }
 
     @PostConstruct
@@ -109,6 +139,7 @@ public class DatabaseBackupService {
         try {
             Files.createDirectories(backupBaseDir);
             log.info("Backup base directory initialized: {}", backupBaseDir.toAbsolutePath());
+            log.info("Backup format: {}", directoryFormat ? "directory (" + jobs + " job(s))" : "custom");
         } catch (IOException e) {
             log.error("Failed to create backup base directory: {}", backupBaseDir.toAbsolutePath(), e);
         }
@@ -126,7 +157,7 @@ public class DatabaseBackupService {
             if (!isScheduledBackupExecuted || !LocalDate.now().equals(scheduledBackupDate)) {
                 log.info("Startup: no backup executed today. Executing missed scheduled backup.");
                 try {
-                    String filename = executeDumpToBackupsFolder("SYSTEM-MISSED");
+                    String filename = executeDumpToBackupsFolder("SYSTEM-MISSED", new BackupProgress());
                     isScheduledBackupExecuted = true;
                     scheduledBackupDate = LocalDate.now();
                     log.info("Missed backup completed successfully.");
@@ -147,9 +178,15 @@ public class DatabaseBackupService {
     @Scheduled(cron = "0 0 17 * * MON-SAT")
     public void scheduledBackup() {
         log.info("Scheduled backup triggered at {}", Instant.now());
+        if (continuousBackupService.coversDailyBackup()) {
+            isScheduledBackupExecuted = true;
+            scheduledBackupDate = LocalDate.now();
+            log.warn("Scheduled pg_dump skipped: WAL is streaming to the continuous archive and a recent base backup exists.");
+            return;
+        }
         String filename = null;
         try {
-            filename = executeDumpToBackupsFolder("SYSTEM");
+            filename = executeDumpToBackupsFolder("SYSTEM", new BackupProgress());
             isScheduledBackupExecuted = true;
             scheduledBackupDate = LocalDate.now();
             log.info("Scheduled backup completed successfully. Flag set.");
@@ -176,12 +213,17 @@ public class DatabaseBackupService {
             return;
         }
 
+        if (continuousBackupService.coversDailyBackup()) {
+            log.warn("Shutdown: emergency pg_dump skipped: WAL is streaming to the continuous archive and a recent base backup exists.");
+            return;
+        }
+
         LocalTime now = LocalTime.now();
         if (now.isBefore(LocalTime.of(17, 0))) {
             log.info("Shutdown: before 5:00 PM ({}), executing emergency safety backup.", now);
             String filename = null;
             try {
-                filename = executeDumpToBackupsFolder("SYSTEM-EMERGENCY");
+                filename = executeDumpToBackupsFolder("SYSTEM-EMERGENCY", new BackupProgress());
             } catch (Exception e) {
                 log.error("Emergency shutdown backup failed", e);
             }
@@ -197,7 +239,7 @@ public class DatabaseBackupService {
             log.info("Shutdown: at/after 5:00 PM but scheduled backup was not executed (laptop was offline/asleep). Executing backup now.");
             String filename = null;
             try {
-                filename = executeDumpToBackupsFolder("SYSTEM-EMERGENCY");
+                filename = executeDumpToBackupsFolder("SYSTEM-EMERGENCY", new BackupProgress());
             } catch (Exception e) {
                 log.error("Post-5PM shutdown backup failed", e);
             }
@@ -212,263 +254,372 @@ public class DatabaseBackupService {
         }
     }
 
-    // ---- Manual backup (called from controller) ----
+    // ---- Manual operations (run as background jobs by BackupJobService) ----
 
-    public File generateBackup(String currentPassword) {
+    public void checkPassword(String currentPassword) {
         validatePassword(currentPassword);
+    }
 
+    public File generateBackup(BackupProgress progress) {
         User user = authenticatedUserService.getCurrentUser();
-        String filename = executeDumpToBackupsFolder(user.getFirstName() + " " + user.getLastName());
+        String filename = executeDumpToBackupsFolder(user.getFirstName() + " " + user.getLastName(), progress);
         File backupFile = resolveBackupFilePath(filename);
         databaseBackupAuditHelper.logBackup(filename, backupFile.length());
         return backupFile;
     }
 
-    public void restoreBackup(MultipartFile file, String currentPassword) {
-        validatePassword(currentPassword);
+    /**
+     * Validates the upload and moves it to a temp file that outlives the request.
+     */
+    public Path stageRestoreUpload(MultipartFile file) {
         validateBackupFile(file);
+        try {
+            return writeUploadedFile(file).toPath();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to process backup file for restore", e);
+        }
+    }
 
-        if (!restoreLock.tryLock()) {
-            throw new ConflictException("A restore operation is already in progress. Please wait for it to complete.");
+    public void discardStagedUpload(Path stagedUpload) {
+        if (stagedUpload != null) {
+            cleanupTempFile(stagedUpload.toFile());
         }
+    }
 
-        File uploadedFile = null;
+    /**
+     * Restores a staged upload over the live database after taking a safety backup.
+     * The staged file is deleted afterwards either way.
+     */
+    public void restoreBackup(Path stagedUpload, String originalFilename, long fileSize, BackupProgress progress) {
         File safetyBackupFile = null;
 
         try {
-            safetyBackupFile = createSafetyBackup();
-            uploadedFile = writeUploadedFile(file);
-
-            // Read embedded metadata from the uploaded file before stripping it
-            String backupTimestamp = "";
-            String backupPerformedBy = "";
+            lockOperations("Restore");
             try {
-                byte[] content = Files.readAllBytes(uploadedFile.toPath());
-                int newlinePos = -1;
-                for (int i = 0; i < Math.min(content.length, 2048); i++) {
-                    if (content[i] == '\n') {
-                        newlinePos = i;
-                        break;
-                    }
-                }
-                if (newlinePos > 0 && content[0] == '{') {
-                    String jsonLine = new String(content, 0, newlinePos, StandardCharsets.UTF_8);
-                    log.info("Restore file metadata header: {}", jsonLine);
-                    backupTimestamp = extractJsonString(jsonLine, "backupTimestamp");
-                    backupPerformedBy = extractJsonString(jsonLine, "performedBy");
+                safetyBackupFile = createSafetyBackup(progress);
+
+                // Only the header line is read; the dump itself goes to pg_restore from the file
+                BackupHeader header = readHeader(stagedUpload);
+                String backupTimestamp = "";
+                String backupPerformedBy = "";
+                if (header.metadataJson() != null) {
+                    log.info("Restore file metadata header: {}", header.metadataJson());
+                    backupTimestamp = extractJsonString(header.metadataJson(), "backupTimestamp");
+                    backupPerformedBy = extractJsonString(header.metadataJson(), "performedBy");
                     log.info("Extracted metadata — backupTimestamp: '{}', backupPerformedBy: '{}'",
                             backupTimestamp, backupPerformedBy);
                 } else {
-                    log.warn("No metadata header found in restore file. firstByte={}, newlinePos={}",
-                            content.length > 0 ? (char) content[0] : "empty", newlinePos);
+                    log.warn("No metadata header found in restore file");
                 }
-            } catch (IOException e) {
-                log.warn("Failed to read metadata from restore file", e);
-            }
 
-            uploadedFile = stripMetadataLine(uploadedFile);
-            executePgRestore(uploadedFile);
-
-            long fileSize = file.getSize();
-            databaseBackupAuditHelper.logRestore(
-                    file.getOriginalFilename(), fileSize, backupTimestamp, backupPerformedBy);
+                progress.startPhase("Restoring database");
+                executePgRestore(stagedUpload.toFile(), header.dumpOffset(), dbName, true, progress);
 
+                databaseBackupAuditHelper.logRestore(originalFilename, fileSize, backupTimestamp, backupPerformedBy);
+            } finally {
+                operationLock.unlock();
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to process backup file for restore", e);
         } finally {
-            cleanupTempFile(uploadedFile);
+            discardStagedUpload(stagedUpload);
             cleanupTempFile(safetyBackupFile);
-            restoreLock.unlock();
         }
     }
 
-    // ---- Core dump execution ----
+    // ---- Backup archive ----
 
-    private String executeDumpToBackupsFolder(String performedBy) {
-        File tempFile;
-        try {
-            tempFile = File.createTempFile("pgdump_", ".dump");
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create temporary file for backup", e);
-        }
+    public List<BackupManifestEntry> listArchivedBackups() {
+        return backupArchiveService.list();
+    }
+
+    public BackupManifestEntry findArchivedBackup(String id) {
+        return backupArchiveService.find(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Backup not found in archive: " + id));
+    }
+
+    /**
+     * Checks an archived backup end to end: its SHA-256 against the manifest, then a full
+     * pg_restore into a throwaway database that is dropped afterwards. The live database is
+     * never touched.
+     */
+    public BackupVerificationDTO verifyBackup(String id, BackupProgress progress) {
+        BackupManifestEntry entry = findArchivedBackup(id);
+
+        lockOperations("Verification");
+
+        long startedAt = System.currentTimeMillis();
+        Path file = backupArchiveService.resolve(entry);
+        String scratchDb = dbName + "_verify_" + Instant.now().getEpochSecond();
+        boolean checksumMatches = false;
+        boolean restored = false;
+        Integer tableCount = null;
+        String error = null;
 
-        Process process = null;
         try {
-            ProcessBuilder pb;
-            if (useDocker) {
-                pb = buildDockerPgDumpCommand();
+            progress.startPhase("Verifying checksum");
+            checksumMatches = entry.sha256() != null && entry.sha256().equals(BackupArchiveService.sha256(file));
+            if (!checksumMatches) {
+                error = "Checksum mismatch: the backup file has changed since it was written";
             } else {
-                pb = buildLocalPgDumpCommand(dbHost, dbPort, tempFile);
-                pb.redirectErrorStream(true);
+                progress.startPhase("Restoring into a scratch database");
+                jdbcTemplate.execute("CREATE DATABASE " + quoteIdentifier(scratchDb));
+                // Errors pg_restore ignored (exit 1) fail the verification rather than pass as a warning
+                executePgRestore(file.toFile(), readHeader(file).dumpOffset(), scratchDb, false, progress);
+                restored = true;
+                tableCount = countTables(scratchDb);
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            log.error("Verification of backup {} failed", entry.path(), e);
+            error = e.getMessage();
+        } finally {
+            try {
+                jdbcTemplate.execute("DROP DATABASE IF EXISTS " + quoteIdentifier(scratchDb) + " WITH (FORCE)");
+            } catch (RuntimeException e) {
+                log.warn("Failed to drop verification database {}: {}", scratchDb, e.getMessage());
             }
+            operationLock.unlock();
+        }
 
-            process = pb.start();
-            final Process runningProcess = process;
+        long durationMs = System.currentTimeMillis() - startedAt;
+        log.info("Verified backup {}: checksum {}, restored {}, {} table(s), {} ms",
+                entry.path(), checksumMatches ? "ok" : "MISMATCH", restored, tableCount, durationMs);
+        return new BackupVerificationDTO(entry.id(), entry.path(), checksumMatches, restored, tableCount, durationMs, error);
+    }
 
-            // Docker mode: capture stderr in background thread for error reporting
-            StringBuilder stderrCapture = new StringBuilder();
-            Thread stderrThread = null;
-            if (useDocker) {
-                stderrThread = new Thread(() -> {
-                    try (BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(runningProcess.getErrorStream()))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            stderrCapture.append(line).append("\n");
-                        }
-                    } catch (IOException ignored) {
-                    }
-                });
-                stderrThread.setDaemon(true);
-                stderrThread.start();
-            }
+    /**
+     * Waits for any running backup, restore or verification; scheduled, shutdown and manual
+     * operations all go through here so they never overlap. Callers unlock {@link #operationLock}.
+     */
+    private void lockOperations(String operation) {
+        try {
+            operationLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(operation + " was interrupted while waiting for another backup operation", e);
+        }
+    }
 
-            if (useDocker) {
-                // Docker mode: pg_dump writes to stdout, we capture to file
-                try (InputStream stdout = runningProcess.getInputStream();
-                     FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    byte[] buffer = new byte[8192];
-                    int bytesRead;
-                    while ((bytesRead = stdout.read(buffer)) != -1) {
-                        fos.write(buffer, 0, bytesRead);
-                    }
-                }
-            }
+    // Estimate for progress: the dump or restore touches roughly the live database's tables
+    private Integer countLiveTables() {
+        try {
+            return jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_catalog.pg_tables WHERE schemaname NOT IN ('pg_catalog', 'information_schema')",
+                    Integer.class);
+        } catch (RuntimeException e) {
+            log.debug("Could not count tables for backup progress: {}", e.getMessage());
+            return null;
+        }
+    }
 
-            boolean finished = process.waitFor(PROCESS_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    private int countTables(String database) throws SQLException {
+        String url = "jdbc:postgresql://" + dbHost + ":" + dbPort + "/" + database;
+        try (Connection connection = DriverManager.getConnection(url, datasourceUsername, datasourcePassword);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT count(*) FROM information_schema.tables WHERE table_schema = 'public'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
 
-            // Wait for stderr reader to finish
-            if (stderrThread != null) {
-                stderrThread.join(5000);
-            }
+    private String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
 
-            if (!finished) {
-                process.destroyForcibly();
-                tempFile.delete();
-                throw new RuntimeException("Backup process timed out after " + PROCESS_TIMEOUT_MINUTES + " minutes");
-            }
+    // ---- Core dump execution ----
 
-            int exitCode = process.exitValue();
-            if (exitCode != 0) {
-                String errorOutput;
-                if (useDocker) {
-                    errorOutput = !stderrCapture.isEmpty()
-                            ? stderrCapture.toString().trim()
-                            : "(no error output captured from pg_dump)";
-                } else {
-                    errorOutput = new String(process.getInputStream().readAllBytes());
-                }
-                tempFile.delete();
-                log.error("pg_dump failed with exit code {}: {}", exitCode, errorOutput);
-                throw new RuntimeException("Database backup failed: " + errorOutput);
-            }
+    private String executeDumpToBackupsFolder(String performedBy, BackupProgress progress) {
+        lockOperations("Backup");
+        try {
+            return dumpToBackupsFolder(performedBy, progress);
+        } finally {
+            operationLock.unlock();
+        }
+    }
 
-            long fileSize = tempFile.length();
-            String filename = buildBackupFilename();
-            tempFile = prependMetadata(tempFile, performedBy);
-            moveBackupToFolder(tempFile, filename);
+    private String dumpToBackupsFolder(String performedBy, BackupProgress progress) {
+        String filename = buildBackupFilename();
+        Path dateFolder = backupBaseDir.resolve(buildDateFolderName());
+        Path partial = dateFolder.resolve(filename + ".part");
+
+        try {
+            Files.createDirectories(dateFolder);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create backups folder", e);
+        }
 
-            log.info("Backup saved to backups folder: {} ({} bytes)", filename, fileSize);
-            return filename;
+        long startedAt = System.currentTimeMillis();
+        progress.startPhase("Dumping database");
+        DumpResult dump = dumpTo(partial, buildMetadataJson(performedBy), "Backup", progress);
+        long durationMs = System.currentTimeMillis() - startedAt;
 
+        Path finalPath = dateFolder.resolve(filename);
+        try {
+            // Only a complete dump ever appears under its final name
+            Files.move(partial, finalPath, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
-            tempFile.delete();
-            throw new RuntimeException(wrapProcessError(e, "pg_dump"), e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            tempFile.delete();
-            throw new RuntimeException("Backup process was interrupted", e);
+            cleanupTempFile(partial.toFile());
+            throw new RuntimeException("Failed to move backup to backups folder", e);
         }
+
+        progress.startPhase("Recording backup");
+        String compressionLabel = compression.isEmpty() ? "default" : compression;
+        backupArchiveService.record(finalPath, Instant.now(), performedBy, dump.sha256(),
+                compressionLabel, directoryFormat ? "directory" : "custom", durationMs);
+        backupArchiveService.applyRetention();
+
+        log.info("Backup saved to backups folder: {} ({} bytes, compression {}, {} ms)",
+                filename, dump.dumpBytes(), compressionLabel, durationMs);
+        return filename;
     }
 
-    private File createSafetyBackup() {
-        File tempFile;
+    private File createSafetyBackup(BackupProgress progress) {
+        Path tempPath;
         try {
-            tempFile = File.createTempFile("pre_restore_", ".dump");
+            tempPath = Files.createTempFile("pre_restore_", ".dump");
         } catch (IOException e) {
             throw new RuntimeException("Failed to create temporary file for safety backup", e);
         }
 
-        Process process = null;
         try {
-            ProcessBuilder pb;
-            if (useDocker) {
-                pb = buildDockerPgDumpCommand();
-            } else {
-                pb = buildLocalPgDumpCommand(dbHost, dbPort, tempFile);
-                pb.redirectErrorStream(true);
-            }
+            progress.startPhase("Creating safety backup");
+            DumpResult dump = dumpTo(tempPath, buildMetadataJson(null), "Safety backup", progress);
+            log.info("Safety backup created ({} bytes)", dump.dumpBytes());
+            return tempPath.toFile();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to create safety backup before restore: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the metadata header line to {@code target}, then the dump in the configured format.
+     * Deletes {@code target} on failure.
+     */
+    private DumpResult dumpTo(Path target, String metadataJson, String label, BackupProgress progress) {
+        byte[] header = (metadataJson + "\n").getBytes(StandardCharsets.UTF_8);
+        progress.expectTables(countLiveTables());
+        if (!directoryFormat) {
+            return streamOutputTo(target, header,
+                    useDocker ? buildDockerPgDumpCommand(customFormatArgs()) : buildLocalPgDumpCommand(dbHost, dbPort, customFormatArgs()),
+                    "pg_dump", label, progress);
+        }
+        return useDocker
+                ? dumpDirectoryInContainer(target, header, label, progress)
+                : dumpDirectoryLocally(target, header, label, progress);
+    }
 
-            process = pb.start();
+    /**
+     * Writes {@code header} to {@code target}, then pipes the command's stdout straight after it,
+     * so the output is written exactly once. The SHA-256 of the whole file is computed on the way
+     * through. Deletes {@code target} on failure.
+     */
+    private DumpResult streamOutputTo(Path target, byte[] header, ProcessBuilder command, String toolName,
+                                      String label, BackupProgress progress) {
+        MessageDigest digest = BackupArchiveService.newSha256();
+        digest.update(header);
 
-            // Docker mode: capture stderr in background thread for error reporting
-            StringBuilder stderrCapture = new StringBuilder();
-            Thread stderrThread = null;
-            if (useDocker) {
-                final Process runningProcess = process;
-                stderrThread = new Thread(() -> {
-                    try (BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(runningProcess.getErrorStream()))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            stderrCapture.append(line).append("\n");
-                        }
-                    } catch (IOException ignored) {
-                    }
-                });
-                stderrThread.setDaemon(true);
-                stderrThread.start();
-            }
+        Process process = null;
+        try (FileChannel out = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(ByteBuffer.wrap(header));
 
-            if (useDocker) {
-                try (InputStream stdout = process.getInputStream();
-                     FileOutputStream fos = new FileOutputStream(tempFile)) {
-                    byte[] buffer = new byte[8192];
-                    int bytesRead;
-                    while ((bytesRead = stdout.read(buffer)) != -1) {
-                        fos.write(buffer, 0, bytesRead);
-                    }
+            process = command.start();
+            StringBuilder stderrCapture = new StringBuilder();
+            Thread stderrThread = captureStderr(process, stderrCapture, progress);
+
+            long position = header.length;
+            try (ReadableByteChannel stdout = Channels.newChannel(
+                    new DigestInputStream(process.getInputStream(), digest))) {
+                long transferred;
+                while ((transferred = out.transferFrom(stdout, position, TRANSFER_CHUNK_BYTES)) > 0) {
+                    position += transferred;
+                    progress.addBytes(transferred);
                 }
             }
 
             boolean finished = process.waitFor(PROCESS_TIMEOUT_MINUTES, TimeUnit.MINUTES);
-
-            // Wait for stderr reader to finish
-            if (stderrThread != null) {
-                stderrThread.join(5000);
-            }
+            stderrThread.join(5000);
 
             if (!finished) {
                 process.destroyForcibly();
-                tempFile.delete();
-                throw new RuntimeException("Safety backup timed out");
+                throw new RuntimeException(label + " process timed out after " + PROCESS_TIMEOUT_MINUTES + " minutes");
             }
 
             int exitCode = process.exitValue();
             if (exitCode != 0) {
-                tempFile.delete();
-                String errorOutput = useDocker
-                        ? (!stderrCapture.isEmpty()
-                            ? stderrCapture.toString().trim()
-                            : "(no error output captured from pg_dump)")
-                        : new String(process.getInputStream().readAllBytes());
-                log.error("Safety backup pg_dump failed: {}", errorOutput);
-                throw new RuntimeException("Failed to create safety backup before restore: " + errorOutput);
+                String errorOutput = !stderrCapture.isEmpty()
+                        ? stderrCapture.toString().trim()
+                        : "(no error output captured from " + toolName + ")";
+                log.error("{} {} failed with exit code {}: {}", label, toolName, exitCode, errorOutput);
+                throw new RuntimeException("Database backup failed: " + errorOutput);
             }
 
-            log.info("Safety backup created ({} bytes)", tempFile.length());
-            return prependMetadata(tempFile);
+            return new DumpResult(position - header.length, HexFormat.of().formatHex(digest.digest()));
 
         } catch (IOException e) {
-            tempFile.delete();
-            throw new RuntimeException(wrapProcessError(e, "pg_dump"), e);
+            cleanupTempFile(target.toFile());
+            throw new RuntimeException(wrapProcessError(e, toolName), e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            tempFile.delete();
-            throw new RuntimeException("Safety backup was interrupted", e);
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            cleanupTempFile(target.toFile());
+            throw new RuntimeException(label + " process was interrupted", e);
+        } catch (RuntimeException e) {
+            cleanupTempFile(target.toFile());
+            throw e;
         }
     }
 
+    // pg_dump -Fd -j writes into a local temp directory, which is then packed behind the header
+    private DumpResult dumpDirectoryLocally(Path target, byte[] header, String label, BackupProgress progress) {
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory("pg_dump_");
+            Path dumpDir = workDir.resolve("dump");
+            runToCompletion(buildLocalPgDumpCommand(dbHost, dbPort, directoryFormatArgs(dumpDir.toString())),
+                    null, 0, "pg_dump", label, false, progress);
+
+            MessageDigest digest = BackupArchiveService.newSha256();
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(target)), digest)) {
+                out.write(header);
+                DumpDirectoryArchive.pack(dumpDir, out);
+            }
+            progress.addBytes(Files.size(target) - header.length);
+            return new DumpResult(Files.size(target) - header.length, HexFormat.of().formatHex(digest.digest()));
+
+        } catch (IOException e) {
+            cleanupTempFile(target.toFile());
+            throw new RuntimeException("Failed to package directory-format dump: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            cleanupTempFile(target.toFile());
+            throw e;
+        } finally {
+            deleteDirectory(workDir);
+        }
+    }
+
+    // The dump directory stays inside the container; only its tar stream crosses over
+    private DumpResult dumpDirectoryInContainer(Path target, byte[] header, String label, BackupProgress progress) {
+        String containerDir = newContainerWorkDir("pg_dump_");
+        try {
+            runToCompletion(buildDockerPgDumpCommand(directoryFormatArgs(containerDir)),
+                    null, 0, "pg_dump", label, false, progress);
+            return streamOutputTo(target, header,
+                    dockerExec(false, "tar", "-C", containerDir, "-cf", "-", "."), "tar", label, progress);
+        } catch (RuntimeException e) {
+            cleanupTempFile(target.toFile());
+            throw e;
+        } finally {
+            removeContainerDir(containerDir);
+        }
+    }
+
+    private record DumpResult(long dumpBytes, String sha256) {}
+
     // ---- Backup file path management ----
 
     private String buildBackupFilename() {
@@ -487,18 +638,6 @@ public class DatabaseBackupService {
                 .format(Instant.now());
     }
 
-    private void moveBackupToFolder(File sourceFile, String filename) {
-        try {
-            Path dateFolder = backupBaseDir.resolve(buildDateFolderName());
-            Files.createDirectories(dateFolder);
-            Path destination = dateFolder.resolve(filename);
-            Files.move(sourceFile.toPath(), destination, StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException e) {
-            cleanupTempFile(sourceFile);
-            throw new RuntimeException("Failed to move backup to backups folder", e);
-        }
-    }
-
     // ---- Restore helpers ----
 
     private void validateBackupFile(MultipartFile file) {
@@ -510,7 +649,7 @@ public class DatabaseBackupService {
             throw new BadRequestException("Backup file exceeds maximum allowed size of 2 GB");
         }
 
-        byte[] magic = new byte[5];
+        byte[] head = new byte[DumpDirectoryArchive.HEAD_BYTES];
         try (InputStream is = file.getInputStream()) {
             int firstByte = is.read();
             if (firstByte < 0) {
@@ -526,18 +665,17 @@ public class DatabaseBackupService {
                 if (b != '\n') {
                     throw new BadRequestException("Invalid backup file: metadata header is malformed");
                 }
-                firstByte = is.read(); // should now be 'P' from PGDMP
+                firstByte = is.read(); // should now be 'P' from PGDMP, or the start of a tar block
             }
 
-            magic[0] = (byte) firstByte;
-            int bytesRead = is.read(magic, 1, 4);
-            if (bytesRead < 4) {
+            head[0] = (byte) firstByte;
+            int length = 1 + is.readNBytes(head, 1, head.length - 1);
+            if (length < PGDUMP_MAGIC.length) {
                 throw new BadRequestException("Invalid backup file: file is too small to be a valid PostgreSQL backup");
             }
-            for (int i = 0; i < 5; i++) {
-                if (magic[i] != PGDUMP_MAGIC[i]) {
-                    throw new BadRequestException("Invalid backup file: file does not appear to be a valid PostgreSQL custom-format dump. Only pg_dump -Fc custom-format backups are supported.");
-                }
+            boolean customDump = Arrays.equals(head, 0, PGDUMP_MAGIC.length, PGDUMP_MAGIC, 0, PGDUMP_MAGIC.length);
+            if (!customDump && !DumpDirectoryArchive.isArchive(head, length)) {
+                throw new BadRequestException("Invalid backup file: file does not appear to be a valid PostgreSQL dump. Only pg_dump -Fc custom-format backups and directory-format backups made by this system are supported.");
             }
         } catch (IOException e) {
             throw new RuntimeException("Failed to validate backup file", e);
@@ -546,108 +684,207 @@ public class DatabaseBackupService {
 
     private File writeUploadedFile(MultipartFile file) throws IOException {
         Path tempPath = Files.createTempFile("restore_", ".dump");
-        File tempFile = tempPath.toFile();
-        try (InputStream is = file.getInputStream();
-             FileOutputStream fos = new FileOutputStream(tempFile)) {
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = is.read(buffer)) != -1) {
-                fos.write(buffer, 0, bytesRead);
+        File target = tempPath.toFile();
+        // transferTo(File) goes through Part.write, which renames a disk-spooled upload into place
+        // when both are on the same filesystem; transferTo(Path) would always stream-copy it
+        file.transferTo(target);
+        return target;
+    }
+
+    /**
+     * Reads at most {@link #MAX_HEADER_BYTES} to find the metadata line, if any.
+     */
+    private BackupHeader readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_HEADER_BYTES, channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // fill the header window
+            }
+            buffer.flip();
+
+            if (!buffer.hasRemaining() || buffer.get(0) != '{') {
+                return new BackupHeader(null, 0);
+            }
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    byte[] line = new byte[i];
+                    buffer.get(line);
+                    return new BackupHeader(new String(line, StandardCharsets.UTF_8), i + 1);
+                }
             }
+            throw new BadRequestException("Invalid backup file: metadata header is malformed");
         }
-        return tempFile;
     }
 
-    private void executePgRestore(File backupFile) {
-        Process process = null;
+    private record BackupHeader(String metadataJson, long dumpOffset) {}
+
+    /**
+     * Restores the dump that starts at {@code dumpOffset} into {@code database}. A custom-format
+     * dump is fed to pg_restore's stdin with {@link FileChannel#transferTo} rather than through a
+     * heap buffer; a directory-format archive is unpacked first so pg_restore can run with -j.
+     * {@code tolerateIgnoredErrors} accepts pg_restore's exit code 1 ("errors ignored on restore").
+     */
+    private void executePgRestore(File backupFile, long dumpOffset, String database,
+                                  boolean tolerateIgnoredErrors, BackupProgress progress) {
+        Path file = backupFile.toPath();
+        progress.expectBytes(backupFile.length() - dumpOffset);
+        progress.expectTables(countLiveTables());
+        boolean directoryArchive;
         try {
-            ProcessBuilder pb;
-            if (useDocker) {
-                pb = buildDockerPgRestoreCommand();
-            } else {
-                pb = buildLocalPgRestoreCommand(backupFile);
-                pb.redirectErrorStream(true);
+            directoryArchive = DumpDirectoryArchive.isArchive(file, dumpOffset);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read backup file for restore", e);
+        }
+
+        long startedAt = System.currentTimeMillis();
+        if (!directoryArchive) {
+            runToCompletion(useDocker ? buildDockerPgRestoreCommand(database, List.of()) : buildLocalPgRestoreCommand(database, List.of()),
+                    file, dumpOffset, "pg_restore", "Database restore", tolerateIgnoredErrors, progress);
+        } else if (useDocker) {
+            restoreDirectoryInContainer(file, dumpOffset, database, tolerateIgnoredErrors, progress);
+        } else {
+            restoreDirectoryLocally(file, dumpOffset, database, tolerateIgnoredErrors, progress);
+        }
+
+        log.info("Database restore into {} completed in {} ms ({} format) from: {}",
+                database, System.currentTimeMillis() - startedAt,
+                directoryArchive ? "directory" : "custom", backupFile.getAbsolutePath());
+    }
+
+    private void restoreDirectoryLocally(Path file, long dumpOffset, String database,
+                                         boolean tolerateIgnoredErrors, BackupProgress progress) {
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory("pg_restore_");
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                in.position(dumpOffset);
+                DumpDirectoryArchive.unpack(Channels.newInputStream(in), workDir);
+                progress.addBytes(in.size() - dumpOffset);
             }
+            runToCompletion(buildLocalPgRestoreCommand(database, directoryRestoreArgs(workDir.toString())),
+                    null, 0, "pg_restore", "Database restore", tolerateIgnoredErrors, progress);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to unpack directory-format backup: " + e.getMessage(), e);
+        } finally {
+            deleteDirectory(workDir);
+        }
+    }
 
-            process = pb.start();
+    private void restoreDirectoryInContainer(Path file, long dumpOffset, String database,
+                                             boolean tolerateIgnoredErrors, BackupProgress progress) {
+        String containerDir = newContainerWorkDir("pg_restore_");
+        try {
+            runToCompletion(dockerExec(false, "mkdir", "-p", containerDir),
+                    null, 0, "mkdir", "Database restore", false, progress);
+            runToCompletion(dockerExec(true, "tar", "-C", containerDir, "-xf", "-"),
+                    file, dumpOffset, "tar", "Database restore", false, progress);
+            runToCompletion(buildDockerPgRestoreCommand(database, directoryRestoreArgs(containerDir)),
+                    null, 0, "pg_restore", "Database restore", tolerateIgnoredErrors, progress);
+        } finally {
+            removeContainerDir(containerDir);
+        }
+    }
 
-            // Docker mode: capture stderr in background thread for error reporting
+    /**
+     * Runs a tool to completion, feeding it {@code stdinFile} from {@code stdinOffset} when one is
+     * given. pg_restore exits with 1 for non-fatal errors, which
+     * {@code exitOneIsWarning} accepts.
+     */
+    private void runToCompletion(ProcessBuilder command, Path stdinFile, long stdinOffset,
+                                 String toolName, String label, boolean exitOneIsWarning,
+                                 BackupProgress progress) {
+        Process process = null;
+        try {
+            process = command.redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
             StringBuilder stderrCapture = new StringBuilder();
-            Thread stderrThread = null;
-            if (useDocker) {
-                final Process runningProcess = process;
-                stderrThread = new Thread(() -> {
-                    try (BufferedReader reader = new BufferedReader(
-                            new InputStreamReader(runningProcess.getErrorStream()))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            stderrCapture.append(line).append("\n");
+            Thread stderrThread = captureStderr(process, stderrCapture, progress);
+
+            try (WritableByteChannel stdin = Channels.newChannel(process.getOutputStream())) {
+                if (stdinFile != null) {
+                    try (FileChannel in = FileChannel.open(stdinFile, StandardOpenOption.READ)) {
+                        long position = stdinOffset;
+                        long size = in.size();
+                        while (position < size) {
+                            // Bounded per call so progress advances during a large restore
+                            long transferred = in.transferTo(position, Math.min(size - position, TRANSFER_CHUNK_BYTES), stdin);
+                            position += transferred;
+                            progress.addBytes(transferred);
                         }
-                    } catch (IOException ignored) {
                     }
-                });
-                stderrThread.setDaemon(true);
-                stderrThread.start();
-            }
-
-            if (useDocker) {
-                // Pipe the backup file to pg_restore stdin via docker exec -i
-                try (OutputStream stdin = process.getOutputStream();
-                     InputStream fileIn = Files.newInputStream(backupFile.toPath())) {
-                    byte[] buffer = new byte[8192];
-                    int bytesRead;
-                    while ((bytesRead = fileIn.read(buffer)) != -1) {
-                        stdin.write(buffer, 0, bytesRead);
-                    }
-                    stdin.flush();
                 }
             }
 
             boolean finished = process.waitFor(PROCESS_TIMEOUT_MINUTES, TimeUnit.MINUTES);
-
-            // Wait for stderr reader to finish
-            if (stderrThread != null) {
-                stderrThread.join(5000);
-            }
+            stderrThread.join(5000);
 
             if (!finished) {
                 process.destroyForcibly();
-                throw new RuntimeException("Restore process timed out after " + PROCESS_TIMEOUT_MINUTES + " minutes. A safety backup was created before the restore attempt.");
+                throw new RuntimeException(label + " process timed out after " + PROCESS_TIMEOUT_MINUTES + " minutes");
             }
 
             int exitCode = process.exitValue();
-            if (exitCode != 0 && exitCode != 1) {
-                String errorOutput = useDocker
-                        ? (!stderrCapture.isEmpty()
-                            ? stderrCapture.toString().trim()
-                            : "exit code " + exitCode + " (no error output captured from pg_restore)")
-                        : new String(process.getInputStream().readAllBytes());
-                log.error("pg_restore failed with exit code {}: {}", exitCode, errorOutput);
-                throw new RuntimeException("Database restore failed: " + errorOutput);
-            }
-
-            if (exitCode == 1) {
-                String output = useDocker
-                        ? (!stderrCapture.isEmpty() ? stderrCapture.toString().trim() : "")
-                        : new String(process.getInputStream().readAllBytes());
-                if (!output.isEmpty()) {
-                    log.warn("pg_restore completed with warnings: {}", output);
+            String errorOutput = stderrCapture.toString().trim();
+            if (exitCode != 0 && !(exitCode == 1 && exitOneIsWarning)) {
+                if (errorOutput.isEmpty()) {
+                    errorOutput = "exit code " + exitCode + " (no error output captured from " + toolName + ")";
                 }
+                log.error("{} {} failed with exit code {}: {}", label, toolName, exitCode, errorOutput);
+                throw new RuntimeException(label + " failed: " + errorOutput);
             }
 
-            log.info("Database restore completed successfully from: {}", backupFile.getAbsolutePath());
+            if (exitCode == 1 && !errorOutput.isEmpty()) {
+                log.warn("{} completed with warnings: {}", toolName, errorOutput);
+            }
 
         } catch (IOException e) {
-            throw new RuntimeException(wrapProcessError(e, "pg_restore"), e);
+            throw new RuntimeException(wrapProcessError(e, toolName), e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new RuntimeException("Restore process was interrupted. A safety backup was created before the restore attempt.", e);
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            throw new RuntimeException(label + " process was interrupted", e);
         }
     }
 
+    // Drains stderr on its own thread so a chatty tool cannot block on a full pipe. Routine
+    // --verbose lines only feed progress; everything else is kept for error messages.
+    private Thread captureStderr(Process process, StringBuilder sink, BackupProgress progress) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (progress.onToolOutput(line)) {
+                        continue;
+                    }
+                    synchronized (sink) {
+                        sink.append(line).append("\n");
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
     // ---- Command builders ----
 
-    private ProcessBuilder buildDockerPgDumpCommand() {
+    private List<String> customFormatArgs() {
+        return List.of("-Fc");
+    }
+
+    private List<String> directoryFormatArgs(String dumpDir) {
+        return List.of("-Fd", "-j", String.valueOf(jobs), "-f", dumpDir);
+    }
+
+    private List<String> directoryRestoreArgs(String dumpDir) {
+        return List.of("-Fd", "-j", String.valueOf(jobs), dumpDir);
+    }
+
+    private ProcessBuilder buildDockerPgDumpCommand(List<String> formatArgs) {
         List<String> cmd = new ArrayList<>();
         cmd.add("docker");
         cmd.add("exec");
@@ -656,7 +893,12 @@ public class DatabaseBackupService {
         cmd.add(dockerContainer);
         cmd.add("pg_dump");
         cmd.add("--no-password");
-        cmd.add("-Fc");
+        cmd.add("--verbose");
+        cmd.addAll(formatArgs);
+        if (!compression.isEmpty()) {
+            cmd.add("-Z");
+            cmd.add(compression);
+        }
         cmd.add("-U");
         cmd.add(datasourceUsername);
         cmd.add("-d");
@@ -665,22 +907,29 @@ public class DatabaseBackupService {
         return new ProcessBuilder(cmd);
     }
 
-    private ProcessBuilder buildLocalPgDumpCommand(String host, String port, File outputFile) {
-        ProcessBuilder pb = new ProcessBuilder(
+    // Without -f in formatArgs the dump goes to stdout so it can be written after the metadata header
+    private ProcessBuilder buildLocalPgDumpCommand(String host, String port, List<String> formatArgs) {
+        List<String> cmd = new ArrayList<>(List.of(
                 "pg_dump",
-                "-Fc",
                 "--no-password",
+                "--verbose",
                 "-h", host,
                 "-p", port,
                 "-U", datasourceUsername,
-                "-d", dbName,
-                "-f", outputFile.getAbsolutePath()
-        );
+                "-d", dbName
+        ));
+        cmd.addAll(formatArgs);
+        if (!compression.isEmpty()) {
+            cmd.add("-Z");
+            cmd.add(compression);
+        }
+        ProcessBuilder pb = new ProcessBuilder(cmd);
         pb.environment().put("PGPASSWORD", datasourcePassword);
         return pb;
     }
 
-    private ProcessBuilder buildDockerPgRestoreCommand() {
+    // Empty sourceArgs: the custom-format dump is read from stdin
+    private ProcessBuilder buildDockerPgRestoreCommand(String database, List<String> sourceArgs) {
         List<String> cmd = new ArrayList<>();
         cmd.add("docker");
         cmd.add("exec");
@@ -690,6 +939,7 @@ public class DatabaseBackupService {
         cmd.add(dockerContainer);
         cmd.add("pg_restore");
         cmd.add("--no-password");
+        cmd.add("--verbose");
         cmd.add("--clean");
         cmd.add("--if-exists");
         cmd.add("--no-owner");
@@ -697,14 +947,17 @@ public class DatabaseBackupService {
         cmd.add("-U");
         cmd.add(datasourceUsername);
         cmd.add("-d");
-        cmd.add(dbName);
+        cmd.add(database);
+        cmd.addAll(sourceArgs);
         // No -h flag: uses Unix socket inside the container
         return new ProcessBuilder(cmd);
     }
 
-    private ProcessBuilder buildLocalPgRestoreCommand(File backupFile) {
-        ProcessBuilder pb = new ProcessBuilder(
+    // Empty sourceArgs: the custom-format dump is read from stdin, past its metadata header
+    private ProcessBuilder buildLocalPgRestoreCommand(String database, List<String> sourceArgs) {
+        List<String> cmd = new ArrayList<>(List.of(
                 "pg_restore",
+                "--verbose",
                 "--clean",
                 "--if-exists",
                 "--no-password",
@@ -713,13 +966,24 @@ public class DatabaseBackupService {
                 "-h", dbHost,
                 "-p", dbPort,
                 "-U", datasourceUsername,
-                "-d", dbName,
-                backupFile.getAbsolutePath()
-        );
+                "-d", database
+        ));
+        cmd.addAll(sourceArgs);
+        ProcessBuilder pb = new ProcessBuilder(cmd);
         pb.environment().put("PGPASSWORD", datasourcePassword);
         return pb;
     }
 
+    private ProcessBuilder dockerExec(boolean interactive, String... command) {
+        List<String> cmd = new ArrayList<>(List.of("docker", "exec"));
+        if (interactive) {
+            cmd.add("-i");
+        }
+        cmd.add(dockerContainer);
+        cmd.addAll(List.of(command));
+        return new ProcessBuilder(cmd);
+    }
+
     // ---- Metadata ----
 
     private void validatePassword(String currentPassword) {
@@ -740,66 +1004,15 @@ public class DatabaseBackupService {
         return json.substring(start, end);
     }
 
-    private String buildMetadataJson() {
-        User user = authenticatedUserService.getCurrentUser();
-        return String.format(
-                "{\"backupTimestamp\":\"%s\",\"performedBy\":\"%s %s\",\"databaseName\":\"%s\"}",
-                Instant.now().toString(),
-                user.getFirstName(),
-                user.getLastName(),
-                dbName
-        );
-    }
-
-    private File prependMetadata(File dumpFile) throws IOException {
-        return prependMetadata(dumpFile, null);
-    }
-
-    private File prependMetadata(File dumpFile, String performedBy) throws IOException {
-        String metadata;
-        if (performedBy != null) {
-            metadata = String.format(
-                    "{\"backupTimestamp\":\"%s\",\"performedBy\":\"%s\",\"databaseName\":\"%s\"}",
-                    Instant.now().toString(), performedBy, dbName);
-        } else {
-            metadata = buildMetadataJson();
-        }
-        byte[] metadataBytes = (metadata + "\n").getBytes(StandardCharsets.UTF_8);
-
-        File finalFile = File.createTempFile("pgdump_meta_", ".dump");
-        try (OutputStream out = new FileOutputStream(finalFile);
-             InputStream in = new FileInputStream(dumpFile)) {
-            out.write(metadataBytes);
-            byte[] buffer = new byte[8192];
-            int read;
-            while ((read = in.read(buffer)) != -1) {
-                out.write(buffer, 0, read);
-            }
-        }
-        dumpFile.delete();
-        return finalFile;
-    }
-
-    private File stripMetadataLine(File source) throws IOException {
-        byte[] content = Files.readAllBytes(source.toPath());
-        int newlinePos = -1;
-        for (int i = 0; i < Math.min(content.length, 2048); i++) {
-            if (content[i] == '\n') {
-                newlinePos = i;
-                break;
-            }
-        }
-
-        if (newlinePos <= 0 || newlinePos >= 1000 || content[0] != '{') {
-            // No metadata header present, return the file as-is
-            return source;
+    // performedBy null means the current user
+    private String buildMetadataJson(String performedBy) {
+        if (performedBy == null) {
+            User user = authenticatedUserService.getCurrentUser();
+            performedBy = user.getFirstName() + " " + user.getLastName();
         }
-
-        File cleanFile = File.createTempFile("restore_clean_", ".dump");
-        try (OutputStream out = new FileOutputStream(cleanFile)) {
-            out.write(content, newlinePos + 1, content.length - newlinePos - 1);
-        }
-        return cleanFile;
+        return String.format(
+                "{\"backupTimestamp\":\"%s\",\"performedBy\":\"%s\",\"databaseName\":\"%s\",\"format\":\"%s\"}",
+                Instant.now().toString(), performedBy, dbName, directoryFormat ? "directory" : "custom");
     }
 
     // ---- Helpers ----
@@ -807,7 +1020,7 @@ public class DatabaseBackupService {
     private String wrapProcessError(IOException e, String toolName) {
         String message = e.getMessage();
         if (message != null && (message.contains("No such file") || message.contains("Cannot run program"))) {
-            if (toolName.equals("pg_dump") && useDocker) {
+            if (useDocker) {
                 return "Docker is not available or the container '" + dockerContainer
                         + "' is not running. Ensure Docker is installed and the container is running.";
             }
@@ -818,6 +1031,31 @@ public class DatabaseBackupService {
         return "Failed to execute " + toolName + ": " + message;
     }
 
+    private String newContainerWorkDir(String prefix) {
+        return "/tmp/" + prefix + UUID.randomUUID();
+    }
+
+    private void removeContainerDir(String containerDir) {
+        try {
+            runToCompletion(dockerExec(false, "rm", "-rf", containerDir), null, 0, "rm", "Cleanup", false, new BackupProgress());
+        } catch (RuntimeException e) {
+            log.warn("Failed to remove {} from container {}: {}", containerDir, dockerContainer, e.getMessage());
+        }
+    }
+
+    private void deleteDirectory(Path dir) {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up temporary directory: {}", dir.toAbsolutePath(), e);
+        }
+    }
+
     private void cleanupTempFile(File file) {
         if (file != null && file.exists()) {
             try {
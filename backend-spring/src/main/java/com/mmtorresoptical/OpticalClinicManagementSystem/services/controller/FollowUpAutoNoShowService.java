@@ -1,42 +1,109 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.services.controller;
 
-import com.mmtorresoptical.OpticalClinicManagementSystem.enums.FollowUpStatus;
-import com.mmtorresoptical.OpticalClinicManagementSystem.model.PatientFollowUp;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.PatientFollowUpRepository;
-import com.mmtorresoptical.OpticalClinicManagementSystem.services.CustomUserDetailsService;
-import lombok.RequiredArgsConstructor;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.SchedulerLockService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
+/**
+ * Marks PENDING follow-ups whose scheduled date has passed as NO_SHOW.
+ *
+ * With {@code chunk-size} 0 this is a single UPDATE. A positive chunk size updates that many rows
+ * per short transaction and logs each chunk's follow-up ids, which keeps lock time low and leaves
+ * an audit trail after a long closure. Either way only one backend instance runs it at a time.
+ */
 @Service
-@RequiredArgsConstructor
 public class FollowUpAutoNoShowService {
 
     private static final Logger log = LoggerFactory.getLogger(FollowUpAutoNoShowService.class);
+
+    private static final String LOCK_NAME = "follow-up-auto-no-show";
+
     private final PatientFollowUpRepository followUpRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration lockAtMost;
+
+    public FollowUpAutoNoShowService(
+            PatientFollowUpRepository followUpRepository,
+            SchedulerLockService schedulerLockService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.follow-ups.auto-no-show.chunk-size:0}") int chunkSize,
+            @Value("${app.follow-ups.auto-no-show.lock-at-most:PT30M}") Duration lockAtMost) {
+        this.followUpRepository = followUpRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(0, chunkSize);
+        this.lockAtMost = lockAtMost;
+    }
+
+    public record Result(int affected, int chunks, long durationMs) {}
 
     @Scheduled(cron = "0 0 1 * * ?")
-    @Transactional
     public void autoMarkNoShow() {
-        List<PatientFollowUp> staleFollowUps = followUpRepository.findStalePendingFollowUps(LocalDate.now());
+        schedulerLockService.runExclusively(LOCK_NAME, lockAtMost, () -> markStaleAsNoShow(LocalDate.now()));
+    }
 
-        if (staleFollowUps.isEmpty()) {
-            return;
-        }
+    /**
+     * Marks follow-ups scheduled before {@code cutoffDate}. Safe to re-run: rows already
+     * marked no longer match.
+     */
+    public Result markStaleAsNoShow(LocalDate cutoffDate) {
+        long startedAt = System.currentTimeMillis();
+        int affected = 0;
+        int chunks = 0;
 
-        log.info("Found {} stale PENDING follow-ups to mark as NO_SHOW", staleFollowUps.size());
+        if (chunkSize == 0) {
+            Integer updated = transactionTemplate.execute(status -> followUpRepository.markStalePendingAsNoShow(cutoffDate));
+            affected = updated != null ? updated : 0;
+            chunks = 1;
+        } else {
+            while (true) {
+                List<Object[]> marked = transactionTemplate.execute(status ->
+                        followUpRepository.markStalePendingAsNoShowChunk(cutoffDate, chunkSize));
+                if (marked == null || marked.isEmpty()) {
+                    break;
+                }
+                chunks++;
+                affected += marked.size();
+                logChunk(chunks, marked);
 
-        for (PatientFollowUp fu : staleFollowUps) {
-            fu.setStatus(FollowUpStatus.NO_SHOW);
-            followUpRepository.save(fu);
+                if (marked.size() < chunkSize) {
+                    break;
+                }
+            }
         }
 
-        log.info("Successfully marked {} follow-ups as NO_SHOW", staleFollowUps.size());
+        Result result = new Result(affected, chunks, System.currentTimeMillis() - startedAt);
+        if (affected > 0) {
+            eventPublisher.publishEvent(DashboardMetricsChangedEvent.patients());
+            log.info("Marked {} stale PENDING follow-up(s) as NO_SHOW in {} chunk(s), {} ms",
+                    result.affected(), result.chunks(), result.durationMs());
+        } else {
+            log.debug("No stale PENDING follow-ups to mark as NO_SHOW ({} ms)", result.durationMs());
+        }
+        return result;
+    }
+
+    // [followUpId, patientId, scheduledDate]
+    private void logChunk(int chunk, List<Object[]> marked) {
+        log.info("Auto no-show chunk {}: {} follow-up(s)", chunk, marked.size());
+        for (Object[] row : marked) {
+            log.info("Auto no-show: follow-up {} (patient {}, scheduled {})", row[0], row[1], row[2]);
+        }
     }
 }
@@ -21,11 +21,14 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.repository.TransactionR
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.EyeExamRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.security.HmacHashService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.resources.PatientAuditHelper;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.PatientSearchIndexService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.specification.PatientSpecification;
 import com.mmtorresoptical.OpticalClinicManagementSystem.utils.NameUtils;
 import com.mmtorresoptical.OpticalClinicManagementSystem.utils.UUIDUtils;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -47,6 +50,8 @@ public class PatientService {
     private final PrescriptionRepository prescriptionRepository;
     private final PatientFollowUpRepository patientFollowUpRepository;
     private final EyeExamRepository eyeExamRepository;
+    private final PatientSearchIndexService patientSearchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PatientResponseDTO createPatient(PatientRequestDTO patientRequest) {
         if(patientExistsByFirstMiddleLastName(patientRequest.getFirstName(), patientRequest.getMiddleName(), patientRequest.getLastName())) {
@@ -103,9 +108,11 @@ public class PatientService {
 
         // Persist patient record
         Patient savedPatient = patientRepository.save(patient);
+        patientSearchIndexService.reindex(savedPatient);
 
         // Audit Logging
         patientAuditHelper.logCreate(savedPatient);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.patients());
 
         // Map entity to response DTO and return
         return patientMapper.entityToResponse(savedPatient);
@@ -128,8 +135,10 @@ public class PatientService {
             spec = spec.and(
                     PatientSpecification.hasId(id)
             );
-        } else if (keyword != null && !keyword.isEmpty()) {
-            spec = spec.and(PatientSpecification.nameContains(keyword));
+        } else if (keyword != null && !keyword.isBlank()) {
+            spec = spec.and(patientSearchIndexService.isShortKeyword(keyword)
+                    ? PatientSpecification.nameContains(keyword.strip())
+                    : PatientSpecification.hasAllSearchTokens(patientSearchIndexService.nameQueryTokens(keyword)));
         }
 
         spec = spec.and(
@@ -156,8 +165,8 @@ public class PatientService {
         // Retrieve non-archived patients
         Page<Patient> retrievedPatients = patientRepository.findAll(spec, pageable);
 
-        // Map entities to detailed DTO responses and return
-        return retrievedPatients.map(patientMapper::entityToDetailedResponse);
+        // Map entities to list DTO responses (address and medical history stay encrypted)
+        return retrievedPatients.map(patientMapper::entityToListResponse);
     }
 
     public PatientDetailsDTO getPatientById(UUID id) {
@@ -222,6 +231,7 @@ public class PatientService {
         patientMapper.updatePatientFromDto(patientRequest, retrievedPatient);
 
         Patient updatedPatient = patientRepository.save(retrievedPatient);
+        patientSearchIndexService.reindex(updatedPatient);
 
         // Audit Logging
         patientAuditHelper.logUpdate(beforeUpdate, updatedPatient);
@@ -242,6 +252,7 @@ public class PatientService {
 
         // Audit Logging
         patientAuditHelper.logArchive(retrievedPatient);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.patients());
     }
 
     public void restorePatient(UUID id) {
@@ -257,6 +268,7 @@ public class PatientService {
 
         // Audit Logging
         patientAuditHelper.logRestore(retrievedPatient);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.patients());
     }
 
     /**
@@ -322,13 +334,15 @@ public class PatientService {
         if (keyword != null && !keyword.isBlank()) {
             if (UUIDUtils.isUUID(keyword)) {
                 spec = spec.and(PatientSpecification.hasId(UUID.fromString(keyword)));
+            } else if (patientSearchIndexService.isShortKeyword(keyword)) {
+                spec = spec.and(PatientSpecification.nameContains(keyword.strip()));
             } else {
-                spec = spec.and(
-                        Specification.anyOf(
-                                PatientSpecification.nameContains(keyword),
-                                PatientSpecification.contactNumberContains(keyword)
-                        )
-                );
+                // Blind-index lookup: name word prefixes, or a contact-number prefix
+                Specification<Patient> byName = PatientSpecification.hasAllSearchTokens(
+                        patientSearchIndexService.nameQueryTokens(keyword));
+                Specification<Patient> byPhone = PatientSpecification.hasAllSearchTokens(
+                        patientSearchIndexService.phoneQueryToken(keyword).map(List::of).orElse(List.of()));
+                spec = spec.and(Specification.anyOf(byName, byPhone));
             }
         }
 
@@ -14,15 +14,16 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.model.TransactionItemBa
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductBatchRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.TransactionItemBatchAllocationRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,9 +32,14 @@ public class ProductBatchService {
     private final ProductBatchRepository productBatchRepository;
     private final TransactionItemBatchAllocationRepository allocationRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public record BatchAllocation(Long productBatchId, int quantity) {}
 
+    public record AllocationLine(UUID productId, int quantity) {}
+
+    public record ItemAllocation(TransactionItem item, List<BatchAllocation> allocations) {}
+
     @Transactional
     public ProductBatch addStock(UUID productId, AddStockRequestDTO request) {
         Product product = productRepository.findById(productId)
@@ -53,7 +59,8 @@ public class ProductBatchService {
         batch.setReceivedDate(LocalDate.now());
 
         productBatchRepository.save(batch);
-        syncProductQuantity(productId);
+        adjustProductQuantity(product, countsTowardStock(batch) ? request.getQuantity() : 0);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
 
         return batch;
     }
@@ -65,55 +72,112 @@ public class ProductBatchService {
 
         boolean isPerishable = product.getCategory().getIsPerishable();
 
+        int delta;
         if (request.getProductBatchId() != null) {
-            removeFromSpecificBatch(request.getProductBatchId(), request.getQuantity());
+            delta = removeFromSpecificBatch(request.getProductBatchId(), request.getQuantity());
         } else if (isPerishable) {
             throw new IllegalArgumentException("Batch selection is required for perishable products");
         } else {
-            removeFifo(productId, request.getQuantity());
+            delta = removeFifo(productId, request.getQuantity());
         }
 
-        syncProductQuantity(productId);
+        adjustProductQuantity(product, delta);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
     }
 
-    public List<BatchAllocation> allocateFefo(UUID productId, int quantity) {
-        List<ProductBatch> batches = productBatchRepository.findActiveBatchesFefo(productId);
-        List<BatchAllocation> allocations = new ArrayList<>();
-        int remaining = quantity;
+    /**
+     * FEFO-allocates every line of a checkout against a single load of the products' active batches.
+     * The batches stay row-locked until the checkout commits, so the planned quantities cannot be
+     * claimed by a concurrent sale in between. Lines for the same product draw from one running
+     * balance, in request order.
+     * Returns one allocation list per line, in the same order as {@code lines}.
+     */
+    public List<List<BatchAllocation>> allocateFefo(List<AllocationLine> lines) {
+        Set<UUID> productIds = lines.stream()
+                .map(AllocationLine::productId)
+                .collect(Collectors.toSet());
+
+        Map<UUID, List<ProductBatch>> batchesByProduct = productBatchRepository
+                .lockActiveBatchesFefoForProducts(productIds)
+                .stream()
+                .collect(Collectors.groupingBy(b -> b.getProduct().getProductId(), LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, Integer> remainingByBatch = new HashMap<>();
+        List<List<BatchAllocation>> result = new ArrayList<>(lines.size());
+
+        for (AllocationLine line : lines) {
+            List<BatchAllocation> allocations = new ArrayList<>();
+            int remaining = line.quantity();
+
+            for (ProductBatch batch : batchesByProduct.getOrDefault(line.productId(), List.of())) {
+                if (remaining <= 0) break;
+                int available = remainingByBatch.getOrDefault(batch.getProductBatchId(), batch.getQuantityRemaining());
+                if (available <= 0) continue;
+                int take = Math.min(remaining, available);
+                allocations.add(new BatchAllocation(batch.getProductBatchId(), take));
+                remainingByBatch.put(batch.getProductBatchId(), available - take);
+                remaining -= take;
+            }
 
-        for (ProductBatch batch : batches) {
-            if (remaining <= 0) break;
-            int take = Math.min(remaining, batch.getQuantityRemaining());
-            allocations.add(new BatchAllocation(batch.getProductBatchId(), take));
-            remaining -= take;
-        }
+            if (remaining > 0) {
+                throw new InsufficientStockException(
+                        "Not enough stock. Requested: " + line.quantity() + ", available: " + (line.quantity() - remaining));
+            }
 
-        if (remaining > 0) {
-            throw new InsufficientStockException(
-                    "Not enough stock. Requested: " + quantity + ", available: " + (quantity - remaining));
+            result.add(allocations);
         }
 
-        return allocations;
+        return result;
     }
 
+    /**
+     * Applies planned allocations for persisted transaction items.
+     * Batches are loaded in one query and their deductions are flushed as a single JDBC batch
+     * (see {@code hibernate.jdbc.batch_size}); each affected product then gets one quantity delta.
+     */
     @Transactional
-    public void commitAllocation(TransactionItem item, List<BatchAllocation> allocations) {
-        for (BatchAllocation alloc : allocations) {
-            ProductBatch batch = productBatchRepository.findById(alloc.productBatchId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Batch not found: " + alloc.productBatchId()));
-
-            batch.setQuantityRemaining(batch.getQuantityRemaining() - alloc.quantity());
-            productBatchRepository.save(batch);
+    public void commitAllocations(List<ItemAllocation> itemAllocations) {
+        if (itemAllocations.isEmpty()) {
+            return;
+        }
 
-            TransactionItemBatchAllocation record = new TransactionItemBatchAllocation();
-            record.setTransactionItem(item);
-            record.setProductBatch(batch);
-            record.setQuantityDeducted(alloc.quantity());
-            allocationRepository.save(record);
-            item.getBatchAllocations().add(record);
+        Set<Long> batchIds = itemAllocations.stream()
+                .flatMap(ia -> ia.allocations().stream())
+                .map(BatchAllocation::productBatchId)
+                .collect(Collectors.toSet());
+
+        Map<Long, ProductBatch> batchesById = productBatchRepository.findAllById(batchIds)
+                .stream()
+                .collect(Collectors.toMap(ProductBatch::getProductBatchId, b -> b));
+
+        List<TransactionItemBatchAllocation> records = new ArrayList<>();
+        Map<UUID, Product> products = new LinkedHashMap<>();
+        Map<UUID, Integer> deltas = new HashMap<>();
+
+        for (ItemAllocation itemAllocation : itemAllocations) {
+            TransactionItem item = itemAllocation.item();
+
+            for (BatchAllocation alloc : itemAllocation.allocations()) {
+                ProductBatch batch = batchesById.get(alloc.productBatchId());
+                if (batch == null) {
+                    throw new ResourceNotFoundException("Batch not found: " + alloc.productBatchId());
+                }
+
+                batch.setQuantityRemaining(batch.getQuantityRemaining() - alloc.quantity());
+                products.putIfAbsent(item.getProduct().getProductId(), item.getProduct());
+                deltas.merge(item.getProduct().getProductId(), -alloc.quantity(), Integer::sum);
+
+                TransactionItemBatchAllocation record = new TransactionItemBatchAllocation();
+                record.setTransactionItem(item);
+                record.setProductBatch(batch);
+                record.setQuantityDeducted(alloc.quantity());
+                records.add(record);
+                item.getBatchAllocations().add(record);
+            }
         }
 
-        syncProductQuantity(item.getProduct().getProductId());
+        allocationRepository.saveAll(records);
+        products.forEach((productId, product) -> adjustProductQuantity(product, deltas.get(productId)));
     }
 
     @Transactional
@@ -121,13 +185,17 @@ public class ProductBatchService {
         List<TransactionItemBatchAllocation> allocations =
                 allocationRepository.findByTransactionItemId(item.getTransactionItemId());
 
+        int delta = 0;
         for (TransactionItemBatchAllocation alloc : allocations) {
             ProductBatch batch = alloc.getProductBatch();
             batch.setQuantityRemaining(batch.getQuantityRemaining() + alloc.getQuantityDeducted());
             productBatchRepository.save(batch);
+            if (countsTowardStock(batch)) {
+                delta += alloc.getQuantityDeducted();
+            }
         }
 
-        syncProductQuantity(item.getProduct().getProductId());
+        adjustProductQuantity(item.getProduct(), delta);
     }
 
     @Transactional
@@ -136,6 +204,7 @@ public class ProductBatchService {
                 allocationRepository.findByTransactionItemId(item.getTransactionItemId());
 
         int remaining = refundQuantity;
+        int delta = 0;
 
         for (TransactionItemBatchAllocation alloc : allocations) {
             if (remaining <= 0) break;
@@ -147,6 +216,9 @@ public class ProductBatchService {
                 batch.setQuantityDamaged(batch.getQuantityDamaged() + canRestore);
             } else {
                 batch.setQuantityRemaining(batch.getQuantityRemaining() + canRestore);
+                if (countsTowardStock(batch)) {
+                    delta += canRestore;
+                }
             }
 
             alloc.setQuantityDeducted(alloc.getQuantityDeducted() - canRestore);
@@ -156,11 +228,12 @@ public class ProductBatchService {
             remaining -= canRestore;
         }
 
-        syncProductQuantity(item.getProduct().getProductId());
+        adjustProductQuantity(item.getProduct(), delta);
     }
 
     @Transactional
     public void restoreForRefundToBatch(TransactionItem item, List<RefundBatchAllocationDTO> batchTargets, boolean isDamaged) {
+        int delta = 0;
         for (RefundBatchAllocationDTO target : batchTargets) {
             if (target.getQuantityToRestore() == null || target.getQuantityToRestore() <= 0) continue;
 
@@ -187,6 +260,9 @@ public class ProductBatchService {
                 batch.setQuantityDamaged(batch.getQuantityDamaged() + target.getQuantityToRestore());
             } else {
                 batch.setQuantityRemaining(batch.getQuantityRemaining() + target.getQuantityToRestore());
+                if (countsTowardStock(batch)) {
+                    delta += target.getQuantityToRestore();
+                }
             }
 
             alloc.setQuantityDeducted(alloc.getQuantityDeducted() - target.getQuantityToRestore());
@@ -194,7 +270,7 @@ public class ProductBatchService {
             allocationRepository.save(alloc);
         }
 
-        syncProductQuantity(item.getProduct().getProductId());
+        adjustProductQuantity(item.getProduct(), delta);
     }
 
     public BatchBreakdownResponse getBatchBreakdown(UUID productId) {
@@ -249,8 +325,8 @@ public class ProductBatchService {
                 .toList();
     }
 
-    private void removeFromSpecificBatch(Long batchId, int quantity) {
-        ProductBatch batch = productBatchRepository.findById(batchId)
+    private int removeFromSpecificBatch(Long batchId, int quantity) {
+        ProductBatch batch = productBatchRepository.lockById(batchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Batch not found: " + batchId));
 
         if (batch.getQuantityRemaining() < quantity) {
@@ -261,10 +337,12 @@ public class ProductBatchService {
 
         batch.setQuantityRemaining(batch.getQuantityRemaining() - quantity);
         productBatchRepository.save(batch);
+
+        return countsTowardStock(batch) ? -quantity : 0;
     }
 
-    private void removeFifo(UUID productId, int quantity) {
-        List<ProductBatch> batches = productBatchRepository.findActiveBatchesFefo(productId);
+    private int removeFifo(UUID productId, int quantity) {
+        List<ProductBatch> batches = productBatchRepository.lockActiveBatchesFefoForProducts(List.of(productId));
         int remaining = quantity;
 
         for (ProductBatch batch : batches) {
@@ -279,14 +357,29 @@ public class ProductBatchService {
             throw new InsufficientStockException(
                     "Not enough stock. Requested: " + quantity + ", available: " + (quantity - remaining));
         }
+
+        // Only active (non-expired) batches are drawn from, so the whole quantity leaves available stock
+        return -quantity;
     }
 
-    public void syncProductQuantity(UUID productId) {
-        int total = productBatchRepository.sumAvailableQuantity(productId);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found: " + productId));
-        product.setQuantity(total);
-        productRepository.save(product);
+    /**
+     * Applies a stock delta to {@code products.quantity} with a single atomic
+     * {@code UPDATE ... SET quantity = quantity + :delta}, instead of re-summing every batch.
+     * The in-memory value is kept in step for callers that read it later in the same transaction;
+     * {@code quantity} is not updatable through the entity, so this never overwrites concurrent deltas.
+     * Batch expiry is not a write, so it is picked up by {@code ProductStockReconciliationService}.
+     */
+    private void adjustProductQuantity(Product product, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        productRepository.adjustQuantity(product.getProductId(), delta);
+        product.setQuantity(product.getQuantity() + delta);
+    }
+
+    // Mirrors the expiry filter of sumAvailableQuantity: expired batches are not part of products.quantity
+    private boolean countsTowardStock(ProductBatch batch) {
+        return batch.getExpiryDate() == null || !batch.getExpiryDate().isBefore(LocalDate.now());
     }
 
     private String generateBatchNumber(UUID productId, boolean isPerishable) {
@@ -20,14 +20,18 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.repository.CategoryRepo
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.SupplierRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.AuthenticatedUserService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.ProductSalesVelocityService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.ProductStockReconciliationService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.analytics.InventoryAnalyticsService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.resources.ProductAuditHelper;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.FileStorageService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.JSONService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
 import com.mmtorresoptical.OpticalClinicManagementSystem.specification.ProductSpecification;
 import com.mmtorresoptical.OpticalClinicManagementSystem.utils.UUIDUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -56,6 +60,8 @@ public class ProductService {
     private final SupplierService supplierService;
     private final SupplierRepository supplierRepository;
     private final ProductBatchService productBatchService;
+    private final ProductStockReconciliationService productStockReconciliationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProductResponseDTO createProduct(CreateProductRequestDTO productRequest, MultipartFile image) {
@@ -85,6 +91,7 @@ public class ProductService {
 
         // Audit Logging
         productAuditHelper.logCreate(product);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
 
         return productMapper.entityToResponseDTO(product);
     }
@@ -131,7 +138,7 @@ public class ProductService {
             direction = Sort.Direction.DESC;
         }
 
-        // Fuzzy search path — Levenshtein-based matching when keyword is present
+        // Fuzzy search path — trigram-indexed matching when keyword is present
         if (keyword != null && !keyword.isBlank()) {
             Boolean mappedArchivedStatus;
             if ("ARCHIVED".equalsIgnoreCase(archivedStatus)) {
@@ -149,7 +156,6 @@ public class ProductService {
 
             Page<Product> products = productRepository.fuzzySearchProducts(
                     keyword,
-                    3,
                     categoryId,
                     supplierId,
                     effectiveProductType,
@@ -159,6 +165,7 @@ public class ProductService {
                     maxQty,
                     mappedArchivedStatus,
                     effectiveStockStatus,
+                    ProductSalesVelocityService.windowStart(),
                     pageable
             );
 
@@ -216,13 +223,19 @@ public class ProductService {
         Product retrievedProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
-        productBatchService.syncProductQuantity(id);
-
         ProductDetailsDTO dto = productMapper.entityToDetailsDTO(retrievedProduct);
+        // Show batches that expired since the last stock write as gone; the stored counter is
+        // corrected by the scheduled reconciliation, not by this read
+        dto.setQuantity(productStockReconciliationService.availableQuantity(id));
         inventoryAnalyticsService.enrichWithReorderPoints(List.of(dto));
         return dto;
     }
 
+    public ProductDetailsDTO reconcileStock(UUID id) {
+        productStockReconciliationService.reconcileProduct(id);
+        return getProduct(id);
+    }
+
     public ProductDetailsDTO updateProduct(UUID id, UpdateProductRequestDTO updateProductRequestDTO, MultipartFile image) {
         // Retrieve prescription or throw exception if not found
         Product retrievedProduct = productRepository.findById(id)
@@ -258,6 +271,7 @@ public class ProductService {
 
         // Audit Logging
         productAuditHelper.logUpdate(beforeUpdate, updatedProduct);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
 
         ProductDetailsDTO dto = productMapper.entityToDetailsDTO(updatedProduct);
         inventoryAnalyticsService.enrichWithReorderPoints(List.of(dto));
@@ -275,6 +289,7 @@ public class ProductService {
 
         // Audit Logging
         productAuditHelper.logArchive(retrievedProduct);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
     }
 
     @Transactional
@@ -329,6 +344,7 @@ public class ProductService {
 
         // Audit Logging
         productAuditHelper.logRestore(retrievedProduct);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.stock());
     }
 
     public List<ProductSummaryDTO> getProductSummaries(String keyword, UUID categoryId) {
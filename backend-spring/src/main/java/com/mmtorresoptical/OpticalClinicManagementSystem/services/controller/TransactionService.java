@@ -7,6 +7,7 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.dto.payment.PaymentResp
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.refund.ItemRefundResponseDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.refund.RefundTransactionRequestDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transaction.*;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transactionitem.TransactionItemsRequestDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.refund.RefundBatchAllocationDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.refund.RefundItemDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.FulfillmentStatus;
@@ -23,13 +24,19 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.mapper.TransactionMappe
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.*;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.*;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.AuthenticatedUserService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.DailyRevenueLedgerService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.ProductSalesVelocityService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.AuditLogService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.auditlog.resources.TransactionAuditHelper;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.ConcurrencyRetryExecutor;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.DocumentNumberSequencer;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.JSONService;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.helper.VisitManagerService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics.DashboardMetricsChangedEvent;
 import com.mmtorresoptical.OpticalClinicManagementSystem.specification.TransactionSpecification;
 import com.mmtorresoptical.OpticalClinicManagementSystem.utils.UUIDUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.data.jpa.domain.Specification;
@@ -37,16 +44,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.AgingReceivableDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.AgingReceivableRow;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -70,9 +79,34 @@ public class TransactionService {
     private final VisitManagerService visitManagerService;
     private final ProductBatchService productBatchService;
     private final ProductBatchRepository productBatchRepository;
-
-    @Transactional
+    private final DocumentNumberSequencer documentNumberSequencer;
+    private final ConcurrencyRetryExecutor concurrencyRetryExecutor;
+    private final ProductSalesVelocityService productSalesVelocityService;
+    private final DailyRevenueLedgerService dailyRevenueLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Checkout entry point. Runs in its own transaction and is retried with backoff when it
+     * collides with another sale, void or refund touching the same batches or products.
+     * The transaction number is reserved first, outside that transaction, so a checkout never
+     * holds two pooled connections and a retry keeps the same number. Checks that need only the
+     * request run before that; a checkout rejected later (stock, deposit) leaves a gap in the day's
+     * numbering, which is accepted — numbers are unique and increasing, not contiguous.
+     */
     public TransactionResponseDTO createTransaction(TransactionRequestDTO transactionRequestDTO) {
+        if (transactionRequestDTO.getItems() == null || transactionRequestDTO.getItems().isEmpty()) {
+            throw new BadRequestException("At least one item is required to create a transaction.");
+        }
+        if (transactionRequestDTO.getAmountTendered() == null
+                || transactionRequestDTO.getAmountTendered().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BadRequestException("At least a deposit payment is required to create a transaction.");
+        }
+
+        String transactionNumber = documentNumberSequencer.nextTransactionNumber();
+        return concurrencyRetryExecutor.inTransaction(() -> doCreateTransaction(transactionRequestDTO, transactionNumber));
+    }
+
+    private TransactionResponseDTO doCreateTransaction(TransactionRequestDTO transactionRequestDTO, String transactionNumber) {
         User authenticatedUser = authenticatedUserService.getCurrentUser();
 
         Patient patient = null;
@@ -114,15 +148,25 @@ public class TransactionService {
         boolean hasSeniorPwd = transactionRequestDTO.getSeniorPwdName() != null
                 && !transactionRequestDTO.getSeniorPwdName().isBlank();
 
-        // Track FEFO batch allocations per transaction item (committed after flush)
-        record PendingAllocation(TransactionItem item, List<ProductBatchService.BatchAllocation> allocations) {}
-        List<PendingAllocation> pendingAllocations = new ArrayList<>();
+        // Load every product on the order in one query
+        Map<UUID, Product> productsById = productRepository.findAllById(
+                        transactionRequestDTO.getItems().stream()
+                                .map(TransactionItemsRequestDTO::getProductId)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getProductId, p -> p));
+
+        // PHYSICAL lines that need FEFO batch allocation (committed after flush)
+        List<TransactionItem> allocatedItems = new ArrayList<>();
+        List<ProductBatchService.AllocationLine> allocationLines = new ArrayList<>();
 
         List<TransactionItem> transactionItems = new ArrayList<>();
         for (var dto : transactionRequestDTO.getItems()) {
 
-                    Product retrievedProduct = productRepository.findById(dto.getProductId())
-                            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + dto.getProductId()));
+                    Product retrievedProduct = productsById.get(dto.getProductId());
+                    if (retrievedProduct == null) {
+                        throw new ResourceNotFoundException("Product not found with id: " + dto.getProductId());
+                    }
 
                     if (Boolean.TRUE.equals(retrievedProduct.getIsArchived())) {
                         throw new BadRequestException(
@@ -130,12 +174,6 @@ public class TransactionService {
                         );
                     }
 
-                    // FEFO allocation check for PHYSICAL products (commit happens after flush)
-                    List<ProductBatchService.BatchAllocation> allocations = null;
-                    if (retrievedProduct.getProductType() == ProductType.PHYSICAL) {
-                        allocations = productBatchService.allocateFefo(retrievedProduct.getProductId(), dto.getQuantity());
-                    }
-
                     TransactionItem transactionItem = transactionItemMapper.requestDTOtoEntity(dto);
 
                     transactionItem.setProduct(retrievedProduct);
@@ -193,11 +231,17 @@ public class TransactionService {
                     transactionItem.setSeniorPwdDiscountAmount(seniorPwdAmountForItem);
 
                     transactionItems.add(transactionItem);
-                    if (allocations != null) {
-                        pendingAllocations.add(new PendingAllocation(transactionItem, allocations));
+                    if (retrievedProduct.getProductType() == ProductType.PHYSICAL) {
+                        allocatedItems.add(transactionItem);
+                        allocationLines.add(new ProductBatchService.AllocationLine(
+                                retrievedProduct.getProductId(), dto.getQuantity()));
                     }
                 }
 
+        // FEFO allocation check for all PHYSICAL lines against one load of their active batches
+        List<List<ProductBatchService.BatchAllocation>> plannedAllocations =
+                allocationLines.isEmpty() ? List.of() : productBatchService.allocateFefo(allocationLines);
+
         BigDecimal total = transactionItems
                 .stream()
                 .map(TransactionItem::getSubtotal)
@@ -205,7 +249,7 @@ public class TransactionService {
 
         transaction.setTotalAmount(total);
         transaction.setTransactionItems(transactionItems);
-        transaction.setTransactionNumber(generateTransactionNumber());
+        transaction.setTransactionNumber(transactionNumber);
 
         // Persist Senior/PWD identification metadata
         if (hasSeniorPwd) {
@@ -216,13 +260,8 @@ public class TransactionService {
             transaction.setIsSeniorPwdApplied(true);
         }
 
+        // Checked to be positive in createTransaction
         BigDecimal amountTendered = transactionRequestDTO.getAmountTendered();
-        if (amountTendered == null) {
-            amountTendered = BigDecimal.ZERO;
-        }
-        if (amountTendered.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new BadRequestException("At least a deposit payment is required to create a transaction.");
-        }
 
         BigDecimal minDeposit = total.multiply(new BigDecimal("0.50")).setScale(2, RoundingMode.HALF_UP);
         if (amountTendered.compareTo(total) < 0 && amountTendered.compareTo(minDeposit) < 0) {
@@ -250,9 +289,13 @@ public class TransactionService {
         Transaction savedTransaction = transactionRepository.saveAndFlush(transaction);
 
         // Commit FEFO batch allocations now that transaction items have IDs
-        for (PendingAllocation pending : pendingAllocations) {
-            productBatchService.commitAllocation(pending.item(), pending.allocations());
+        List<ProductBatchService.ItemAllocation> itemAllocations = new ArrayList<>();
+        for (int i = 0; i < allocatedItems.size(); i++) {
+            itemAllocations.add(new ProductBatchService.ItemAllocation(allocatedItems.get(i), plannedAllocations.get(i)));
         }
+        productBatchService.commitAllocations(itemAllocations);
+        productSalesVelocityService.recordSale(savedTransaction);
+        dailyRevenueLedgerService.recordNew(savedTransaction);
 
         // Create initial payment record if money was tendered
         if (amountTendered.compareTo(BigDecimal.ZERO) > 0) {
@@ -271,6 +314,7 @@ public class TransactionService {
 
         // Audit Logging
         transactionAuditHelper.logCreate(savedTransaction);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.transactions());
 
         if (patient != null) {
             visitManagerService.linkToLatestOrCreateVisit(patient, "Transaction");
@@ -316,12 +360,15 @@ public class TransactionService {
         payment.setReferenceNumber(request.getReferenceNumber());
         paymentRepository.save(payment);
 
+        DailyRevenueLedgerService.Position ledgerBefore = dailyRevenueLedgerService.positionOf(transaction);
         BigDecimal newAmountPaid = transaction.getAmountPaid().add(request.getAmount());
         transaction.setAmountPaid(newAmountPaid);
         transaction.setTransactionStatus(computeStatus(transaction.getTotalAmount(), newAmountPaid));
         transactionRepository.save(transaction);
+        dailyRevenueLedgerService.recordChange(transaction, ledgerBefore);
 
         transactionAuditHelper.logPayment(transaction);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.transactions());
 
         PaymentResponseDTO response = new PaymentResponseDTO();
         response.setId(payment.getId());
@@ -375,6 +422,7 @@ public class TransactionService {
         } else {
             transactionAuditHelper.logComplete(saved);
         }
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.transactions());
 
         // Enrich with payments
         TransactionResponseDTO response = enrichWithPayments(transactionMapper.entityToResponseDTO(saved));
@@ -504,77 +552,56 @@ public class TransactionService {
         return dto;
     }
 
-    public List<Transaction> getTransactionsForReport(
+    /**
+     * Streams flat report rows for the date range to the consumer without loading entities.
+     * Runs in its own read-only transaction so the database cursor stays open while rows are consumed.
+     */
+    @Transactional(readOnly = true)
+    public void streamTransactionReportRows(
             LocalDate minDate,
-            LocalDate maxDate
+            LocalDate maxDate,
+            Consumer<Object[]> consumer
     ) {
-        Specification<Transaction> spec = Specification.allOf();
+        LocalDateTime start = minDate != null ? minDate.atStartOfDay() : LocalDateTime.of(2000, 1, 1, 0, 0);
+        LocalDateTime end = maxDate != null ? maxDate.atTime(23, 59, 59) : LocalDateTime.now().plusDays(1);
 
-        if (minDate != null || maxDate != null) {
-            spec = spec.and(
-                    TransactionSpecification.dateBetween(minDate, maxDate)
-            );
+        try (Stream<Object[]> rows = transactionRepository.streamReportRows(start, end)) {
+            rows.forEach(consumer);
         }
-
-        Sort sort = Sort.by(Sort.Direction.DESC, "transactionDate");
-        return transactionRepository.findAll(spec, sort);
     }
 
     public TransactionMetricsDTO getTransactionMetrics() {
 
-        long totalTransactions = transactionRepository.countByTransactionStatusNot(TransactionStatus.VOIDED);
+        // Period figures come from the daily revenue ledger, open-balance figures from live transactions
+        Object[] periods = dailyRevenueLedgerService.summarize(LocalDate.now());
+        Object[] open = transactionRepository.summarizeOpenTransactions().get(0);
 
-        // All-time gross revenue (cash-basis): PAID totalAmount + DEPOSIT amountPaid
-        BigDecimal allTimePaidRevenue = transactionRepository.sumTotalAmountByTransactionStatusAndDateBetween(
-                TransactionStatus.PAID, LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.now().plusDays(1));
-        BigDecimal allTimeDepositRevenue = transactionRepository.sumAmountPaidByTransactionStatusAndDateBetween(
-                TransactionStatus.DEPOSIT, LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.now().plusDays(1));
-        BigDecimal grossRevenue = allTimePaidRevenue.add(allTimeDepositRevenue);
-        BigDecimal totalRefundedAmount = refundReceiptRepository.sumTotalRefundAmount();
-        BigDecimal totalRevenue = grossRevenue.subtract(totalRefundedAmount);
+        long totalTransactions = ((Number) periods[0]).longValue();
+        long todayTransactions = ((Number) periods[3]).longValue();
+        long totalTransactionsThisMonth = ((Number) periods[7]).longValue();
 
-        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
-        LocalDateTime startOfTomorrow = startOfToday.plusDays(1);
+        // Gross revenue is cash-basis: PAID totalAmount + DEPOSIT amountPaid
+        BigDecimal grossRevenue = (BigDecimal) periods[1];
+        BigDecimal todayGrossRevenue = (BigDecimal) periods[4];
+        BigDecimal monthlyGrossRevenue = (BigDecimal) periods[8];
+        BigDecimal todayTotalVoidedAmount = (BigDecimal) periods[6];
 
-        long todayTransactions = transactionRepository.countByTransactionStatusNotAndTransactionDateBetween(TransactionStatus.VOIDED, startOfToday, startOfTomorrow);
+        BigDecimal totalRefundedAmount = (BigDecimal) periods[2];
+        BigDecimal todayTotalRefundedAmount = (BigDecimal) periods[5];
+        BigDecimal totalRefundedAmountThisMonth = (BigDecimal) periods[9];
 
-        // Today's gross revenue (cash-basis): PAID totalAmount + DEPOSIT amountPaid
-        BigDecimal todayPaidRevenue = transactionRepository.sumTotalAmountByTransactionStatusAndDateBetween(
-                TransactionStatus.PAID, startOfToday, startOfTomorrow);
-        BigDecimal todayDepositRevenue = transactionRepository.sumAmountPaidByTransactionStatusAndDateBetween(
-                TransactionStatus.DEPOSIT, startOfToday, startOfTomorrow);
-        BigDecimal todayGrossRevenue = todayPaidRevenue.add(todayDepositRevenue);
-        BigDecimal todayTotalRefundedAmount = refundReceiptRepository.sumRefundAmountByCreatedAtBetween(startOfToday, startOfTomorrow);
+        BigDecimal totalAccountsReceivable = (BigDecimal) open[0];
+        long awaitingPickupCount = ((Number) open[1]).longValue();
+        long depositsPendingCount = ((Number) open[2]).longValue();
+
+        BigDecimal totalRevenue = grossRevenue.subtract(totalRefundedAmount);
         BigDecimal todayRevenue = todayGrossRevenue.subtract(todayTotalRefundedAmount);
+        BigDecimal monthlyNetRevenue = monthlyGrossRevenue.subtract(totalRefundedAmountThisMonth);
 
         BigDecimal averageTransactionValue = totalTransactions > 0
                 ? totalRevenue.divide(BigDecimal.valueOf(totalTransactions), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        LocalDate today = LocalDate.now();
-        LocalDateTime startOfMonth = today.withDayOfMonth(1).atStartOfDay();
-        LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
-
-        long totalTransactionsThisMonth = transactionRepository.countByTransactionStatusNotAndTransactionDateBetween(TransactionStatus.VOIDED, startOfMonth, startOfNextMonth);
-
-        // Monthly gross revenue (cash-basis): PAID totalAmount + DEPOSIT amountPaid
-        BigDecimal monthlyPaidRevenue = transactionRepository.sumTotalAmountByTransactionStatusAndDateBetween(
-                TransactionStatus.PAID, startOfMonth, startOfNextMonth);
-        BigDecimal monthlyDepositRevenue = transactionRepository.sumAmountPaidByTransactionStatusAndDateBetween(
-                TransactionStatus.DEPOSIT, startOfMonth, startOfNextMonth);
-        BigDecimal monthlyGrossRevenue = monthlyPaidRevenue.add(monthlyDepositRevenue);
-
-        BigDecimal totalRefundedAmountThisMonth = refundReceiptRepository.sumRefundAmountByCreatedAtBetween(startOfMonth, startOfNextMonth);
-        BigDecimal monthlyNetRevenue = monthlyGrossRevenue.subtract(totalRefundedAmountThisMonth);
-
-        BigDecimal todayTotalVoidedAmount = transactionRepository.sumVoidedAmountByTransactionDateBetween(startOfToday, startOfTomorrow);
-
-        BigDecimal totalAccountsReceivable = transactionRepository.sumBalanceDueByTransactionStatusPartiallyPaid();
-
-        long awaitingPickupCount = transactionRepository.countByFulfillmentStatus(FulfillmentStatus.FOR_PICKUP);
-
-        long depositsPendingCount = transactionRepository.countByTransactionStatus(TransactionStatus.DEPOSIT);
-
         return TransactionMetricsDTO.builder()
                 .totalTransactions(totalTransactions)
                 .totalRevenue(totalRevenue)
@@ -595,16 +622,6 @@ public class TransactionService {
 
     public List<DailyCashInflowPoint> getDailyCashInflow() {
         YearMonth thisMonth = YearMonth.now();
-        LocalDateTime startOfMonth = thisMonth.atDay(1).atStartOfDay();
-        LocalDateTime startOfNextMonth = thisMonth.plusMonths(1).atDay(1).atStartOfDay();
-
-        // Cash-basis: PAID totalAmount + DEPOSIT amountPaid
-        List<Object[]> paidRows = transactionRepository.sumTotalAmountByStatusGroupedByDay(
-                TransactionStatus.PAID, startOfMonth, startOfNextMonth);
-        List<Object[]> depositRows = transactionRepository.sumAmountPaidByStatusGroupedByDay(
-                TransactionStatus.DEPOSIT, startOfMonth, startOfNextMonth);
-        List<Object[]> refundRows = refundReceiptRepository.sumRefundsGroupedByDay(
-                startOfMonth, startOfNextMonth);
 
         Map<Integer, BigDecimal> dailyMap = new LinkedHashMap<>();
         int daysInMonth = thisMonth.lengthOfMonth();
@@ -612,25 +629,9 @@ public class TransactionService {
             dailyMap.put(d, BigDecimal.ZERO);
         }
 
-        for (Object[] row : paidRows) {
-            java.sql.Date sqlDate = (java.sql.Date) row[0];
-            int day = sqlDate.toLocalDate().getDayOfMonth();
-            BigDecimal gross = (BigDecimal) row[1];
-            dailyMap.merge(day, gross, BigDecimal::add);
-        }
-
-        for (Object[] row : depositRows) {
-            java.sql.Date sqlDate = (java.sql.Date) row[0];
-            int day = sqlDate.toLocalDate().getDayOfMonth();
-            BigDecimal deposit = (BigDecimal) row[1];
-            dailyMap.merge(day, deposit, BigDecimal::add);
-        }
-
-        for (Object[] row : refundRows) {
-            java.sql.Date sqlDate = (java.sql.Date) row[0];
-            int day = sqlDate.toLocalDate().getDayOfMonth();
-            BigDecimal refund = (BigDecimal) row[1];
-            dailyMap.merge(day, refund.negate(), BigDecimal::add);
+        // Cash-basis gross by transaction date, less cash refunded that day
+        for (DailyRevenueLedger day : dailyRevenueLedgerService.findDays(thisMonth.atDay(1), thisMonth.atEndOfMonth())) {
+            dailyMap.put(day.getLedgerDate().getDayOfMonth(), day.getGrossRevenue().subtract(day.getRefundedCash()));
         }
 
         List<DailyCashInflowPoint> result = new ArrayList<>();
@@ -642,31 +643,34 @@ public class TransactionService {
 
     public List<AgingReceivableDTO> getAgingAccountsReceivable() {
         LocalDateTime cutoffDate = LocalDate.now().minusDays(14).atStartOfDay();
-        List<Transaction> transactions = transactionRepository.findAgingAccountsReceivable(cutoffDate);
+        List<AgingReceivableRow> rows = transactionRepository.findAgingAccountsReceivable(cutoffDate);
 
         LocalDate today = LocalDate.now();
-        return transactions.stream().map(t -> {
-            String customerName = t.getPatient() != null
-                    ? t.getPatient().getFirstName() + " " + t.getPatient().getLastName()
+        return rows.stream().map(row -> {
+            String customerName = row.patientFirstName() != null
+                    ? row.patientFirstName() + " " + row.patientLastName()
                     : "Walk-in";
 
-            long daysOutstanding = ChronoUnit.DAYS.between(t.getTransactionDate().toLocalDate(), today);
+            long daysOutstanding = ChronoUnit.DAYS.between(row.transactionDate().toLocalDate(), today);
 
             return AgingReceivableDTO.builder()
-                    .transactionId(t.getTransactionId().toString())
-                    .transactionNumber(t.getTransactionNumber())
-                    .transactionDate(t.getTransactionDate().toLocalDate())
+                    .transactionId(row.transactionId().toString())
+                    .transactionNumber(row.transactionNumber())
+                    .transactionDate(row.transactionDate().toLocalDate())
                     .customerName(customerName)
-                    .totalAmount(t.getTotalAmount())
-                    .amountPaid(t.getAmountPaid())
-                    .balanceDue(t.getBalanceDue())
+                    .totalAmount(row.totalAmount())
+                    .amountPaid(row.amountPaid())
+                    .balanceDue(row.balanceDue())
                     .daysOutstanding(daysOutstanding)
                     .build();
         }).collect(Collectors.toList());
     }
 
-    @Transactional
     public void voidTransaction(UUID transactionId, VoidTransactionRequestDTO voidTransactionRequestDTO) {
+        concurrencyRetryExecutor.inTransaction(() -> doVoidTransaction(transactionId, voidTransactionRequestDTO));
+    }
+
+    private void doVoidTransaction(UUID transactionId, VoidTransactionRequestDTO voidTransactionRequestDTO) {
 
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + transactionId));
@@ -701,24 +705,35 @@ public class TransactionService {
             }
         }
 
+        productSalesVelocityService.recordVoid(transaction);
+
+        DailyRevenueLedgerService.Position ledgerBefore = dailyRevenueLedgerService.positionOf(transaction);
         transaction.setTransactionStatus(TransactionStatus.VOIDED);
         transaction.setFulfillmentStatus(FulfillmentStatus.COMPLETED);
         transaction.setVoidedBy(authenticatedUser);
         transaction.setVoidedAt(LocalDateTime.now());
         transaction.setVoidReason(voidTransactionRequestDTO.getReason());
+        dailyRevenueLedgerService.recordChange(transaction, ledgerBefore);
 
         // Audit Logging
         transactionAuditHelper.logVoid(transaction);
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.transactions());
     }
 
-    @Transactional
-    public ItemRefundResponseDTO refundTransaction(
-            RefundTransactionRequestDTO request
-    ) {
+    // The receipt number is reserved outside the retried transaction, as in createTransaction
+    public ItemRefundResponseDTO refundTransaction(RefundTransactionRequestDTO request) {
         if (request.getItems() == null || request.getItems().isEmpty()) {
             throw new BadRequestException("At least one item is required for refund.");
         }
 
+        String receiptNumber = documentNumberSequencer.nextRefundReceiptNumber();
+        return concurrencyRetryExecutor.inTransaction(() -> doRefundTransaction(request, receiptNumber));
+    }
+
+    private ItemRefundResponseDTO doRefundTransaction(
+            RefundTransactionRequestDTO request,
+            String receiptNumber
+    ) {
         User currentUser = authenticatedUserService.getCurrentUser();
 
         // ── Phase 1: Validate all items, calculate refund amounts, sum totalRefundValue ──
@@ -835,6 +850,7 @@ public class TransactionService {
         }
 
         // ── Phase 2: Order-level accounting — cash-back vs. balance-reduction ──
+        DailyRevenueLedgerService.Position ledgerBefore = dailyRevenueLedgerService.positionOf(transaction);
         BigDecimal originalTotal = transaction.getTotalAmount();
         BigDecimal newOrderTotal = originalTotal.subtract(totalAllRefunded).subtract(actualRefundValue);
         BigDecimal amountPaid = transaction.getAmountPaid();
@@ -891,7 +907,7 @@ public class TransactionService {
 
         // Create the RefundReceipt header
         RefundReceipt receipt = new RefundReceipt();
-        receipt.setReceiptNumber(generateRefundReceiptNumber());
+        receipt.setReceiptNumber(receiptNumber);
         receipt.setTransaction(transaction);
         receipt.setActualCashback(batchActualCashback);
         receipt.setRefundMethod(batchRefundMethod);
@@ -930,6 +946,7 @@ public class TransactionService {
 
             int ar = item.getRefundedQuantity() == null ? 0 : item.getRefundedQuantity();
             item.setRefundedQuantity(ar + refundItem.getQuantityRefunded());
+            productSalesVelocityService.recordRefund(item, refundItem.getQuantityRefunded());
 
             itemSummaries.add(ItemRefundResponseDTO.RefundedItemSummary.builder()
                     .productName(product.getProductName())
@@ -940,6 +957,8 @@ public class TransactionService {
 
         refundReceiptRepository.save(receipt);
         transactionRepository.save(transaction);
+        dailyRevenueLedgerService.recordChange(transaction, ledgerBefore);
+        dailyRevenueLedgerService.recordRefund(receipt);
 
         // ── Audit logging ──
         int itemCount = pendingItems.stream().mapToInt(RefundItem::getQuantityRefunded).sum();
@@ -974,6 +993,7 @@ public class TransactionService {
                 "Refunded " + itemCount + (itemCount == 1 ? " item" : " items"),
                 jsonService.toJson(auditData)
         );
+        eventPublisher.publishEvent(DashboardMetricsChangedEvent.transactions());
 
         // ── Build response ──
         BigDecimal effectiveAmountPaid = amountPaid.subtract(cashToReturn);
@@ -1001,26 +1021,6 @@ public class TransactionService {
                 .build();
     }
 
-    private String generateTransactionNumber() {
-        String prefix = "TXN-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
-        String maxNumber = transactionRepository.findMaxTransactionNumberByPrefix(prefix);
-        if (maxNumber == null) {
-            return prefix + "0001";
-        }
-        int seq = Integer.parseInt(maxNumber.substring(maxNumber.lastIndexOf('-') + 1));
-        return prefix + String.format("%04d", seq + 1);
-    }
-
-    private String generateRefundReceiptNumber() {
-        String prefix = "REF-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
-        String maxNumber = refundReceiptRepository.findMaxReceiptNumberByPrefix(prefix);
-        if (maxNumber == null) {
-            return prefix + "0001";
-        }
-        int seq = Integer.parseInt(maxNumber.substring(maxNumber.lastIndexOf('-') + 1));
-        return prefix + String.format("%04d", seq + 1);
-    }
-
     private void updateTransactionRefundStatus(
             UUID transactionItemId
     ) {
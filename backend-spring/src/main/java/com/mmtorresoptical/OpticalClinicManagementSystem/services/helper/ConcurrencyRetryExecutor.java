@@ -0,0 +1,70 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it from scratch when it loses a
+ * concurrency conflict — an optimistic {@code @Version} mismatch, a lock wait failure or a deadlock.
+ * Used by the stock-deducting transaction flows so two counters selling the same SKU at once
+ * resolve to one winner and one retry instead of an error or negative stock.
+ */
+@Slf4j
+@Component
+public class ConcurrencyRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+
+    public ConcurrencyRetryExecutor(
+            TransactionTemplate transactionTemplate,
+            @Value("${app.concurrency.retry.max-attempts:5}") int maxAttempts,
+            @Value("${app.concurrency.retry.initial-backoff-ms:25}") long initialBackoffMs) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up after {} attempts on concurrent update conflict: {}", attempt, ex.getMessage());
+                    throw ex;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(backoffDelayMs(attempt));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a conflicting update", ie);
+        }
+    }
+
+    // Exponential backoff with jitter so colliding checkouts do not retry in lockstep
+    long backoffDelayMs(int attempt) {
+        long ceiling = initialBackoffMs << (attempt - 1);
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+}
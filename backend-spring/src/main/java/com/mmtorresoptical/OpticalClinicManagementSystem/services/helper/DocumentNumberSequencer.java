@@ -0,0 +1,112 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.DocumentSequenceRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.RefundReceiptRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Hands out per-day document numbers (TXN-yyyyMMdd-0001, REF-yyyyMMdd-0001).
+ *
+ * Numbers come from a counter row in {@code document_sequences} that is advanced with a single
+ * atomic upsert, so concurrent checkouts — including ones on other backend instances — never
+ * receive the same number. With {@code app.sequence.block-size} above 1, each instance reserves
+ * a block of values at a time and serves them from memory; numbers stay unique but may be
+ * out of order across instances, and an unused tail of a block is skipped after a restart.
+ *
+ * Reserving runs in its own (REQUIRES_NEW) transaction. Callers take their number before opening
+ * their own transaction; called from inside one, each caller would hold a second pooled
+ * connection while reserving, and the Hikari pool would need room for two per concurrent checkout.
+ * A number is never handed out twice, but one reserved for a checkout or refund that is then
+ * rejected is not reused, so the day's sequence can have gaps.
+ */
+@Slf4j
+@Service
+public class DocumentNumberSequencer {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final DocumentSequenceRepository sequenceRepository;
+    private final TransactionRepository transactionRepository;
+    private final RefundReceiptRepository refundReceiptRepository;
+    private final int blockSize;
+
+    private final Map<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+
+    public DocumentNumberSequencer(
+            DocumentSequenceRepository sequenceRepository,
+            TransactionRepository transactionRepository,
+            RefundReceiptRepository refundReceiptRepository,
+            @Value("${app.sequence.block-size:1}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.transactionRepository = transactionRepository;
+        this.refundReceiptRepository = refundReceiptRepository;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public String nextTransactionNumber() {
+        return next("TXN", transactionRepository::findMaxTransactionNumberByPrefix);
+    }
+
+    public String nextRefundReceiptNumber() {
+        return next("REF", refundReceiptRepository::findMaxReceiptNumberByPrefix);
+    }
+
+    private String next(String type, Function<String, String> existingMaxLookup) {
+        String prefix = type + "-" + LocalDate.now().format(DAY_FORMAT) + "-";
+
+        if (!blocks.containsKey(prefix)) {
+            // A new day started — drop the previous day's block for this document type
+            blocks.keySet().removeIf(k -> k.startsWith(type + "-") && !k.equals(prefix));
+        }
+        SequenceBlock block = blocks.computeIfAbsent(prefix, key -> new SequenceBlock());
+
+        long value;
+        synchronized (block) {
+            if (block.next > block.last) {
+                long last = reserveBlock(prefix, existingMaxLookup);
+                block.next = last - blockSize + 1;
+                block.last = last;
+            }
+            value = block.next++;
+        }
+
+        return prefix + String.format("%04d", value);
+    }
+
+    /**
+     * Reserves the next block of values and returns its last value.
+     * The existing-number lookup only runs once per prefix, when the day's counter row is first created,
+     * so numbers issued before the counter existed are never reused.
+     */
+    private long reserveBlock(String prefix, Function<String, String> existingMaxLookup) {
+        Long last = sequenceRepository.advance(prefix, blockSize);
+        if (last != null) {
+            return last;
+        }
+
+        long seed = parseSequence(existingMaxLookup.apply(prefix));
+        log.info("Starting document sequence {} after {}", prefix, seed);
+        return sequenceRepository.createOrAdvance(prefix, seed, blockSize);
+    }
+
+    private long parseSequence(String number) {
+        if (number == null) {
+            return 0;
+        }
+        return Long.parseLong(number.substring(number.lastIndexOf('-') + 1));
+    }
+
+    private static class SequenceBlock {
+        private long next = 1;
+        private long last = 0;
+    }
+}
@@ -0,0 +1,172 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Patient;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.PatientSearchToken;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.PatientRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.PatientSearchTokenRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.security.HmacHashService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains the blind index over encrypted patient names and contact numbers.
+ *
+ * Every word of the patient's name and the digits of their contact number are normalized and
+ * expanded into prefixes; each prefix is HMAC'd with a field tag and stored in
+ * {@code patient_search_tokens}. A search keyword goes through the same normalization and hashing,
+ * so a lookup is an equality match on the indexed token column.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientSearchIndexService {
+
+    private static final int MIN_NAME_PREFIX = 2;
+    private static final int MIN_INDEXED_KEYWORD = 3;
+    private static final int MIN_PHONE_PREFIX = 4;
+    private static final int BACKFILL_BATCH_SIZE = 200;
+
+    private final PatientSearchTokenRepository tokenRepository;
+    private final PatientRepository patientRepository;
+    private final HmacHashService hmacHashService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Replaces the patient's tokens with ones derived from their current name and contact number.
+     */
+    @Transactional
+    public void reindex(Patient patient) {
+        tokenRepository.deleteByPatientId(patient.getPatientId());
+
+        Set<String> hashes = new LinkedHashSet<>();
+        for (String word : nameWords(patient.getFirstName() + " "
+                + Optional.ofNullable(patient.getMiddleName()).orElse("") + " "
+                + patient.getLastName())) {
+            for (int len = MIN_NAME_PREFIX; len <= word.length(); len++) {
+                hashes.add(nameToken(word.substring(0, len)));
+            }
+        }
+
+        String digits = phoneDigits(patient.getContactNumber());
+        for (int len = MIN_PHONE_PREFIX; len <= digits.length(); len++) {
+            hashes.add(phoneToken(digits.substring(0, len)));
+        }
+
+        List<PatientSearchToken> tokens = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            tokens.add(new PatientSearchToken(patient.getPatientId(), hash));
+        }
+        tokenRepository.saveAll(tokens);
+    }
+
+    /**
+     * Whether a keyword is too short to search through the index. One- and two-character keywords
+     * are better served by a substring scan of the sortable name, which also matches inside words.
+     */
+    public boolean isShortKeyword(String keyword) {
+        return keyword.strip().length() < MIN_INDEXED_KEYWORD;
+    }
+
+    /**
+     * Token hashes for each word of a name keyword; a patient matches when every one is present.
+     * Words shorter than the minimum indexed prefix are dropped.
+     */
+    public List<String> nameQueryTokens(String keyword) {
+        Set<String> hashes = new LinkedHashSet<>();
+        for (String word : nameWords(keyword)) {
+            if (word.length() >= MIN_NAME_PREFIX) {
+                hashes.add(nameToken(word));
+            }
+        }
+        return new ArrayList<>(hashes);
+    }
+
+    /**
+     * Token hash for a contact-number prefix keyword, if it carries enough digits to be indexed.
+     */
+    public Optional<String> phoneQueryToken(String keyword) {
+        String digits = phoneDigits(keyword);
+        return digits.length() >= MIN_PHONE_PREFIX
+                ? Optional.of(phoneToken(digits))
+                : Optional.empty();
+    }
+
+    /**
+     * Indexes patients that have no tokens yet, e.g. records created before the index existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingTokens() {
+        UUID afterId = new UUID(0L, 0L);
+        int indexed = 0;
+        while (true) {
+            UUID cursor = afterId;
+            List<Patient> batch = transactionTemplate.execute(status -> {
+                List<Patient> patients = patientRepository.findPatientsWithoutSearchTokens(
+                        cursor, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                patients.forEach(this::reindex);
+                return patients;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            indexed += batch.size();
+            afterId = batch.get(batch.size() - 1).getPatientId();
+        }
+        if (indexed > 0) {
+            log.info("Patient search index: backfilled {} patient(s)", indexed);
+        }
+    }
+
+    private String nameToken(String prefix) {
+        return hmacHashService.hash("name:" + prefix);
+    }
+
+    private String phoneToken(String prefix) {
+        return hmacHashService.hash("phone:" + prefix);
+    }
+
+    // Lower-cased, accent-stripped words (so "Peña" and "pena" index the same)
+    static List<String> nameWords(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split("[^\\p{L}\\p{Nd}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Digits only, with a +63 country code folded to the local 0 prefix. Local numbers always start
+    // with 0, so a leading 63 is the country code even on a partial keyword such as "+63 917".
+    static String phoneDigits(String value) {
+        if (value == null) {
+            return "";
+        }
+        String digits = value.replaceAll("\\D", "");
+        if (digits.startsWith("63") && digits.length() > 2) {
+            digits = "0" + digits.substring(2);
+        }
+        return digits;
+    }
+}
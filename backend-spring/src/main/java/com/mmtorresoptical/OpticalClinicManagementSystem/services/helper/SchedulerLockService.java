@@ -0,0 +1,60 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Lets a scheduled job run on only one backend instance at a time, using a lease row in
+ * {@code scheduler_locks}. The lease expires on its own after {@code lockAtMost}, so an instance
+ * that dies mid-run cannot block the job forever; jobs guarded this way should still be
+ * idempotent, because an overrunning job can outlive its lease.
+ */
+@Slf4j
+@Component
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                TransactionTemplate transactionTemplate) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = transactionTemplate;
+        // "pid@host" plus a random suffix, so two runs on one JVM never share an owner either
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Runs the task if this instance takes the lock, and returns its result; returns empty
+     * without running it when another instance holds the lock.
+     */
+    public <T> Optional<T> runExclusively(String lockName, Duration lockAtMost, Supplier<T> task) {
+        // Acquire and release commit on their own so other instances see them immediately
+        Integer acquired = transactionTemplate.execute(status ->
+                schedulerLockRepository.tryAcquire(lockName, Math.max(1, lockAtMost.toSeconds()), instanceId));
+        if (acquired == null || acquired == 0) {
+            log.info("Skipping '{}': lock is held by another instance", lockName);
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(task.get());
+        } finally {
+            try {
+                transactionTemplate.executeWithoutResult(status -> schedulerLockRepository.release(lockName, instanceId));
+            } catch (RuntimeException ex) {
+                // The lease still expires on its own
+                log.warn("Could not release scheduler lock '{}': {}", lockName, ex.getMessage());
+            }
+        }
+    }
+}
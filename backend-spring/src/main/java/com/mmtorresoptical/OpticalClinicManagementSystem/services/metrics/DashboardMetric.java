@@ -0,0 +1,8 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics;
+
+public enum DashboardMetric {
+    TRANSACTIONS,
+    PATIENTS,
+    INVENTORY,
+    REORDER_ALERTS
+}
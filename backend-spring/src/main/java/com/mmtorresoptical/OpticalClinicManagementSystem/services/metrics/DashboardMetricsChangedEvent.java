@@ -0,0 +1,24 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Published by write paths whose changes show up on the dashboard.
+ * Cached snapshots of the listed metrics are dropped once the publishing transaction commits.
+ */
+public record DashboardMetricsChangedEvent(Set<DashboardMetric> metrics) {
+
+    // Sales, voids and refunds move revenue, patients seen this month and stock
+    public static DashboardMetricsChangedEvent transactions() {
+        return new DashboardMetricsChangedEvent(EnumSet.allOf(DashboardMetric.class));
+    }
+
+    public static DashboardMetricsChangedEvent stock() {
+        return new DashboardMetricsChangedEvent(EnumSet.of(DashboardMetric.INVENTORY, DashboardMetric.REORDER_ALERTS));
+    }
+
+    public static DashboardMetricsChangedEvent patients() {
+        return new DashboardMetricsChangedEvent(EnumSet.of(DashboardMetric.PATIENTS));
+    }
+}
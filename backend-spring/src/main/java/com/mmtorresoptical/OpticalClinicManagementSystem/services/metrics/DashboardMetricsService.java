@@ -0,0 +1,40 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.DashboardPatientMetricsDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.InventoryAnalyticsDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.TransactionMetricsDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.analytics.InventoryAnalyticsService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.PatientService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.TransactionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cached entry points for the metrics polled by the dashboards.
+ * Reports and other one-off callers keep using the underlying services directly.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardMetricsService {
+
+    private final MetricsSnapshotCache metricsSnapshotCache;
+    private final TransactionService transactionService;
+    private final PatientService patientService;
+    private final InventoryAnalyticsService inventoryAnalyticsService;
+
+    public MetricsSnapshotCache.Snapshot<TransactionMetricsDTO> getTransactionMetrics() {
+        return metricsSnapshotCache.get(DashboardMetric.TRANSACTIONS, transactionService::getTransactionMetrics);
+    }
+
+    public MetricsSnapshotCache.Snapshot<DashboardPatientMetricsDTO> getPatientMetrics() {
+        return metricsSnapshotCache.get(DashboardMetric.PATIENTS, patientService::getDashboardPatientMetrics);
+    }
+
+    public MetricsSnapshotCache.Snapshot<InventoryAnalyticsDTO> getInventoryAnalytics() {
+        return metricsSnapshotCache.get(DashboardMetric.INVENTORY, inventoryAnalyticsService::getInventoryAnalytics);
+    }
+
+    public MetricsSnapshotCache.Snapshot<Long> getReorderNeededCount() {
+        return metricsSnapshotCache.get(DashboardMetric.REORDER_ALERTS, inventoryAnalyticsService::getReorderNeededCount);
+    }
+}
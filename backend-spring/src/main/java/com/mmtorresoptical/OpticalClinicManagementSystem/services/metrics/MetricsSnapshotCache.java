@@ -0,0 +1,155 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the latest computed value of each dashboard metric group.
+ *
+ * A snapshot is reused until it is older than the configured max age or a
+ * {@link DashboardMetricsChangedEvent} for its group commits. Requests that arrive while a
+ * snapshot is being computed wait for that computation instead of starting their own, so a
+ * dashboard polled from many tabs costs one set of aggregate queries per refresh.
+ *
+ * Invalidation bumps a per-group generation. A computation that started before the bump still
+ * completes for its waiters, but its result is not reused afterwards.
+ */
+@Component
+public class MetricsSnapshotCache {
+
+    public static final String COMPUTED_AT_HEADER = "X-Metrics-Computed-At";
+
+    private final Duration maxAge;
+    private final Map<DashboardMetric, Slot> slots = new EnumMap<>(DashboardMetric.class);
+
+    public MetricsSnapshotCache(@Value("${app.dashboard.metrics.max-age:PT30S}") Duration maxAge) {
+        this.maxAge = maxAge;
+        for (DashboardMetric metric : DashboardMetric.values()) {
+            slots.put(metric, new Slot());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Snapshot<T> get(DashboardMetric metric, Supplier<T> loader) {
+        Slot slot = slots.get(metric);
+
+        while (true) {
+            long generation = slot.generation.get();
+            Entry current = slot.entry.get();
+
+            if (current != null && current.generation == generation && isUsable(current, Instant.now())) {
+                return (Snapshot<T>) await(current);
+            }
+
+            Entry mine = new Entry(generation, new CompletableFuture<>());
+            if (!slot.entry.compareAndSet(current, mine)) {
+                // Another request started a computation first; wait on that one
+                continue;
+            }
+
+            try {
+                T value = loader.get();
+                Snapshot<T> snapshot = new Snapshot<>(value, Instant.now());
+                mine.future.complete(snapshot);
+                return snapshot;
+            } catch (Throwable ex) {
+                // Any failure, Errors included, must release the waiters on this computation
+                mine.future.completeExceptionally(ex);
+                slot.entry.compareAndSet(mine, null);
+                throw ex;
+            }
+        }
+    }
+
+    public void invalidate(Set<DashboardMetric> metrics) {
+        for (DashboardMetric metric : metrics) {
+            slots.get(metric).generation.incrementAndGet();
+        }
+    }
+
+    // After commit, so a recomputation cannot read the pre-commit state and cache it as fresh
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMetricsChanged(DashboardMetricsChangedEvent event) {
+        invalidate(event.metrics());
+    }
+
+    public List<SnapshotStatus> status() {
+        Instant now = Instant.now();
+        List<SnapshotStatus> statuses = new ArrayList<>();
+
+        slots.forEach((metric, slot) -> {
+            Entry entry = slot.entry.get();
+            Snapshot<?> snapshot = entry != null ? entry.future.getNow(null) : null;
+            boolean computing = entry != null && !entry.future.isDone();
+            boolean invalidated = entry != null && entry.generation != slot.generation.get();
+
+            statuses.add(new SnapshotStatus(
+                    metric,
+                    snapshot != null ? snapshot.computedAt() : null,
+                    snapshot != null ? Duration.between(snapshot.computedAt(), now).toMillis() : null,
+                    maxAge.toMillis(),
+                    snapshot == null || invalidated || isExpired(snapshot, now),
+                    computing
+            ));
+        });
+        return statuses;
+    }
+
+    private boolean isUsable(Entry entry, Instant now) {
+        if (!entry.future.isDone()) {
+            return true;
+        }
+        if (entry.future.isCompletedExceptionally()) {
+            return false;
+        }
+        return !isExpired(entry.future.join(), now);
+    }
+
+    private boolean isExpired(Snapshot<?> snapshot, Instant now) {
+        return snapshot.computedAt().plus(maxAge).isBefore(now);
+    }
+
+    private Snapshot<?> await(Entry entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public record Snapshot<T>(T value, Instant computedAt) {}
+
+    public record SnapshotStatus(DashboardMetric metric,
+                                 Instant computedAt,
+                                 Long ageMs,
+                                 long maxAgeMs,
+                                 boolean stale,
+                                 boolean computing) {}
+
+    private record Entry(long generation, CompletableFuture<Snapshot<?>> future) {}
+
+    private static final class Slot {
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicReference<Entry> entry = new AtomicReference<>();
+    }
+}
@@ -4,13 +4,10 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.dto.metrics.Transaction
 import com.mmtorresoptical.OpticalClinicManagementSystem.dto.product.ProductDetailsDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.FulfillmentStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.Sex;
-import com.mmtorresoptical.OpticalClinicManagementSystem.enums.RefundStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.Patient;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.RefundItem;
-import com.mmtorresoptical.OpticalClinicManagementSystem.model.RefundReceipt;
-import com.mmtorresoptical.OpticalClinicManagementSystem.model.Transaction;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.TransactionItem;
 import com.mmtorresoptical.OpticalClinicManagementSystem.objects.TopSellingProductDTO;
 import com.mmtorresoptical.OpticalClinicManagementSystem.repository.PatientRepository;
@@ -91,12 +88,6 @@ public class ReportAggregationService {
             LocalDate minDate,
             LocalDate maxDate
     ) {
-        List<Transaction> transactions = transactionService.getTransactionsForReport(minDate, maxDate);
-
-        if (transactions.isEmpty()) {
-            return TabularReportDataset.empty(metadata, "No transactions available.");
-        }
-
         List<String> columns = Arrays.asList(
                 "Transaction ID",
                 "Transaction Date",
@@ -106,120 +97,70 @@ public class ReportAggregationService {
                 "Status"
         );
 
-        List<List<Object>> rows = transactions.stream()
-                .map(transaction -> Arrays.<Object>asList(
-                        transaction.getTransactionId(),
-                        transaction.getTransactionDate(),
-                        transaction.getTotalAmount(),
-                        transaction.getAmountPaid(),
-                        transaction.getBalanceDue(),
-                        transaction.getTransactionStatus()
-                ))
-                .toList();
+        // Rows are pulled from a database cursor while the file is written, never held as entities
+        TabularRowSource rowSource = consumer -> transactionService.streamTransactionReportRows(
+                minDate, maxDate, row -> consumer.accept(Arrays.asList(row)));
 
         return TabularReportDataset.builder()
                 .metadata(metadata)
                 .columns(columns)
-                .rows(rows)
+                .rowSource(rowSource)
+                .emptyMessage("No transactions available.")
                 .build();
     }
 
     @Transactional(readOnly = true)
     public List<PatientReportDataset.PatientGrowthPoint> computePatientGrowthTrend() {
-        List<PatientReportDataset.PatientGrowthPoint> growthTrend = new ArrayList<>();
-
         YearMonth currentMonth = YearMonth.now();
         YearMonth trendStart = currentMonth.minusMonths(11);
-        LocalDateTime trendStartDateTime = trendStart.atDay(1).atStartOfDay();
-
-        List<Patient> patientsInTrendPeriod = patientRepository.findByCreatedAtAfter(trendStartDateTime);
 
-        java.util.Map<YearMonth, Integer> monthlyCounts = new java.util.LinkedHashMap<>();
+        Map<String, Integer> monthlyCounts = new LinkedHashMap<>();
         for (YearMonth ym = trendStart; !ym.isAfter(currentMonth); ym = ym.plusMonths(1)) {
-            monthlyCounts.put(ym, 0);
+            monthlyCounts.put(monthKey(ym), 0);
         }
-        for (Patient p : patientsInTrendPeriod) {
-            YearMonth ym = YearMonth.from(p.getCreatedAt());
-            monthlyCounts.merge(ym, 1, Integer::sum);
+
+        // Counted per month in SQL — no patient rows are loaded (or decrypted)
+        for (Object[] row : patientRepository.countPatientsGroupedByMonth(
+                trendStart.atDay(1).atStartOfDay(), currentMonth.plusMonths(1).atDay(1).atStartOfDay())) {
+            monthlyCounts.computeIfPresent((String) row[0], (key, count) -> ((Number) row[1]).intValue());
         }
-        monthlyCounts.forEach((ym, count) ->
-            growthTrend.add(new PatientReportDataset.PatientGrowthPoint(
-                ym.getYear() + "-" + String.format("%02d", ym.getMonthValue()), count))
-        );
 
+        List<PatientReportDataset.PatientGrowthPoint> growthTrend = new ArrayList<>();
+        monthlyCounts.forEach((month, count) ->
+                growthTrend.add(new PatientReportDataset.PatientGrowthPoint(month, count)));
         return growthTrend;
     }
 
     @Transactional(readOnly = true)
     public List<TransactionMonthlyTrendPoint> computeTransactionMonthlyTrend() {
-        List<TransactionMonthlyTrendPoint> trend = new ArrayList<>();
-
         YearMonth currentMonth = YearMonth.now();
         YearMonth trendStart = currentMonth.minusMonths(11);
-        LocalDate trendStartDate = trendStart.atDay(1);
-        LocalDate trendEndDate = currentMonth.atEndOfMonth();
-
-        List<Transaction> transactions = transactionService.getTransactionsForReport(trendStartDate, trendEndDate);
 
-        Map<YearMonth, long[]> monthlyCounts = new LinkedHashMap<>();
-        Map<YearMonth, BigDecimal> netRevenueMap = new LinkedHashMap<>();
+        Map<String, TransactionMonthlyTrendPoint> trend = new LinkedHashMap<>();
         for (YearMonth ym = trendStart; !ym.isAfter(currentMonth); ym = ym.plusMonths(1)) {
-            monthlyCounts.put(ym, new long[1]);
-            netRevenueMap.put(ym, BigDecimal.ZERO);
+            String month = monthKey(ym);
+            trend.put(month, TransactionMonthlyTrendPoint.builder()
+                    .month(month)
+                    .transactionCount(0)
+                    .netRevenue(BigDecimal.ZERO)
+                    .build());
         }
 
-        for (Transaction t : transactions) {
-            YearMonth ym = YearMonth.from(t.getTransactionDate());
-            long[] bucket = monthlyCounts.get(ym);
-            if (bucket == null) continue;
+        // Counts and cash-basis net revenue (less refunded cash) aggregated per month in SQL
+        for (Object[] row : transactionRepository.summarizeMonthlyTrend(
+                trendStart.atDay(1).atStartOfDay(), currentMonth.plusMonths(1).atDay(1).atStartOfDay())) {
+            TransactionMonthlyTrendPoint point = trend.get((String) row[0]);
+            if (point == null) continue;
 
-            bucket[0]++;
-
-            BigDecimal netContribution = computeNetRevenueContribution(t);
-            netRevenueMap.merge(ym, netContribution, BigDecimal::add);
-        }
-
-        for (YearMonth ym = trendStart; !ym.isAfter(currentMonth); ym = ym.plusMonths(1)) {
-            String monthKey = ym.getYear() + "-" + String.format("%02d", ym.getMonthValue());
-            trend.add(TransactionMonthlyTrendPoint.builder()
-                    .month(monthKey)
-                    .transactionCount(monthlyCounts.get(ym)[0])
-                    .netRevenue(netRevenueMap.get(ym))
-                    .build());
+            point.setTransactionCount(((Number) row[1]).longValue());
+            point.setNetRevenue(row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO);
         }
 
-        return trend;
+        return new ArrayList<>(trend.values());
     }
 
-    private BigDecimal computeNetRevenueContribution(Transaction t) {
-        TransactionStatus paymentStatus = t.getTransactionStatus();
-        if (paymentStatus == null) return BigDecimal.ZERO;
-
-        BigDecimal totalAmount = t.getTotalAmount() != null ? t.getTotalAmount() : BigDecimal.ZERO;
-
-        // Cash-basis: PAID uses totalAmount, DEPOSIT uses amountPaid, VOIDED contributes nothing
-        BigDecimal base = switch (paymentStatus) {
-            case PAID -> totalAmount;
-            case DEPOSIT -> t.getAmountPaid() != null ? t.getAmountPaid() : BigDecimal.ZERO;
-            case VOIDED -> BigDecimal.ZERO;
-            default -> BigDecimal.ZERO;
-        };
-
-        // Subtract actual cash returned (not item credit amounts)
-        RefundStatus refundStatus = t.getRefundStatus();
-        if (refundStatus == RefundStatus.PARTIAL || refundStatus == RefundStatus.FULL) {
-            BigDecimal refundSum = BigDecimal.ZERO;
-            if (t.getRefundReceipts() != null) {
-                for (RefundReceipt receipt : t.getRefundReceipts()) {
-                    if (receipt.getActualCashback() != null) {
-                        refundSum = refundSum.add(receipt.getActualCashback());
-                    }
-                }
-            }
-            base = base.subtract(refundSum);
-        }
-
-        return base;
+    private String monthKey(YearMonth ym) {
+        return ym.getYear() + "-" + String.format("%02d", ym.getMonthValue());
     }
 
     @Transactional(readOnly = true)
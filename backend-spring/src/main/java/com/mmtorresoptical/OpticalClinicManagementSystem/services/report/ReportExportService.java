@@ -0,0 +1,105 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportFormat;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.BadRequestException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.generator.excel.ExcelReportGenerator;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.generator.pdf.PdfReportGenerator;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionEntryCursor;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionReportOutline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Single entry point for producing a report in a given format, shared by the direct download
+ * endpoints and the background report jobs.
+ *
+ * {@link #prepare} builds the dataset on the calling thread and returns a writer for the encoded
+ * file, so callers decide whether the bytes go to an HTTP response or to disk. The transaction
+ * PDF is the exception: only its outline is built up front, and its rows are read as it is written.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final ReportAggregationService reportAggregationService;
+    private final TransactionPdfAggregationService transactionPdfAggregationService;
+    private final ExcelReportGenerator excelReportGenerator;
+    private final PdfReportGenerator pdfReportGenerator;
+    private final ObjectMapper objectMapper;
+
+    public void checkSupported(ReportType reportType, ReportFormat format) {
+        boolean supported = switch (format) {
+            case EXCEL -> reportType.supportsExcel();
+            case PDF -> reportType.supportsPdf();
+            case JSON -> true;
+        };
+        if (!supported) {
+            throw new BadRequestException(format.name() + " export not supported for " + reportType.name() + " reports.");
+        }
+    }
+
+    /**
+     * The dataset behind the on-screen report views and the JSON export.
+     */
+    public Object buildReportData(ReportType reportType, LocalDate minDate, LocalDate maxDate) {
+        return switch (reportType) {
+            case TRANSACTIONS -> transactionPdfAggregationService.buildTransactionReport(minDate, maxDate);
+            case PATIENTS -> reportAggregationService.buildPatientReport(reportType, minDate, maxDate);
+            case INVENTORY_ANALYTICS -> reportAggregationService.buildInventoryAnalyticsReport();
+        };
+    }
+
+    public ReportOutput prepare(ReportType reportType, ReportFormat format, LocalDate minDate, LocalDate maxDate) {
+        checkSupported(reportType, format);
+
+        return switch (format) {
+            case EXCEL -> {
+                TabularReportDataset dataset = reportAggregationService.buildReport(reportType, minDate, maxDate);
+                yield new ReportOutput(filename(reportType, "xlsx"), XLSX_CONTENT_TYPE,
+                        outputStream -> excelReportGenerator.write(dataset, outputStream));
+            }
+            case PDF -> {
+                ReportWriter writer;
+                if (reportType == ReportType.TRANSACTIONS) {
+                    // Only the outline is built here; transactions are paged in while the PDF is written
+                    TransactionReportOutline outline =
+                            transactionPdfAggregationService.prepareTransactionReport(minDate, maxDate);
+                    TransactionEntryCursor entries = transactionPdfAggregationService.entryCursor(outline);
+                    writer = outputStream -> pdfReportGenerator.writeTransactionReport(outline, entries, outputStream);
+                } else {
+                    ComprehensiveInventoryReportDataset dataset = reportAggregationService.buildInventoryAnalyticsReport();
+                    writer = outputStream -> pdfReportGenerator.writeInventoryReport(dataset, outputStream);
+                }
+                yield new ReportOutput(filename(reportType, "pdf"), MediaType.APPLICATION_PDF_VALUE, writer);
+            }
+            case JSON -> {
+                Object dataset = buildReportData(reportType, minDate, maxDate);
+                yield new ReportOutput(filename(reportType, "json"), MediaType.APPLICATION_JSON_VALUE,
+                        outputStream -> objectMapper.writeValue(outputStream, dataset));
+            }
+        };
+    }
+
+    private String filename(ReportType reportType, String extension) {
+        return reportType.name().toLowerCase() + "_" + LocalDateTime.now()
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + "." + extension;
+    }
+
+    @FunctionalInterface
+    public interface ReportWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    public record ReportOutput(String filename, String contentType, ReportWriter writer) {}
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Data
 @Builder
@@ -16,9 +17,19 @@ public class TabularReportDataset {
     private ReportMetadata metadata;
     private List<String> columns;
     private List<List<Object>> rows;
+    // When set, rows are pulled from here instead of the materialized list
+    private TabularRowSource rowSource;
     @Builder.Default
     private String emptyMessage = "No records available.";
 
+    public void forEachRow(Consumer<List<Object>> consumer) {
+        if (rowSource != null) {
+            rowSource.forEachRow(consumer);
+        } else if (rows != null) {
+            rows.forEach(consumer);
+        }
+    }
+
     public static TabularReportDataset empty(ReportMetadata metadata) {
         return TabularReportDataset.builder()
                 .metadata(metadata)
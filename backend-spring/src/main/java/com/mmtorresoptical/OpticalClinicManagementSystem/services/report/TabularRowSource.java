@@ -0,0 +1,14 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lazily pulled rows for a {@link TabularReportDataset}. Each call walks the rows once,
+ * typically from a database cursor, handing them to the consumer one at a time.
+ */
+@FunctionalInterface
+public interface TabularRowSource {
+
+    void forEachRow(Consumer<List<Object>> consumer);
+}
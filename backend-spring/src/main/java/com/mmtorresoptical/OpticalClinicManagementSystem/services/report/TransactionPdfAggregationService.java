@@ -2,52 +2,52 @@ package com.mmtorresoptical.OpticalClinicManagementSystem.services.report;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.RefundStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
-import com.mmtorresoptical.OpticalClinicManagementSystem.model.*;
-import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.TransactionService;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.TransactionRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.report.TransactionReportRepository;
 import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionPdfAggregationService {
 
-    private final TransactionService transactionService;
+    // Transactions fetched per round trip while a PDF is written; bounds its heap use
+    private static final int PDF_PAGE_SIZE = 200;
 
-    private static final List<String> STATUS_ORDER = List.of(
-        "DEPOSIT", "PAID", "VOIDED"
-    );
+    private final TransactionReportRepository transactionReportRepository;
+    private final TransactionRepository transactionRepository;
 
+    /**
+     * Builds the report from the flat projections in {@link TransactionReportRepository}.
+     * The queries share one read-only transaction so headers, items and payments come from the same snapshot.
+     * A missing bound falls back to the earliest or latest recorded transaction date.
+     */
+    @Transactional(readOnly = true)
     public TransactionHierarchicalReportDataset buildTransactionReport(
             LocalDate minDate, LocalDate maxDate
     ) {
-        ReportMetadata metadata = ReportMetadata.builder()
-                .generatedAt(Instant.now())
-                .generatedBy(resolveGeneratedBy())
-                .reportType(com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType.TRANSACTIONS)
-                .title("Transaction Report")
-                .build();
+        minDate = resolveMinDate(minDate);
+        maxDate = resolveMaxDate(maxDate);
+        ReportMetadata metadata = buildMetadata();
 
-        List<Transaction> transactions = transactionService.getTransactionsForReport(minDate, maxDate);
+        LocalDateTime start = minDate.atStartOfDay();
+        LocalDateTime end = maxDate.atTime(23, 59, 59);
 
-        transactions = new ArrayList<>(transactions.stream()
-                .collect(Collectors.toMap(
-                        Transaction::getTransactionId,
-                        t -> t,
-                        (existing, duplicate) -> existing,
-                        LinkedHashMap::new
-                ))
-                .values());
+        List<TransactionHeaderRow> headers = transactionReportRepository.findHeaderRows(start, end);
 
-        if (transactions.isEmpty()) {
+        if (headers.isEmpty()) {
             return TransactionHierarchicalReportDataset.builder()
                     .metadata(metadata)
                     .minDate(minDate)
@@ -58,125 +58,265 @@ public class TransactionPdfAggregationService {
                     .build();
         }
 
-        List<TransactionEntry> entries = transactions.stream()
-                .map(this::mapTransactionToEntry)
-                .toList();
+        Map<UUID, RefundCredit> refundCredits = loadRefundCredits(start, end);
 
-        TransactionReportSummary overallSummary = computeSummary(entries);
+        Map<UUID, List<TransactionItemEntry>> itemsByTransaction = new HashMap<>();
+        for (TransactionItemRow row : transactionReportRepository.findItemRows(start, end)) {
+            itemsByTransaction.computeIfAbsent(row.transactionId(), id -> new ArrayList<>())
+                    .add(mapItemToEntry(row, refundCredits.get(row.transactionItemId())));
+        }
 
-        Map<String, List<TransactionEntry>> statusGroups = new LinkedHashMap<>();
-        for (String statusKey : STATUS_ORDER) {
-            List<TransactionEntry> group = entries.stream()
-                .filter(e -> e.getStatus() != null && e.getStatus().name().equals(statusKey))
-                .collect(Collectors.toList());
-            if (!group.isEmpty()) {
-                statusGroups.put(statusKey, group);
+        Map<UUID, List<PaymentMethodEntry>> paymentsByTransaction = new HashMap<>();
+        for (TransactionPaymentRow row : transactionReportRepository.findPaymentRows(start, end)) {
+            paymentsByTransaction.computeIfAbsent(row.transactionId(), id -> new ArrayList<>())
+                    .add(mapPaymentToEntry(row));
+        }
+
+        List<TransactionEntry> entries = new ArrayList<>(headers.size());
+        // EnumMap iterates in declaration order: DEPOSIT, PAID, VOIDED
+        Map<TransactionStatus, List<TransactionEntry>> byStatus = new EnumMap<>(TransactionStatus.class);
+
+        for (TransactionHeaderRow header : headers) {
+            TransactionEntry entry = mapHeaderToEntry(
+                    header,
+                    itemsByTransaction.getOrDefault(header.transactionId(), Collections.emptyList()),
+                    paymentsByTransaction.getOrDefault(header.transactionId(), Collections.emptyList())
+            );
+            entries.add(entry);
+            if (entry.getStatus() != null) {
+                byStatus.computeIfAbsent(entry.getStatus(), s -> new ArrayList<>()).add(entry);
             }
         }
 
-        // Handle any statuses not in the predefined order
-        entries.stream()
-            .filter(e -> e.getStatus() != null && !STATUS_ORDER.contains(e.getStatus().name()))
-            .forEach(e -> statusGroups.computeIfAbsent(e.getStatus().name(), k -> new ArrayList<>()).add(e));
+        Map<String, List<TransactionEntry>> statusGroups = new LinkedHashMap<>();
+        byStatus.forEach((status, group) -> statusGroups.put(status.name(), group));
 
         return TransactionHierarchicalReportDataset.builder()
                 .metadata(metadata)
                 .minDate(minDate)
                 .maxDate(maxDate)
-                .summary(overallSummary)
+                .summary(computeSummary(entries))
                 .statusGroups(statusGroups)
                 .build();
     }
 
-    private TransactionEntry mapTransactionToEntry(Transaction transaction) {
-        String customerName = resolveCustomerName(transaction.getPatient());
-        String cashierName = resolveCashierName(transaction.getUser());
+    /**
+     * The PDF counterpart of {@link #buildTransactionReport}: the summary and group sizes come
+     * from one aggregate query, and the transactions are left to {@link #entryCursor} so the
+     * document can be written without holding the whole date range in memory.
+     */
+    @Transactional(readOnly = true)
+    public TransactionReportOutline prepareTransactionReport(LocalDate minDate, LocalDate maxDate) {
+        minDate = resolveMinDate(minDate);
+        maxDate = resolveMaxDate(maxDate);
 
-        String voidedByName = null;
-        if (transaction.getVoidedBy() != null) {
-            voidedByName = resolveCashierName(transaction.getVoidedBy());
-        }
+        List<TransactionStatusTotalRow> totals = transactionReportRepository.findStatusTotals(
+                minDate.atStartOfDay(), maxDate.atTime(23, 59, 59));
 
-        List<TransactionItemEntry> itemEntries = Collections.emptyList();
-        if (transaction.getTransactionItems() != null) {
-            itemEntries = transaction.getTransactionItems().stream()
-                    .collect(Collectors.toMap(
-                            TransactionItem::getTransactionItemId,
-                            item -> item,
-                            (existing, duplicate) -> existing,
-                            LinkedHashMap::new
-                    ))
-                    .values().stream()
-                    .map(item -> mapItemToEntry(item, transaction))
-                    .toList();
-        }
+        long totalCount = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        long refundedCount = 0;
+        BigDecimal refundedAmount = BigDecimal.ZERO;
+        Map<TransactionStatus, Long> counts = new EnumMap<>(TransactionStatus.class);
+        Map<TransactionStatus, BigDecimal> amounts = new EnumMap<>(TransactionStatus.class);
+
+        for (TransactionStatusTotalRow row : totals) {
+            long count = row.count() != null ? row.count() : 0;
+            BigDecimal amount = row.totalAmount() != null ? row.totalAmount() : BigDecimal.ZERO;
+            totalCount += count;
+            totalAmount = totalAmount.add(amount);
+
+            if (row.status() == null) continue;
+            counts.merge(row.status(), count, Long::sum);
+            amounts.merge(row.status(), amount, BigDecimal::add);
 
-        List<PaymentMethodEntry> paymentEntries = Collections.emptyList();
-        if (transaction.getPayments() != null && !transaction.getPayments().isEmpty()) {
-            paymentEntries = transaction.getPayments().stream()
-                .map(p -> PaymentMethodEntry.builder()
-                    .amount(p.getAmount())
-                    .paymentMethod(p.getPaymentMethod().name())
-                    .gcashNumber(p.getGcashNumber())
-                    .referenceNumber(p.getReferenceNumber())
-                    .createdAt(p.getCreatedAt())
-                    .build())
-                .toList();
+            if (row.refundStatus() == RefundStatus.PARTIAL || row.refundStatus() == RefundStatus.FULL) {
+                refundedCount += count;
+                refundedAmount = refundedAmount.add(amount);
+            }
         }
 
-        return TransactionEntry.builder()
-                .id(transaction.getTransactionId())
-                .transactionNumber(transaction.getTransactionNumber())
-                .date(transaction.getTransactionDate())
-                .totalAmount(transaction.getTotalAmount())
-                .amountPaid(transaction.getAmountPaid())
-                .balanceDue(transaction.getBalanceDue())
-                .status(transaction.getTransactionStatus())
-                .refundStatus(transaction.getRefundStatus())
-                .customerName(customerName)
-                .cashierName(cashierName)
-                .voidReason(transaction.getVoidReason())
-                .voidedAt(transaction.getVoidedAt())
-                .voidedBy(voidedByName)
-                .items(itemEntries)
-                .payments(paymentEntries)
+        TransactionReportSummary summary = totalCount == 0 ? emptySummary() : TransactionReportSummary.builder()
+                .totalCount(totalCount)
+                .totalAmount(totalAmount)
+                .completedCount(counts.getOrDefault(TransactionStatus.PAID, 0L))
+                .completedAmount(amounts.getOrDefault(TransactionStatus.PAID, BigDecimal.ZERO))
+                .voidedCount(counts.getOrDefault(TransactionStatus.VOIDED, 0L))
+                .voidedAmount(amounts.getOrDefault(TransactionStatus.VOIDED, BigDecimal.ZERO))
+                .refundedCount(refundedCount)
+                .refundedAmount(refundedAmount)
+                .build();
+
+        // EnumMap iterates in declaration order: DEPOSIT, PAID, VOIDED
+        Map<TransactionStatus, Long> statusCounts = new LinkedHashMap<>();
+        counts.forEach((status, count) -> {
+            if (count > 0) statusCounts.put(status, count);
+        });
+
+        return TransactionReportOutline.builder()
+                .metadata(buildMetadata())
+                .minDate(minDate)
+                .maxDate(maxDate)
+                .summary(summary)
+                .statusCounts(statusCounts)
                 .build();
     }
 
-    private TransactionItemEntry mapItemToEntry(TransactionItem item, Transaction transaction) {
-        BigDecimal refundAmount = BigDecimal.ZERO;
-        String refundReason = null;
-
-        if (transaction.getRefundReceipts() != null) {
-            for (RefundReceipt receipt : transaction.getRefundReceipts()) {
-                if (receipt.getRefundItems() != null) {
-                    for (RefundItem refundItem : receipt.getRefundItems()) {
-                        if (refundItem.getTransactionItem().getTransactionItemId().equals(item.getTransactionItemId())) {
-                            if (refundItem.getItemCreditAmount() != null) {
-                                refundAmount = refundAmount.add(refundItem.getItemCreditAmount());
-                            }
-                            if (refundReason == null && refundItem.getRefundReason() != null) {
-                                refundReason = refundItem.getRefundReason();
-                            }
-                        }
-                    }
+    /**
+     * Reads one status group of the outlined report in keyset pages of {@link #PDF_PAGE_SIZE},
+     * loading each page's items, payments and refund credits by transaction id. Nothing from
+     * a page is kept once its entries have been handed over.
+     */
+    public TransactionEntryCursor entryCursor(TransactionReportOutline outline) {
+        LocalDateTime start = outline.getMinDate().atStartOfDay();
+        LocalDateTime end = outline.getMaxDate().atTime(23, 59, 59);
+        Pageable firstPage = PageRequest.of(0, PDF_PAGE_SIZE);
+
+        return (status, handler) -> {
+            List<TransactionHeaderRow> page = transactionReportRepository.findHeaderRowsByStatus(status, start, end, firstPage);
+            while (!page.isEmpty()) {
+                for (TransactionEntry entry : loadEntries(page)) {
+                    handler.accept(entry);
+                }
+                if (page.size() < PDF_PAGE_SIZE) {
+                    break;
                 }
+                TransactionHeaderRow last = page.get(page.size() - 1);
+                page = transactionReportRepository.findHeaderRowsByStatusAfter(
+                        status, start, end, last.transactionDate(), last.transactionId(), firstPage);
             }
+        };
+    }
+
+    private List<TransactionEntry> loadEntries(List<TransactionHeaderRow> headers) {
+        List<UUID> ids = headers.stream().map(TransactionHeaderRow::transactionId).toList();
+
+        Map<UUID, RefundCredit> refundCredits = new HashMap<>();
+        for (RefundItemCreditRow row : transactionReportRepository.findRefundItemCreditRowsByTransactionIds(ids)) {
+            refundCredits.computeIfAbsent(row.transactionItemId(), id -> new RefundCredit()).add(row);
+        }
+
+        Map<UUID, List<TransactionItemEntry>> itemsByTransaction = new HashMap<>();
+        for (TransactionItemRow row : transactionReportRepository.findItemRowsByTransactionIds(ids)) {
+            itemsByTransaction.computeIfAbsent(row.transactionId(), id -> new ArrayList<>())
+                    .add(mapItemToEntry(row, refundCredits.get(row.transactionItemId())));
+        }
+
+        Map<UUID, List<PaymentMethodEntry>> paymentsByTransaction = new HashMap<>();
+        for (TransactionPaymentRow row : transactionReportRepository.findPaymentRowsByTransactionIds(ids)) {
+            paymentsByTransaction.computeIfAbsent(row.transactionId(), id -> new ArrayList<>())
+                    .add(mapPaymentToEntry(row));
+        }
+
+        List<TransactionEntry> entries = new ArrayList<>(headers.size());
+        for (TransactionHeaderRow header : headers) {
+            entries.add(mapHeaderToEntry(
+                    header,
+                    itemsByTransaction.getOrDefault(header.transactionId(), Collections.emptyList()),
+                    paymentsByTransaction.getOrDefault(header.transactionId(), Collections.emptyList())
+            ));
+        }
+        return entries;
+    }
+
+    private LocalDate resolveMinDate(LocalDate minDate) {
+        if (minDate != null) {
+            return minDate;
+        }
+        LocalDateTime dbMin = transactionRepository.findMinTransactionDate();
+        return dbMin != null ? dbMin.toLocalDate() : LocalDate.of(2020, 1, 1);
+    }
+
+    private LocalDate resolveMaxDate(LocalDate maxDate) {
+        if (maxDate != null) {
+            return maxDate;
         }
+        LocalDateTime dbMax = transactionRepository.findMaxTransactionDate();
+        return dbMax != null ? dbMax.toLocalDate() : LocalDate.of(2099, 12, 31);
+    }
+
+    private ReportMetadata buildMetadata() {
+        return ReportMetadata.builder()
+                .generatedAt(Instant.now())
+                .generatedBy(resolveGeneratedBy())
+                .reportType(com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType.TRANSACTIONS)
+                .title("Transaction Report")
+                .build();
+    }
+
+    private Map<UUID, RefundCredit> loadRefundCredits(LocalDateTime start, LocalDateTime end) {
+        Map<UUID, RefundCredit> credits = new HashMap<>();
+        for (RefundItemCreditRow row : transactionReportRepository.findRefundItemCreditRows(start, end)) {
+            credits.computeIfAbsent(row.transactionItemId(), id -> new RefundCredit()).add(row);
+        }
+        return credits;
+    }
+
+    private PaymentMethodEntry mapPaymentToEntry(TransactionPaymentRow row) {
+        return PaymentMethodEntry.builder()
+                .amount(row.amount())
+                .paymentMethod(row.paymentMethod().name())
+                .gcashNumber(row.gcashNumber())
+                .referenceNumber(row.referenceNumber())
+                .createdAt(row.createdAt())
+                .build();
+    }
+
+    private TransactionEntry mapHeaderToEntry(
+            TransactionHeaderRow header,
+            List<TransactionItemEntry> items,
+            List<PaymentMethodEntry> payments
+    ) {
+        return TransactionEntry.builder()
+                .id(header.transactionId())
+                .transactionNumber(header.transactionNumber())
+                .date(header.transactionDate())
+                .totalAmount(header.totalAmount())
+                .amountPaid(header.amountPaid())
+                .balanceDue(header.balanceDue())
+                .status(header.status())
+                .refundStatus(header.refundStatus())
+                .customerName(fullName(header.patientFirstName(), header.patientLastName()))
+                .cashierName(fullName(header.cashierFirstName(), header.cashierLastName()))
+                .voidReason(header.voidReason())
+                .voidedAt(header.voidedAt())
+                .voidedBy(fullName(header.voidedByFirstName(), header.voidedByLastName()))
+                .items(items)
+                .payments(payments)
+                .build();
+    }
+
+    private TransactionItemEntry mapItemToEntry(TransactionItemRow item, RefundCredit credit) {
+        BigDecimal refundAmount = credit != null ? credit.amount : BigDecimal.ZERO;
 
         return TransactionItemEntry.builder()
-                .productName(item.getProduct() != null ? item.getProduct().getProductName() : "Unknown")
-                .quantity(item.getQuantity())
-                .unitPrice(item.getUnitPrice())
-                .subtotal(item.getSubtotal())
-                .discountType(item.getDiscountType())
-                .discountValue(item.getDiscountValue())
-                .refundedQuantity(item.getRefundedQuantity())
-                .refundReason(refundReason)
+                .productName(item.productName() != null ? item.productName() : "Unknown")
+                .quantity(item.quantity())
+                .unitPrice(item.unitPrice())
+                .subtotal(item.subtotal())
+                .discountType(item.discountType())
+                .discountValue(item.discountValue())
+                .refundedQuantity(item.refundedQuantity())
+                .refundReason(credit != null ? credit.reason : null)
                 .refundAmount(refundAmount.compareTo(BigDecimal.ZERO) > 0 ? refundAmount : null)
                 .build();
     }
 
+    // Credited amount summed across all refund receipts of one item, keeping the first reason given
+    private static final class RefundCredit {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private String reason;
+
+        void add(RefundItemCreditRow row) {
+            if (row.itemCreditAmount() != null) {
+                amount = amount.add(row.itemCreditAmount());
+            }
+            if (reason == null && row.refundReason() != null) {
+                reason = row.refundReason();
+            }
+        }
+    }
+
     private TransactionReportSummary computeSummary(List<TransactionEntry> entries) {
         long totalCount = entries.size();
         BigDecimal totalAmount = BigDecimal.ZERO;
@@ -235,24 +375,7 @@ public class TransactionPdfAggregationService {
                 .build();
     }
 
-    private String resolveCustomerName(Patient patient) {
-        if (patient == null) {
-            return null;
-        }
-        String first = patient.getFirstName();
-        String last = patient.getLastName();
-        if (first == null && last == null) {
-            return null;
-        }
-        return ((first != null ? first : "") + " " + (last != null ? last : "")).trim();
-    }
-
-    private String resolveCashierName(User user) {
-        if (user == null) {
-            return null;
-        }
-        String first = user.getFirstName();
-        String last = user.getLastName();
+    private String fullName(String first, String last) {
         if (first == null && last == null) {
             return null;
         }
@@ -4,9 +4,8 @@ import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.Tabular
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,12 +16,17 @@ import java.io.OutputStream;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class PoiXlsxTabularReportGenerator implements ExcelReportGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(PoiXlsxTabularReportGenerator.class);
 
+    private static final int ROW_WINDOW = 200;
+    private static final int WIDTH_SAMPLE_ROWS = 500;
+    private static final int MAX_COLUMN_CHARS = 60;
+
     @Override
     public byte[] generate(TabularReportDataset dataset) {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
@@ -40,11 +44,11 @@ public class PoiXlsxTabularReportGenerator implements ExcelReportGenerator {
         }
 
         List<String> columns = dataset.getColumns() == null ? List.of() : dataset.getColumns();
-        List<List<Object>> rows = dataset.getRows() == null ? List.of() : dataset.getRows();
-
-        logger.info("Generating Excel report: columns={}, rows={}", columns.size(), rows.size());
 
-        try (Workbook workbook = new XSSFWorkbook()) {
+        // Streaming workbook: only ROW_WINDOW rows stay in memory, the rest are flushed to a compressed temp file
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet(resolveSheetName(dataset));
             int rowNum = 0;
 
@@ -71,34 +75,23 @@ public class PoiXlsxTabularReportGenerator implements ExcelReportGenerator {
 
             rowNum++;
 
-            if (rows.isEmpty()) {
-                Row emptyRow = sheet.createRow(rowNum++);
+            // The header is written when the first row arrives, so a lazily pulled source needs no count up front
+            DataRowWriter writer = new DataRowWriter(sheet, rowNum, columns);
+            dataset.forEachRow(writer);
+
+            if (writer.dataRows == 0) {
+                Row emptyRow = sheet.createRow(rowNum);
                 emptyRow.createCell(0).setCellValue(dataset.getEmptyMessage());
             } else {
-                Row headerRow = sheet.createRow(rowNum++);
-                for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
-                    Cell cell = headerRow.createCell(columnIndex);
-                    cell.setCellValue(columns.get(columnIndex));
-                }
-
-                for (List<Object> rowData : rows) {
-                    Row row = sheet.createRow(rowNum++);
-                    if (rowData == null) {
-                        continue;
-                    }
-
-                    for (int columnIndex = 0; columnIndex < rowData.size(); columnIndex++) {
-                        Cell cell = row.createCell(columnIndex);
-                        setCellValue(cell, rowData.get(columnIndex));
-                    }
-                }
-
-                for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
-                    sheet.autoSizeColumn(columnIndex);
-                }
+                writer.widths.apply(sheet);
             }
 
+            logger.info("Generated Excel report: columns={}, rows={}", columns.size(), writer.dataRows);
+
             workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
@@ -133,4 +126,73 @@ public class PoiXlsxTabularReportGenerator implements ExcelReportGenerator {
 
         cell.setCellValue(value.toString());
     }
+
+    private final class DataRowWriter implements Consumer<List<Object>> {
+        private final Sheet sheet;
+        private final List<String> columns;
+        private final ColumnWidthSampler widths;
+        private int rowNum;
+        private int dataRows;
+
+        DataRowWriter(Sheet sheet, int firstRowNum, List<String> columns) {
+            this.sheet = sheet;
+            this.rowNum = firstRowNum;
+            this.columns = columns;
+            this.widths = new ColumnWidthSampler(columns.size());
+        }
+
+        @Override
+        public void accept(List<Object> rowData) {
+            if (dataRows == 0) {
+                Row headerRow = sheet.createRow(rowNum++);
+                for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
+                    Cell cell = headerRow.createCell(columnIndex);
+                    cell.setCellValue(columns.get(columnIndex));
+                    widths.sample(columnIndex, columns.get(columnIndex));
+                }
+            }
+
+            Row row = sheet.createRow(rowNum++);
+            boolean sampled = dataRows++ < WIDTH_SAMPLE_ROWS;
+            if (rowData == null) {
+                return;
+            }
+
+            for (int columnIndex = 0; columnIndex < rowData.size(); columnIndex++) {
+                Cell cell = row.createCell(columnIndex);
+                Object value = rowData.get(columnIndex);
+                setCellValue(cell, value);
+                if (sampled) {
+                    widths.sample(columnIndex, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Column widths estimated from the header and the first rows instead of autoSizeColumn,
+     * which would have to measure every cell (and cannot see rows already flushed to disk).
+     */
+    private static final class ColumnWidthSampler {
+        private final int[] maxChars;
+
+        ColumnWidthSampler(int columnCount) {
+            this.maxChars = new int[columnCount];
+        }
+
+        void sample(int columnIndex, Object value) {
+            if (value == null || columnIndex >= maxChars.length) {
+                return;
+            }
+            int length = Math.min(value.toString().length(), MAX_COLUMN_CHARS);
+            maxChars[columnIndex] = Math.max(maxChars[columnIndex], length);
+        }
+
+        void apply(Sheet sheet) {
+            for (int columnIndex = 0; columnIndex < maxChars.length; columnIndex++) {
+                // Width unit is 1/256 of a character; pad two characters for cell margins
+                sheet.setColumnWidth(columnIndex, (Math.max(maxChars[columnIndex], 8) + 2) * 256);
+            }
+        }
+    }
 }
@@ -0,0 +1,295 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.generator.pdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.product.ProductDetailsDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.objects.TopSellingProductDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ComprehensiveInventoryReportDataset;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ReportMetadata;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.PaymentMethodEntry;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionEntry;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionEntryCursor;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionItemEntry;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionReportOutline;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionReportSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+public class PdfBoxReportGenerator implements PdfReportGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfBoxReportGenerator.class);
+
+    private static final String CLINIC_NAME = "MM Torres Optical Clinic";
+    private static final ZoneId ZONE = ZoneId.of("Asia/Manila");
+
+    private static final DateTimeFormatter GENERATED_AT = DateTimeFormatter.ofPattern("MMMM d, yyyy h:mm a", Locale.US);
+    private static final DateTimeFormatter PERIOD_DATE = DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.US);
+    private static final DateTimeFormatter ROW_DATE = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.US);
+
+    private static final Color TEXT = new Color(30, 41, 59);
+    private static final Color MUTED = new Color(110, 110, 110);
+
+    private static final List<String> TRANSACTION_COLUMNS = List.of(
+            "Transaction #", "Date", "Customer", "Cashier", "Total", "Paid", "Balance"
+    );
+    private static final float[] TRANSACTION_WEIGHTS = {20, 20, 22, 18, 14, 14, 14};
+    private static final boolean[] TRANSACTION_RIGHT = {false, false, false, false, true, true, true};
+
+    private static final float[] SUMMARY_WEIGHTS = {60, 20, 30};
+    private static final boolean[] SUMMARY_RIGHT = {false, true, true};
+
+    @Override
+    public void writeTransactionReport(TransactionReportOutline outline, TransactionEntryCursor entries,
+                                       OutputStream outputStream) throws IOException {
+        if (outline == null || entries == null) {
+            throw new IllegalArgumentException("outline and entries must not be null");
+        }
+
+        long startedAt = System.nanoTime();
+        PdfPageWriter writer = new PdfPageWriter(CLINIC_NAME + " - Transaction Report");
+        try {
+            writeDocumentHeader(writer, outline.getMetadata(), "Transaction Report");
+            writer.line("Period: " + formatPeriodDate(outline.getMinDate()) + " - " + formatPeriodDate(outline.getMaxDate()),
+                    PdfPageWriter.REGULAR, 9, MUTED);
+            writer.rule();
+
+            Map<TransactionStatus, Long> groups = outline.getStatusCounts();
+            if (groups == null || groups.isEmpty()) {
+                writer.muted(outline.getEmptyMessage());
+            } else {
+                writeTransactionSummary(writer, outline.getSummary());
+                for (Map.Entry<TransactionStatus, Long> group : groups.entrySet()) {
+                    writeStatusGroup(writer, group.getKey(), group.getValue(), entries);
+                }
+            }
+        } catch (IOException | RuntimeException exception) {
+            writer.close();
+            throw exception;
+        }
+
+        int pages = writer.pageCount();
+        writer.save(outputStream);
+        logThroughput("transaction", pages, startedAt);
+    }
+
+    @Override
+    public void writeInventoryReport(ComprehensiveInventoryReportDataset dataset, OutputStream outputStream) throws IOException {
+        if (dataset == null) {
+            throw new IllegalArgumentException("dataset must not be null");
+        }
+
+        long startedAt = System.nanoTime();
+        PdfPageWriter writer = new PdfPageWriter(CLINIC_NAME + " - Inventory Report");
+        try {
+            writeDocumentHeader(writer, dataset.getMetadata(), "Comprehensive Inventory Analytics Report");
+            writer.rule();
+
+            writer.heading("Inventory Overview");
+            writer.beginTable(List.of("", "Value"), new float[]{70, 30}, new boolean[]{false, true}, 9);
+            writer.row(List.of("Total Inventory Value", currency(dataset.getTotalInventoryValue())));
+            writer.row(List.of("Low Stock Products", String.valueOf(dataset.getTotalLowStockCount())));
+            writer.row(List.of("Overstocked Products", String.valueOf(dataset.getTotalOverstockCount())));
+            writer.endTable();
+
+            writer.heading("Low Stock Products");
+            writeProductTable(writer, dataset.getLowStockProducts(), "No low stock products.");
+
+            writer.heading("Overstocked Products");
+            writeProductTable(writer, dataset.getOverstockProducts(), "No overstocked products.");
+
+            writer.heading("Top Selling Products");
+            writeTopSellingTable(writer, dataset.getTopSellingProducts());
+        } catch (IOException | RuntimeException exception) {
+            writer.close();
+            throw exception;
+        }
+
+        int pages = writer.pageCount();
+        writer.save(outputStream);
+        logThroughput("inventory", pages, startedAt);
+    }
+
+    // ---------------- TRANSACTION SECTIONS ----------------
+
+    private void writeTransactionSummary(PdfPageWriter writer, TransactionReportSummary summary) throws IOException {
+        if (summary == null) {
+            return;
+        }
+        writer.heading("Summary");
+        writer.beginTable(List.of("", "Count", "Amount"), SUMMARY_WEIGHTS, SUMMARY_RIGHT, 9);
+        writer.row(List.of("All Transactions", String.valueOf(summary.getTotalCount()), currency(summary.getTotalAmount())));
+        writer.row(List.of("Paid", String.valueOf(summary.getCompletedCount()), currency(summary.getCompletedAmount())));
+        writer.row(List.of("Voided", String.valueOf(summary.getVoidedCount()), currency(summary.getVoidedAmount())));
+        writer.row(List.of("With Refunds", String.valueOf(summary.getRefundedCount()), currency(summary.getRefundedAmount())));
+        writer.endTable();
+    }
+
+    private void writeStatusGroup(PdfPageWriter writer, TransactionStatus status, long count,
+                                  TransactionEntryCursor entries) throws IOException {
+        writer.heading(status.name() + " (" + count + ")");
+        writer.beginTable(TRANSACTION_COLUMNS, TRANSACTION_WEIGHTS, TRANSACTION_RIGHT, 8);
+
+        entries.forEachEntry(status, entry -> writeTransactionRows(writer, entry));
+        writer.endTable();
+    }
+
+    private void writeTransactionRows(PdfPageWriter writer, TransactionEntry entry) throws IOException {
+        writer.row(List.of(
+                nullToDash(entry.getTransactionNumber()),
+                entry.getDate() != null ? ROW_DATE.format(entry.getDate()) : "-",
+                nullToDash(entry.getCustomerName()),
+                nullToDash(entry.getCashierName()),
+                currency(entry.getTotalAmount()),
+                currency(entry.getAmountPaid()),
+                currency(entry.getBalanceDue())
+        ));
+
+        if (entry.getItems() != null) {
+            for (TransactionItemEntry item : entry.getItems()) {
+                writer.detailRow(describeItem(item));
+            }
+        }
+        if (entry.getPayments() != null && !entry.getPayments().isEmpty()) {
+            writer.detailRow(describePayments(entry.getPayments()));
+        }
+        if (entry.getVoidedAt() != null) {
+            writer.detailRow("Voided " + ROW_DATE.format(entry.getVoidedAt())
+                    + (entry.getVoidedBy() != null ? " by " + entry.getVoidedBy() : "")
+                    + (entry.getVoidReason() != null ? ": " + entry.getVoidReason() : ""));
+        }
+    }
+
+    private String describeItem(TransactionItemEntry item) {
+        StringBuilder builder = new StringBuilder()
+                .append(item.getQuantity() != null ? item.getQuantity() : 0)
+                .append(" x ")
+                .append(item.getProductName())
+                .append(" @ ")
+                .append(currency(item.getUnitPrice()))
+                .append(" = ")
+                .append(currency(item.getSubtotal()));
+
+        if (item.getRefundedQuantity() != null && item.getRefundedQuantity() > 0) {
+            builder.append("  (refunded ").append(item.getRefundedQuantity());
+            if (item.getRefundAmount() != null) {
+                builder.append(", ").append(currency(item.getRefundAmount()));
+            }
+            if (item.getRefundReason() != null) {
+                builder.append(": ").append(item.getRefundReason());
+            }
+            builder.append(")");
+        }
+        return builder.toString();
+    }
+
+    private String describePayments(List<PaymentMethodEntry> payments) {
+        List<String> parts = new ArrayList<>(payments.size());
+        for (PaymentMethodEntry payment : payments) {
+            String part = payment.getPaymentMethod() + " " + currency(payment.getAmount());
+            if (payment.getReferenceNumber() != null && !payment.getReferenceNumber().isBlank()) {
+                part += " (ref " + payment.getReferenceNumber() + ")";
+            }
+            parts.add(part);
+        }
+        return "Payments: " + String.join(", ", parts);
+    }
+
+    // ---------------- INVENTORY SECTIONS ----------------
+
+    private void writeProductTable(PdfPageWriter writer, List<ProductDetailsDTO> products, String emptyMessage) throws IOException {
+        if (products == null || products.isEmpty()) {
+            writer.muted(emptyMessage);
+            return;
+        }
+        writer.beginTable(
+                List.of("Product", "Category", "Supplier", "Qty", "Low", "Over", "Unit Price"),
+                new float[]{30, 16, 18, 8, 8, 8, 14},
+                new boolean[]{false, false, false, true, true, true, true},
+                8
+        );
+        for (ProductDetailsDTO product : products) {
+            writer.row(List.of(
+                    nullToDash(product.getProductName()),
+                    nullToDash(product.getCategoryName()),
+                    nullToDash(product.getSupplierName()),
+                    numberOrDash(product.getQuantity()),
+                    numberOrDash(product.getLowLevelThreshold()),
+                    numberOrDash(product.getOverstockedThreshold()),
+                    currency(product.getUnitPrice())
+            ));
+        }
+        writer.endTable();
+    }
+
+    private void writeTopSellingTable(PdfPageWriter writer, List<TopSellingProductDTO> products) throws IOException {
+        if (products == null || products.isEmpty()) {
+            writer.muted("No sales recorded.");
+            return;
+        }
+        writer.beginTable(
+                List.of("Product", "Category", "Unit Price", "Sold", "Revenue"),
+                new float[]{34, 20, 16, 10, 20},
+                new boolean[]{false, false, true, true, true},
+                8
+        );
+        for (TopSellingProductDTO product : products) {
+            writer.row(List.of(
+                    nullToDash(product.productName()),
+                    nullToDash(product.categoryName()),
+                    currency(product.unitPrice()),
+                    product.totalSold() != null ? String.valueOf(product.totalSold()) : "0",
+                    currency(product.totalRevenue())
+            ));
+        }
+        writer.endTable();
+    }
+
+    // ---------------- SHARED ----------------
+
+    private void writeDocumentHeader(PdfPageWriter writer, ReportMetadata metadata, String title) throws IOException {
+        Instant generatedAt = metadata != null && metadata.getGeneratedAt() != null ? metadata.getGeneratedAt() : Instant.now();
+        String generatedBy = metadata != null && metadata.getGeneratedBy() != null ? metadata.getGeneratedBy() : "System";
+
+        writer.centered(CLINIC_NAME, PdfPageWriter.BOLD, 16, TEXT);
+        writer.centered(title, PdfPageWriter.REGULAR, 10, MUTED);
+        writer.centered("Generated: " + GENERATED_AT.format(generatedAt.atZone(ZONE)) + " by " + generatedBy,
+                PdfPageWriter.REGULAR, 8, MUTED);
+        writer.gap(6);
+    }
+
+    private void logThroughput(String report, int pages, long startedAtNanos) {
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedAtNanos) / 1_000_000);
+        logger.info("Rendered {} PDF: {} page(s) in {} ms ({} pages/s)",
+                report, pages, elapsedMs, String.format(Locale.US, "%.1f", pages * 1000.0 / elapsedMs));
+    }
+
+    private static String currency(BigDecimal value) {
+        return String.format(Locale.US, "PHP %,.2f", value != null ? value : BigDecimal.ZERO);
+    }
+
+    private static String formatPeriodDate(LocalDate date) {
+        return date != null ? PERIOD_DATE.format(date) : "-";
+    }
+
+    private static String nullToDash(String value) {
+        return value != null && !value.isBlank() ? value : "-";
+    }
+
+    private static String numberOrDash(Integer value) {
+        return value != null ? String.valueOf(value) : "-";
+    }
+}
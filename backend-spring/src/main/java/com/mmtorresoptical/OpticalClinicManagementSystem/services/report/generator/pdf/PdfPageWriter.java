@@ -0,0 +1,330 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.generator.pdf;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.awt.Color;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Cursor-based A4 layout over a single PDDocument.
+ *
+ * Content is drawn top to bottom; when the next block does not fit, the current page's content
+ * stream is closed and a new page is started. The document is backed by a temp-file scratch buffer,
+ * so a closed page is no longer held on the heap and memory stays bounded by one page of content.
+ * Tables repeat their header row on every page they span.
+ */
+final class PdfPageWriter implements Closeable {
+
+    static final PDFont REGULAR = PDType1Font.HELVETICA;
+    static final PDFont BOLD = PDType1Font.HELVETICA_BOLD;
+    static final PDFont ITALIC = PDType1Font.HELVETICA_OBLIQUE;
+
+    private static final PDRectangle PAGE_SIZE = PDRectangle.A4;
+    private static final float MARGIN = 40f;
+    private static final float FOOTER_HEIGHT = 20f;
+    private static final float CELL_PADDING = 3f;
+
+    private static final Color TEXT = new Color(30, 41, 59);
+    private static final Color MUTED = new Color(110, 110, 110);
+    private static final Color RULE = new Color(200, 200, 200);
+    private static final Color HEADER_FILL = new Color(30, 41, 59);
+    private static final Color STRIPE_FILL = new Color(248, 250, 252);
+
+    private final PDDocument document;
+    private final String footerLabel;
+
+    private PDPageContentStream stream;
+    private float y;
+    private int pageCount;
+
+    private Table activeTable;
+    private boolean stripe;
+
+    PdfPageWriter(String footerLabel) throws IOException {
+        this.document = new PDDocument(MemoryUsageSetting.setupTempFileOnly());
+        this.footerLabel = footerLabel;
+        startPage();
+    }
+
+    float contentWidth() {
+        return PAGE_SIZE.getWidth() - MARGIN * 2;
+    }
+
+    int pageCount() {
+        return pageCount;
+    }
+
+    // ---------------- TEXT ----------------
+
+    void centered(String text, PDFont font, float size, Color color) throws IOException {
+        String safe = sanitize(text, font);
+        float width = textWidth(safe, font, size);
+        ensureSpace(size + 4);
+        drawText(safe, font, size, color, (PAGE_SIZE.getWidth() - width) / 2, y - size);
+        y -= size + 4;
+    }
+
+    void heading(String text) throws IOException {
+        endTable();
+        ensureSpace(30);
+        y -= 8;
+        drawText(fit(text, BOLD, 12, contentWidth()), BOLD, 12, TEXT, MARGIN, y - 12);
+        y -= 18;
+    }
+
+    void line(String text, PDFont font, float size, Color color) throws IOException {
+        line(text, font, size, color, 0);
+    }
+
+    void line(String text, PDFont font, float size, Color color, float indent) throws IOException {
+        ensureSpace(size + 4);
+        drawText(fit(text, font, size, contentWidth() - indent), font, size, color, MARGIN + indent, y - size);
+        y -= size + 4;
+    }
+
+    void muted(String text) throws IOException {
+        line(text, ITALIC, 9, MUTED);
+    }
+
+    void rule() throws IOException {
+        endTable();
+        ensureSpace(10);
+        y -= 5;
+        stream.setStrokingColor(RULE);
+        stream.setLineWidth(0.5f);
+        stream.moveTo(MARGIN, y);
+        stream.lineTo(PAGE_SIZE.getWidth() - MARGIN, y);
+        stream.stroke();
+        y -= 5;
+    }
+
+    void gap(float height) {
+        y -= height;
+    }
+
+    // ---------------- TABLES ----------------
+
+    /**
+     * Starts a table. Widths are relative weights scaled to the content width;
+     * rightAligned marks numeric columns.
+     */
+    void beginTable(List<String> headers, float[] weights, boolean[] rightAligned, float fontSize) throws IOException {
+        endTable();
+        float total = 0;
+        for (float weight : weights) {
+            total += weight;
+        }
+        float[] widths = new float[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            widths[i] = contentWidth() * weights[i] / total;
+        }
+
+        activeTable = new Table(headers, widths, rightAligned, fontSize);
+        stripe = false;
+        ensureSpace(activeTable.rowHeight() * 2);
+        drawHeaderRow();
+    }
+
+    void row(List<String> cells) throws IOException {
+        row(cells, REGULAR, TEXT);
+    }
+
+    void row(List<String> cells, PDFont font, Color color) throws IOException {
+        Table table = requireTable();
+        ensureSpace(table.rowHeight());
+
+        if (stripe) {
+            fillRect(MARGIN, y - table.rowHeight(), contentWidth(), table.rowHeight(), STRIPE_FILL);
+        }
+        stripe = !stripe;
+
+        drawCells(cells, font, color);
+    }
+
+    /**
+     * A full-width line of detail text under the previous row, e.g. the items of a transaction.
+     */
+    void detailRow(String text) throws IOException {
+        Table table = requireTable();
+        float size = table.fontSize() - 1;
+        ensureSpace(size + CELL_PADDING * 2);
+        drawText(fit(text, REGULAR, size, contentWidth() - 24), REGULAR, size, MUTED, MARGIN + 18, y - CELL_PADDING - size);
+        y -= size + CELL_PADDING * 2;
+    }
+
+    void endTable() {
+        if (activeTable != null) {
+            activeTable = null;
+            y -= 6;
+        }
+    }
+
+    // ---------------- OUTPUT ----------------
+
+    /**
+     * Closes the last page and writes the document. The writer is closed afterwards either way.
+     */
+    void save(OutputStream outputStream) throws IOException {
+        try {
+            finishPage();
+            document.save(outputStream);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        } finally {
+            document.close();
+        }
+    }
+
+    // ---------------- PAGE HANDLING ----------------
+
+    private void ensureSpace(float height) throws IOException {
+        if (y - height >= MARGIN + FOOTER_HEIGHT) {
+            return;
+        }
+        finishPage();
+        startPage();
+        if (activeTable != null) {
+            stripe = false;
+            drawHeaderRow();
+        }
+    }
+
+    private void startPage() throws IOException {
+        PDPage page = new PDPage(PAGE_SIZE);
+        document.addPage(page);
+        stream = new PDPageContentStream(document, page);
+        pageCount++;
+        y = PAGE_SIZE.getHeight() - MARGIN;
+    }
+
+    private void finishPage() throws IOException {
+        if (stream == null) {
+            return;
+        }
+        String footer = sanitize(footerLabel + "  |  Page " + pageCount, REGULAR);
+        float width = textWidth(footer, REGULAR, 8);
+        drawText(footer, REGULAR, 8, MUTED, PAGE_SIZE.getWidth() - MARGIN - width, MARGIN / 2);
+        stream.close();
+        stream = null;
+    }
+
+    // ---------------- DRAWING ----------------
+
+    private void drawHeaderRow() throws IOException {
+        fillRect(MARGIN, y - activeTable.rowHeight(), contentWidth(), activeTable.rowHeight(), HEADER_FILL);
+        drawCells(activeTable.headers(), BOLD, Color.WHITE);
+    }
+
+    private void drawCells(List<String> cells, PDFont font, Color color) throws IOException {
+        Table table = activeTable;
+        float size = table.fontSize();
+        float x = MARGIN;
+        float baseline = y - CELL_PADDING - size;
+
+        for (int i = 0; i < table.widths().length; i++) {
+            float width = table.widths()[i];
+            String value = i < cells.size() && cells.get(i) != null ? cells.get(i) : "";
+            String text = fit(value, font, size, width - CELL_PADDING * 2);
+            float textX = table.rightAligned()[i]
+                    ? x + width - CELL_PADDING - textWidth(text, font, size)
+                    : x + CELL_PADDING;
+            drawText(text, font, size, color, textX, baseline);
+            x += width;
+        }
+        y -= table.rowHeight();
+    }
+
+    private void drawText(String text, PDFont font, float size, Color color, float x, float baselineY) throws IOException {
+        if (text.isEmpty()) {
+            return;
+        }
+        stream.beginText();
+        stream.setFont(font, size);
+        stream.setNonStrokingColor(color);
+        stream.newLineAtOffset(x, baselineY);
+        stream.showText(text);
+        stream.endText();
+    }
+
+    private void fillRect(float x, float bottom, float width, float height, Color color) throws IOException {
+        stream.setNonStrokingColor(color);
+        stream.addRect(x, bottom, width, height);
+        stream.fill();
+    }
+
+    private Table requireTable() {
+        if (activeTable == null) {
+            throw new IllegalStateException("No table started");
+        }
+        return activeTable;
+    }
+
+    // ---------------- TEXT MEASUREMENT ----------------
+
+    private static float textWidth(String text, PDFont font, float size) throws IOException {
+        return font.getStringWidth(text) / 1000f * size;
+    }
+
+    /**
+     * Sanitizes the text and truncates it with an ellipsis so it fits the given width.
+     */
+    private static String fit(String text, PDFont font, float size, float maxWidth) throws IOException {
+        String safe = sanitize(text, font);
+        if (textWidth(safe, font, size) <= maxWidth) {
+            return safe;
+        }
+        float ellipsis = textWidth("...", font, size);
+        int end = safe.length();
+        while (end > 0 && textWidth(safe.substring(0, end), font, size) + ellipsis > maxWidth) {
+            end--;
+        }
+        return safe.substring(0, end) + "...";
+    }
+
+    // The standard 14 fonts only cover WinAnsi; anything else (emoji, CJK, the peso sign) becomes '?'
+    private static String sanitize(String text, PDFont font) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        text.codePoints().forEach(codePoint -> {
+            if (Character.isISOControl(codePoint)) {
+                builder.append(' ');
+                return;
+            }
+            String ch = new String(Character.toChars(codePoint));
+            try {
+                font.encode(ch);
+                builder.append(ch);
+            } catch (IOException | IllegalArgumentException unsupported) {
+                builder.append('?');
+            }
+        });
+        return builder.toString();
+    }
+
+    private record Table(List<String> headers, float[] widths, boolean[] rightAligned, float fontSize) {
+        float rowHeight() {
+            return fontSize + CELL_PADDING * 2 + 2;
+        }
+    }
+}
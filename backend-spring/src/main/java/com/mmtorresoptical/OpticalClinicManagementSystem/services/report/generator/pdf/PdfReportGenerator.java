@@ -0,0 +1,14 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.generator.pdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ComprehensiveInventoryReportDataset;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionEntryCursor;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf.TransactionReportOutline;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PdfReportGenerator {
+    void writeTransactionReport(TransactionReportOutline outline, TransactionEntryCursor entries, OutputStream outputStream) throws IOException;
+
+    void writeInventoryReport(ComprehensiveInventoryReportDataset dataset, OutputStream outputStream) throws IOException;
+}
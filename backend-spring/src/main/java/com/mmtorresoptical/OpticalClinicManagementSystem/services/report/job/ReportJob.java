@@ -0,0 +1,123 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.job;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.report.ReportJobResponseDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportFormat;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportJobStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * In-memory state of one background report job.
+ *
+ * Only the worker thread writes; request threads read. Result fields are assigned before the
+ * volatile status, so a reader that sees COMPLETED also sees the file they describe.
+ */
+public class ReportJob {
+
+    /**
+     * Identical requests share one job while it is in flight or its result is still cached.
+     */
+    public record Key(ReportType reportType, ReportFormat format, LocalDate minDate, LocalDate maxDate) {}
+
+    private final UUID id;
+    private final Key key;
+    private final Instant submittedAt;
+
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile Instant expiresAt;
+    private volatile Path file;
+    private volatile String filename;
+    private volatile String contentType;
+    private volatile Long sizeBytes;
+    private volatile String errorMessage;
+
+    ReportJob(Key key, Instant submittedAt) {
+        this.id = UUID.randomUUID();
+        this.key = key;
+        this.submittedAt = submittedAt;
+    }
+
+    void markRunning(Instant now) {
+        startedAt = now;
+        status = ReportJobStatus.RUNNING;
+    }
+
+    void markCompleted(Path file, String filename, String contentType, long sizeBytes, Instant now, Instant expiresAt) {
+        this.file = file;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.completedAt = now;
+        this.expiresAt = expiresAt;
+        this.status = ReportJobStatus.COMPLETED;
+    }
+
+    void markFailed(String errorMessage, Instant now, Instant expiresAt) {
+        this.errorMessage = errorMessage;
+        this.completedAt = now;
+        this.expiresAt = expiresAt;
+        this.status = ReportJobStatus.FAILED;
+    }
+
+    boolean isExpired(Instant now) {
+        Instant expiry = expiresAt;
+        return expiry != null && !expiry.isAfter(now);
+    }
+
+    // Queued and running jobs are always joined; finished ones only while their result is cached
+    boolean canBeShared(Instant now) {
+        return switch (status) {
+            case QUEUED, RUNNING -> true;
+            case COMPLETED -> !isExpired(now);
+            case FAILED -> false;
+        };
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public ReportJobResponseDTO toResponse() {
+        return new ReportJobResponseDTO(
+                id,
+                key.reportType(),
+                key.format(),
+                key.minDate(),
+                key.maxDate(),
+                status,
+                submittedAt,
+                startedAt,
+                completedAt,
+                expiresAt,
+                sizeBytes,
+                filename,
+                errorMessage
+        );
+    }
+}
@@ -0,0 +1,224 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.job;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportFormat;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportJobStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ReportType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.BadRequestException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ConflictException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.ResourceNotFoundException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.TooManyRequestsException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ReportExportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs report exports in the background so large reports do not hold a request thread
+ * and a database connection for their whole duration.
+ *
+ * Each report type has its own small bounded pool, so a burst of year-end transaction exports
+ * cannot starve the other report types, and a full queue is rejected instead of piling up.
+ * A request identical to a queued, running or still-cached job returns that job. Finished
+ * results are written to disk and deleted once their TTL passes.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    private final ReportExportService reportExportService;
+    private final Path resultDir;
+    private final Duration resultTtl;
+
+    private final Map<ReportType, ThreadPoolExecutor> executors = new EnumMap<>(ReportType.class);
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<ReportJob.Key, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    public ReportJobService(
+            ReportExportService reportExportService,
+            @Value("${app.report.jobs.dir:report-jobs}") String resultDir,
+            @Value("${app.report.jobs.result-ttl:PT30M}") Duration resultTtl,
+            @Value("${app.report.jobs.concurrency-per-type:1}") int concurrencyPerType,
+            @Value("${app.report.jobs.queue-capacity-per-type:10}") int queueCapacityPerType) {
+        this.reportExportService = reportExportService;
+        this.resultDir = Paths.get(resultDir).toAbsolutePath().normalize();
+        this.resultTtl = resultTtl;
+
+        prepareResultDir();
+
+        int threads = Math.max(1, concurrencyPerType);
+        for (ReportType reportType : ReportType.values()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    threads, threads,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacityPerType)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "report-job-" + reportType.name().toLowerCase() + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(reportType, executor);
+        }
+    }
+
+    public ReportJob submit(ReportType reportType, ReportFormat format, LocalDate minDate, LocalDate maxDate) {
+        if (minDate != null && maxDate != null && minDate.isAfter(maxDate)) {
+            throw new BadRequestException("minDate must not be after maxDate.");
+        }
+        reportExportService.checkSupported(reportType, format);
+
+        ReportJob.Key key = new ReportJob.Key(reportType, format, minDate, maxDate);
+
+        // Serialized so two identical submissions cannot both miss the lookup and start two jobs
+        synchronized (jobsByKey) {
+            Instant now = Instant.now();
+            ReportJob existing = jobsByKey.get(key);
+            if (existing != null && existing.canBeShared(now)) {
+                return existing;
+            }
+
+            ReportJob job = new ReportJob(key, now);
+            try {
+                // The submitter's authentication is carried over so the report shows who generated it
+                executors.get(reportType).execute(new DelegatingSecurityContextRunnable(() -> run(job)));
+            } catch (RejectedExecutionException ex) {
+                throw new TooManyRequestsException(
+                        "Too many " + reportType.getDisplayTitle() + " reports are being generated. Please try again shortly.");
+            }
+
+            jobs.put(job.getId(), job);
+            jobsByKey.put(key, job);
+            return job;
+        }
+    }
+
+    public ReportJob getJob(UUID jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundException("Report job not found or expired: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the job if its file is ready to download.
+     */
+    public ReportJob getCompletedJob(UUID jobId) {
+        ReportJob job = getJob(jobId);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ConflictException("Report job is " + job.getStatus().name().toLowerCase() + ", not ready for download.");
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${app.report.jobs.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+
+        for (ReportJob job : jobs.values()) {
+            if (!job.isExpired(now)) {
+                continue;
+            }
+            jobs.remove(job.getId());
+            jobsByKey.remove(job.getKey(), job);
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            purged++;
+        }
+
+        if (purged > 0) {
+            log.debug("Purged {} expired report job(s)", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private void run(ReportJob job) {
+        ReportJob.Key key = job.getKey();
+        job.markRunning(Instant.now());
+        long startedAt = System.currentTimeMillis();
+
+        Path partial = resultDir.resolve(job.getId() + ".part");
+        try {
+            ReportExportService.ReportOutput output =
+                    reportExportService.prepare(key.reportType(), key.format(), key.minDate(), key.maxDate());
+
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                output.writer().writeTo(outputStream);
+            }
+
+            Path target = resultDir.resolve(job.getId().toString());
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Instant now = Instant.now();
+            job.markCompleted(target, output.filename(), output.contentType(), Files.size(target), now, now.plus(resultTtl));
+
+            log.info("Report job {} ({} {} {}..{}) completed in {} ms",
+                    job.getId(), key.reportType(), key.format(), key.minDate(), key.maxDate(),
+                    System.currentTimeMillis() - startedAt);
+        } catch (Exception ex) {
+            log.error("Report job {} ({} {}) failed", job.getId(), key.reportType(), key.format(), ex);
+            deleteQuietly(partial);
+
+            Instant now = Instant.now();
+            job.markFailed(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName(), now, now.plus(resultTtl));
+            // A failed job stays visible for polling but must not absorb the next identical request
+            jobsByKey.remove(key, job);
+        }
+    }
+
+    // Results do not survive a restart (job state is in memory), so leftovers are removed at startup
+    private void prepareResultDir() {
+        try {
+            Files.createDirectories(resultDir);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(resultDir)) {
+                for (Path leftover : leftovers) {
+                    if (Files.isRegularFile(leftover)) {
+                        deleteQuietly(leftover);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not prepare report job directory: " + resultDir, ex);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete report job file {}: {}", path, ex.getMessage());
+        }
+    }
+}
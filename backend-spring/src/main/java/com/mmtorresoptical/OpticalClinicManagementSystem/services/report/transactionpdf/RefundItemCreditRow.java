@@ -0,0 +1,9 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record RefundItemCreditRow(UUID transactionItemId,
+                                  BigDecimal itemCreditAmount,
+                                  String refundReason) {
+}
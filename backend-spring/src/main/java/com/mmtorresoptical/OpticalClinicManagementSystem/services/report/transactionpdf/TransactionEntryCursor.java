@@ -0,0 +1,20 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+
+import java.io.IOException;
+
+/**
+ * Hands out the transactions of one status group in report order, a page at a time, so only
+ * the page being rendered is held in memory.
+ */
+@FunctionalInterface
+public interface TransactionEntryCursor {
+
+    void forEachEntry(TransactionStatus status, EntryHandler handler) throws IOException;
+
+    @FunctionalInterface
+    interface EntryHandler {
+        void accept(TransactionEntry entry) throws IOException;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.RefundStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionHeaderRow(UUID transactionId,
+                                   String transactionNumber,
+                                   LocalDateTime transactionDate,
+                                   BigDecimal totalAmount,
+                                   BigDecimal amountPaid,
+                                   BigDecimal balanceDue,
+                                   TransactionStatus status,
+                                   RefundStatus refundStatus,
+                                   String voidReason,
+                                   LocalDateTime voidedAt,
+                                   String patientFirstName,
+                                   String patientLastName,
+                                   String cashierFirstName,
+                                   String cashierLastName,
+                                   String voidedByFirstName,
+                                   String voidedByLastName) {
+}
@@ -0,0 +1,17 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.DiscountType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record TransactionItemRow(UUID transactionId,
+                                 UUID transactionItemId,
+                                 String productName,
+                                 Integer quantity,
+                                 BigDecimal unitPrice,
+                                 BigDecimal subtotal,
+                                 DiscountType discountType,
+                                 BigDecimal discountValue,
+                                 Integer refundedQuantity) {
+}
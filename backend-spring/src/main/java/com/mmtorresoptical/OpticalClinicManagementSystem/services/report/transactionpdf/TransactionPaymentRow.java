@@ -0,0 +1,15 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionPaymentRow(UUID transactionId,
+                                    BigDecimal amount,
+                                    PaymentMethod paymentMethod,
+                                    String gcashNumber,
+                                    String referenceNumber,
+                                    LocalDateTime createdAt) {
+}
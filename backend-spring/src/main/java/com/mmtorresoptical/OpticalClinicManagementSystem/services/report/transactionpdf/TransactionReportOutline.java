@@ -0,0 +1,31 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.report.ReportMetadata;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Everything the transaction PDF needs before its first row: the resolved period, the summary
+ * and the size of each status group. The transactions themselves are read page by page
+ * through a {@link TransactionEntryCursor} while the document is written.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionReportOutline {
+    private ReportMetadata metadata;
+    private LocalDate minDate;
+    private LocalDate maxDate;
+    private TransactionReportSummary summary;
+    // Non-empty groups only, in DEPOSIT, PAID, VOIDED order
+    private Map<TransactionStatus, Long> statusCounts;
+    @Builder.Default
+    private String emptyMessage = "No transactions available.";
+}
@@ -0,0 +1,12 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.report.transactionpdf;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.RefundStatus;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+
+public record TransactionStatusTotalRow(TransactionStatus status,
+                                        RefundStatus refundStatus,
+                                        Long count,
+                                        BigDecimal totalAmount) {
+}
@@ -2,17 +2,49 @@ package com.mmtorresoptical.OpticalClinicManagementSystem.specification;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.Sex;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.Patient;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.PatientSearchToken;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 public class PatientSpecification {
+    /**
+     * Matches patients whose blind index holds every given token hash
+     * (see PatientSearchIndexService). An empty token list matches nothing.
+     */
+    public static Specification<Patient> hasAllSearchTokens(List<String> tokenHashes) {
+        return (root, query, cb) -> {
+            if (tokenHashes.isEmpty()) {
+                return cb.disjunction();
+            }
+
+            Subquery<UUID> matches = query.subquery(UUID.class);
+            Root<PatientSearchToken> token = matches.from(PatientSearchToken.class);
+            matches.select(token.get("patientId"))
+                    .where(token.get("tokenHash").in(tokenHashes))
+                    .groupBy(token.get("patientId"))
+                    .having(cb.equal(cb.countDistinct(token.get("tokenHash")), (long) tokenHashes.size()));
+
+            return root.get("patientId").in(matches);
+        };
+    }
+
+    /**
+     * Substring match on the plaintext sortable full name. Used for keywords too short for the
+     * blind index; LIKE wildcards in the keyword are matched literally.
+     */
     public static Specification<Patient> nameContains(String keyword) {
-        return (root, query, cb) ->
-                cb.like(
-                        cb.lower(root.get("fullNameSortable")),
-                        "%" + keyword.toLowerCase() + "%"
-                );
+        return (root, query, cb) -> {
+            String escaped = keyword.toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+            return cb.like(cb.lower(root.get("fullNameSortable")), "%" + escaped + "%", '\\');
+        };
     }
 
     public static Specification<Patient> hasId(UUID patientId) {
@@ -29,14 +61,6 @@ public class PatientSpecification {
         };
     }
 
-    public static Specification<Patient> contactNumberContains(String keyword) {
-        return (root, query, cb) ->
-                cb.like(
-                        cb.lower(root.get("contactNumber")),
-                        "%" + keyword.toLowerCase() + "%"
-                );
-    }
-
     public static Specification<Patient> hasArchivedStatus(String status) {
         return (root, query, cb) -> {
 
@@ -1,23 +1,21 @@
 package com.mmtorresoptical.OpticalClinicManagementSystem.specification;
 
 import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ProductType;
-import com.mmtorresoptical.OpticalClinicManagementSystem.enums.TransactionStatus;
 import com.mmtorresoptical.OpticalClinicManagementSystem.model.Product;
-import com.mmtorresoptical.OpticalClinicManagementSystem.model.TransactionItem;
-import com.mmtorresoptical.OpticalClinicManagementSystem.model.Transaction;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.ProductDailySales;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.ProductSalesVelocityService;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class ProductSpecification {
 
     /**
-     * Builds a correlated subquery expression for the hybrid reorder threshold:
+     * Builds the hybrid reorder threshold expression:
      * GREATEST(lowLevelThreshold, round(dailyVelocity × leadTimeDays) + 2)
-     * where dailyVelocity = net units sold in last 30 days / 30.
+     * where dailyVelocity = net units sold in last 30 days / 30, read from the daily sales rollup.
      *
      * Uses integer arithmetic: round(v/30 * lt) = (v * lt + 15) / 30
      */
@@ -26,18 +24,13 @@ public class ProductSpecification {
             CriteriaQuery<?> query,
             CriteriaBuilder cb) {
 
-        // Correlated subquery: net units sold in last 30 days
+        // Net units sold in the velocity window — at most 30 rollup rows per product
         Subquery<Integer> velocitySub = query.subquery(Integer.class);
-        Root<TransactionItem> ti = velocitySub.from(TransactionItem.class);
-        Join<TransactionItem, Transaction> t = ti.join("transaction");
-        velocitySub.select(cb.sum(
-                cb.diff(ti.get("quantity"), cb.coalesce(ti.get("refundedQuantity"), 0))
-        ));
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        Root<ProductDailySales> sales = velocitySub.from(ProductDailySales.class);
+        velocitySub.select(cb.sum(sales.get("unitsSold")));
         velocitySub.where(cb.and(
-                cb.equal(ti.get("product"), root),
-                t.get("transactionStatus").in(TransactionStatus.PAID, TransactionStatus.DEPOSIT),
-                cb.greaterThanOrEqualTo(t.get("transactionDate"), thirtyDaysAgo)
+                cb.equal(sales.get("productId"), root.get("productId")),
+                cb.greaterThanOrEqualTo(sales.get("salesDate"), ProductSalesVelocityService.windowStart())
         ));
 
         // velocity = COALESCE(subquery, 0)
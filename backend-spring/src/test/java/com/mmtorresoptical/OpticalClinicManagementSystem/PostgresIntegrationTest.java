@@ -0,0 +1,147 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ProductType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Category;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Product;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Supplier;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.User;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.CategoryRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.SupplierRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.UserRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.security.CustomUserDetails;
+import com.mmtorresoptical.OpticalClinicManagementSystem.services.controller.DatabaseBackupService;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the application against a throwaway Postgres container, for tests that depend on real
+ * row locks, upserts and constraints. Skipped when no Docker daemon is available.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "app.jwt.secret=integration-test-jwt-secret-at-least-256-bits-long",
+        "encryption.secret-key=000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f",
+        "hash.pepper=integration-test-pepper"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        // Room for every worker thread plus the sequencer's REQUIRES_NEW connections
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "40");
+    }
+
+    // Keeps the shutdown hook from running pg_dump against the container
+    @MockitoBean
+    protected DatabaseBackupService databaseBackupService;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected SupplierRepository supplierRepository;
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /** Signs the current thread in as the seeded admin, as the JWT filter would for a request. */
+    protected void signInAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(adminAuthentication());
+    }
+
+    /**
+     * Runs {@code tasks} calls on {@code threads} threads, all released at once, each signed in as
+     * the seeded admin. Returns one future per call, already completed, in submission order.
+     */
+    protected <T> List<Future<T>> runConcurrently(int tasks, int threads, Callable<T> task) throws InterruptedException {
+        Authentication authentication = adminAuthentication();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>(tasks);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    try {
+                        return task.call();
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<T> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ignored) {
+                    // Inspected by the caller
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return futures;
+    }
+
+    private Authentication adminAuthentication() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        return new UsernamePasswordAuthenticationToken(new CustomUserDetails(admin), null, List.of());
+    }
+
+    protected Product createProduct(ProductType productType, BigDecimal unitPrice) {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Category category = categoryRepository.findAll().get(0);
+        Supplier supplier = supplierRepository.findAll().get(0);
+
+        Product product = new Product();
+        product.setProductName("Test product " + UUID.randomUUID().toString().substring(0, 8));
+        product.setCategory(category);
+        product.setSupplier(supplier);
+        product.setUnitPrice(unitPrice);
+        product.setProductType(productType);
+        product.setQuantity(0);
+        product.setLowLevelThreshold(0);
+        product.setOverstockedThreshold(0);
+        product.setUser(admin);
+        return productRepository.save(product);
+    }
+}
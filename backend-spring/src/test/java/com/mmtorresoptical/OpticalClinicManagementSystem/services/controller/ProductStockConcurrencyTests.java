@@ -0,0 +1,108 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.controller;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.PostgresIntegrationTest;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.batch.AddStockRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.batch.RemoveStockRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transaction.TransactionRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transactionitem.TransactionItemsRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ProductType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.InsufficientStockException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Product;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.ProductBatch;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.ProductBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many concurrent sales and stock removals against one product with a single batch.
+ * Whatever the interleaving, exactly the stocked units are handed out and every other
+ * request is turned away as insufficient stock, never as a lock or version error.
+ */
+class ProductStockConcurrencyTests extends PostgresIntegrationTest {
+
+    private static final int STOCK = 20;
+    private static final int REQUESTS = 48;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+
+    private Product product;
+    private ProductBatch batch;
+
+    @BeforeEach
+    void stockOneBatch() {
+        signInAsAdmin();
+        product = createProduct(ProductType.PHYSICAL, new BigDecimal("50.00"));
+
+        AddStockRequestDTO stock = new AddStockRequestDTO();
+        stock.setBatchNumber("STRESS-1");
+        stock.setQuantity(STOCK);
+        batch = productBatchService.addStock(product.getProductId(), stock);
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversellABatch() throws Exception {
+        List<Future<Object>> results = runConcurrently(REQUESTS, THREADS, () ->
+                transactionService.createTransaction(checkoutOfOne()));
+
+        assertOnlyStockedUnitsWereHandedOut(results);
+    }
+
+    @Test
+    void concurrentRemovalsFromASpecificBatchNeverOverdrawIt() throws Exception {
+        List<Future<Object>> results = runConcurrently(REQUESTS, THREADS, () -> {
+            RemoveStockRequestDTO removal = new RemoveStockRequestDTO();
+            removal.setProductBatchId(batch.getProductBatchId());
+            removal.setQuantity(1);
+            removal.setReason("Stress test");
+            productBatchService.removeStock(product.getProductId(), removal);
+            return null;
+        });
+
+        assertOnlyStockedUnitsWereHandedOut(results);
+    }
+
+    private void assertOnlyStockedUnitsWereHandedOut(List<Future<Object>> results) throws InterruptedException {
+        int succeeded = 0;
+        for (Future<Object> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(InsufficientStockException.class);
+            }
+        }
+
+        assertThat(succeeded).isEqualTo(STOCK);
+        assertThat(productBatchRepository.findById(batch.getProductBatchId()).orElseThrow().getQuantityRemaining())
+                .isZero();
+        assertThat(productRepository.findById(product.getProductId()).orElseThrow().getQuantity())
+                .isZero();
+    }
+
+    private TransactionRequestDTO checkoutOfOne() {
+        TransactionItemsRequestDTO item = new TransactionItemsRequestDTO();
+        item.setProductId(product.getProductId());
+        item.setQuantity(1);
+
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setItems(List.of(item));
+        request.setAmountTendered(new BigDecimal("50.00"));
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.controller;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.PostgresIntegrationTest;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transaction.TransactionRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transaction.TransactionResponseDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.dto.transactionitem.TransactionItemsRequestDTO;
+import com.mmtorresoptical.OpticalClinicManagementSystem.enums.ProductType;
+import com.mmtorresoptical.OpticalClinicManagementSystem.exception.custom.BadRequestException;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionNumberingConcurrencyTests extends PostgresIntegrationTest {
+
+    private static final int CHECKOUTS = 1000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void parallelCheckoutsReceiveUniqueTransactionNumbers() throws Exception {
+        // A service line needs no stock, so every checkout succeeds and only numbering is exercised
+        Product service = createProduct(ProductType.SERVICE, new BigDecimal("100.00"));
+
+        List<Future<TransactionResponseDTO>> results = runConcurrently(CHECKOUTS, THREADS,
+                () -> transactionService.createTransaction(checkout(service.getProductId(), new BigDecimal("100.00"))));
+
+        List<String> numbers = new ArrayList<>(CHECKOUTS);
+        for (Future<TransactionResponseDTO> result : results) {
+            numbers.add(result.get().getTransactionNumber());
+        }
+
+        assertThat(numbers).hasSize(CHECKOUTS).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(numbers).allMatch(number -> number.matches("TXN-\\d{8}-\\d{4,}"));
+    }
+
+    @Test
+    void requestsRejectedBeforeCheckoutDoNotConsumeANumber() {
+        signInAsAdmin();
+        Product service = createProduct(ProductType.SERVICE, new BigDecimal("100.00"));
+
+        String before = transactionService
+                .createTransaction(checkout(service.getProductId(), new BigDecimal("100.00")))
+                .getTransactionNumber();
+        assertThatThrownBy(() -> transactionService.createTransaction(checkout(service.getProductId(), BigDecimal.ZERO)))
+                .isInstanceOf(BadRequestException.class);
+        String after = transactionService
+                .createTransaction(checkout(service.getProductId(), new BigDecimal("100.00")))
+                .getTransactionNumber();
+
+        assertThat(sequence(after)).isEqualTo(sequence(before) + 1);
+    }
+
+    private TransactionRequestDTO checkout(UUID productId, BigDecimal amountTendered) {
+        TransactionItemsRequestDTO item = new TransactionItemsRequestDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setItems(List.of(item));
+        request.setAmountTendered(amountTendered);
+        return request;
+    }
+
+    private long sequence(String transactionNumber) {
+        return Long.parseLong(transactionNumber.substring(transactionNumber.lastIndexOf('-') + 1));
+    }
+}
@@ -0,0 +1,94 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyRetryExecutorTests {
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Runs the callback directly; only the retry loop is under test
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void retriesConcurrencyFailuresUntilTheWorkSucceeds() {
+        ConcurrencyRetryExecutor executor = new ConcurrencyRetryExecutor(transactionTemplate, 5, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.inTransaction(() -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) throw new OptimisticLockingFailureException("stale version");
+            if (attempt == 2) throw new CannotAcquireLockException("lock timeout");
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void rethrowsTheLastConflictAfterMaxAttempts() {
+        ConcurrencyRetryExecutor executor = new ConcurrencyRetryExecutor(transactionTemplate, 3, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        OptimisticLockingFailureException conflict = new OptimisticLockingFailureException("stale version");
+
+        assertThatThrownBy(() -> executor.inTransaction(() -> {
+            attempts.incrementAndGet();
+            throw conflict;
+        })).isSameAs(conflict);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        ConcurrencyRetryExecutor executor = new ConcurrencyRetryExecutor(transactionTemplate, 5, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.inTransaction(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate key");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void treatsNonPositiveMaxAttemptsAsOneAttempt() {
+        ConcurrencyRetryExecutor executor = new ConcurrencyRetryExecutor(transactionTemplate, 0, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.inTransaction(() -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale version");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void backoffDoublesPerAttemptWithJitterInTheUpperHalf() {
+        ConcurrencyRetryExecutor executor = new ConcurrencyRetryExecutor(transactionTemplate, 5, 20);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(executor.backoffDelayMs(1)).isBetween(10L, 20L);
+            assertThat(executor.backoffDelayMs(2)).isBetween(20L, 40L);
+            assertThat(executor.backoffDelayMs(4)).isBetween(80L, 160L);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.DocumentSequenceRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.RefundReceiptRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentNumberSequencerTests {
+
+    private DocumentSequenceRepository sequenceRepository;
+    private TransactionRepository transactionRepository;
+    private RefundReceiptRepository refundReceiptRepository;
+    private String txnPrefix;
+
+    @BeforeEach
+    void setUp() {
+        sequenceRepository = mock(DocumentSequenceRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        refundReceiptRepository = mock(RefundReceiptRepository.class);
+        txnPrefix = "TXN-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
+    }
+
+    private DocumentNumberSequencer sequencer(int blockSize) {
+        return new DocumentNumberSequencer(sequenceRepository, transactionRepository, refundReceiptRepository, blockSize);
+    }
+
+    @Test
+    void blockSizeOneAdvancesTheCounterForEveryNumber() {
+        when(sequenceRepository.advance(txnPrefix, 1)).thenReturn(5L, 6L);
+        DocumentNumberSequencer sequencer = sequencer(1);
+
+        assertThat(sequencer.nextTransactionNumber()).isEqualTo(txnPrefix + "0005");
+        assertThat(sequencer.nextTransactionNumber()).isEqualTo(txnPrefix + "0006");
+        verify(sequenceRepository, times(2)).advance(txnPrefix, 1);
+    }
+
+    @Test
+    void servesAWholeBlockFromMemoryBeforeReservingTheNext() {
+        // Counter row ends at 10 after the first reservation and 20 after the second
+        when(sequenceRepository.advance(txnPrefix, 10)).thenReturn(10L, 20L);
+        DocumentNumberSequencer sequencer = sequencer(10);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            numbers.add(sequencer.nextTransactionNumber());
+        }
+
+        assertThat(numbers.get(0)).isEqualTo(txnPrefix + "0001");
+        assertThat(numbers.get(9)).isEqualTo(txnPrefix + "0010");
+        assertThat(numbers.get(10)).isEqualTo(txnPrefix + "0011");
+        assertThat(numbers).doesNotHaveDuplicates();
+        verify(sequenceRepository, times(2)).advance(txnPrefix, 10);
+    }
+
+    @Test
+    void blockReservedByAnotherInstanceIsServedFromItsOwnRange() {
+        // Another instance already took 1..10, so this one is handed 11..20
+        when(sequenceRepository.advance(txnPrefix, 10)).thenReturn(20L);
+        DocumentNumberSequencer sequencer = sequencer(10);
+
+        assertThat(sequencer.nextTransactionNumber()).isEqualTo(txnPrefix + "0011");
+    }
+
+    @Test
+    void firstUseOfTheDaySeedsTheCounterAfterExistingNumbers() {
+        when(sequenceRepository.advance(txnPrefix, 10)).thenReturn(null);
+        when(transactionRepository.findMaxTransactionNumberByPrefix(txnPrefix)).thenReturn(txnPrefix + "0007");
+        when(sequenceRepository.createOrAdvance(txnPrefix, 7L, 10)).thenReturn(17L);
+        DocumentNumberSequencer sequencer = sequencer(10);
+
+        assertThat(sequencer.nextTransactionNumber()).isEqualTo(txnPrefix + "0008");
+        assertThat(sequencer.nextTransactionNumber()).isEqualTo(txnPrefix + "0009");
+        verify(sequenceRepository, times(1)).createOrAdvance(txnPrefix, 7L, 10);
+    }
+
+    @Test
+    void firstUseOfTheDayWithNoExistingNumbersStartsAtOne() {
+        when(sequenceRepository.advance(txnPrefix, 1)).thenReturn(null);
+        when(transactionRepository.findMaxTransactionNumberByPrefix(txnPrefix)).thenReturn(null);
+        when(sequenceRepository.createOrAdvance(txnPrefix, 0L, 1)).thenReturn(1L);
+
+        assertThat(sequencer(1).nextTransactionNumber()).isEqualTo(txnPrefix + "0001");
+    }
+
+    @Test
+    void transactionAndRefundNumbersUseSeparateCounters() {
+        String refPrefix = "REF-" + txnPrefix.substring("TXN-".length());
+        when(sequenceRepository.advance(txnPrefix, 1)).thenReturn(3L);
+        when(sequenceRepository.advance(refPrefix, 1)).thenReturn(1L);
+        DocumentNumberSequencer sequencer = sequencer(1);
+
+        assertThat(sequencer.nextTransactionNumber()).isEqualTo(txnPrefix + "0003");
+        assertThat(sequencer.nextRefundReceiptNumber()).isEqualTo(refPrefix + "0001");
+        verify(refundReceiptRepository, never()).findMaxReceiptNumberByPrefix(anyString());
+    }
+}
@@ -0,0 +1,105 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.helper;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Patient;
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.PatientSearchToken;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.PatientRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.repository.PatientSearchTokenRepository;
+import com.mmtorresoptical.OpticalClinicManagementSystem.security.HmacHashService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatientSearchIndexServiceTests {
+
+    private PatientSearchTokenRepository tokenRepository;
+    private PatientSearchIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository = mock(PatientSearchTokenRepository.class);
+        HmacHashService hmacHashService = mock(HmacHashService.class);
+        // Identity "hash" so tests can read which prefixes were indexed
+        when(hmacHashService.hash(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new PatientSearchIndexService(tokenRepository, mock(PatientRepository.class),
+                hmacHashService, mock(TransactionTemplate.class));
+    }
+
+    @Test
+    void nameWordsAreLowerCasedAccentStrippedAndSplitOnPunctuation() {
+        assertThat(PatientSearchIndexService.nameWords("  Peña-Dela Cruz, MARÍA  "))
+                .containsExactly("pena", "dela", "cruz", "maria");
+        assertThat(PatientSearchIndexService.nameWords("O'Neil Jr."))
+                .containsExactly("o", "neil", "jr");
+        assertThat(PatientSearchIndexService.nameWords(null)).isEmpty();
+        assertThat(PatientSearchIndexService.nameWords(" - ")).isEmpty();
+    }
+
+    @Test
+    void phoneDigitsFoldTheCountryCodeToTheLocalPrefix() {
+        assertThat(PatientSearchIndexService.phoneDigits("+63 917 123 4567")).isEqualTo("09171234567");
+        assertThat(PatientSearchIndexService.phoneDigits("0917-123-4567")).isEqualTo("09171234567");
+        assertThat(PatientSearchIndexService.phoneDigits("(0917) 123 4567")).isEqualTo("09171234567");
+        assertThat(PatientSearchIndexService.phoneDigits(null)).isEmpty();
+    }
+
+    @Test
+    void partialPhoneKeywordsWithCountryCodeMatchLocalPrefixes() {
+        assertThat(PatientSearchIndexService.phoneDigits("+63 917")).isEqualTo("0917");
+        assertThat(service.phoneQueryToken("+63917")).isEqualTo(service.phoneQueryToken("0917"));
+    }
+
+    @Test
+    void phoneKeywordsShorterThanTheIndexedPrefixAreNotSearched() {
+        assertThat(service.phoneQueryToken("091")).isEmpty();
+        assertThat(service.phoneQueryToken("abc")).isEmpty();
+        assertThat(service.phoneQueryToken("0917")).contains("phone:0917");
+    }
+
+    @Test
+    void nameQueryTokensDropOneLetterWordsAndDuplicates() {
+        assertThat(service.nameQueryTokens("Juan J. juan Dela"))
+                .containsExactly("name:juan", "name:dela");
+        assertThat(service.nameQueryTokens("J")).isEmpty();
+    }
+
+    @Test
+    void keywordsUnderThreeCharactersBypassTheIndex() {
+        assertThat(service.isShortKeyword("a")).isTrue();
+        assertThat(service.isShortKeyword(" an ")).isTrue();
+        assertThat(service.isShortKeyword("ana")).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reindexStoresWordPrefixesAndPhonePrefixesOnly() {
+        Patient patient = new Patient();
+        patient.setPatientId(UUID.randomUUID());
+        patient.setFirstName("Ana");
+        patient.setLastName("Peña");
+        patient.setContactNumber("+639171234");
+
+        service.reindex(patient);
+
+        verify(tokenRepository).deleteByPatientId(patient.getPatientId());
+        ArgumentCaptor<List<PatientSearchToken>> saved = ArgumentCaptor.forClass(List.class);
+        verify(tokenRepository).saveAll(saved.capture());
+        List<String> tokens = saved.getValue().stream().map(PatientSearchToken::getTokenHash).toList();
+
+        assertThat(tokens).containsExactlyInAnyOrder(
+                "name:an", "name:ana",
+                "name:pe", "name:pen", "name:pena",
+                "phone:0917", "phone:09171", "phone:091712", "phone:0917123", "phone:09171234");
+        // Word-prefix index: infixes such as "na" or "ena" are not searchable
+        assertThat(tokens).doesNotContain("name:na", "name:ena");
+    }
+}
@@ -0,0 +1,61 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.services.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsSnapshotCacheTests {
+
+    private final DashboardMetric metric = DashboardMetric.values()[0];
+
+    @Test
+    void waiterIsReleasedWhenTheLoaderThrowsAnError() throws Exception {
+        MetricsSnapshotCache cache = new MetricsSnapshotCache(Duration.ofMinutes(1));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch failLoader = new CountDownLatch(1);
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> cache.get(metric, () -> {
+            loaderStarted.countDown();
+            await(failLoader);
+            throw new OutOfMemoryError("simulated");
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Joins the in-flight computation rather than starting its own
+        CompletableFuture<Object> waiter = CompletableFuture.supplyAsync(() -> cache.get(metric, () -> "unused"));
+        Thread.sleep(100);
+        failLoader.countDown();
+
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+
+        // The failed computation is not cached
+        assertThat(cache.get(metric, () -> "recomputed").value()).isEqualTo("recomputed");
+    }
+
+    @Test
+    void snapshotIsReusedUntilInvalidated() {
+        MetricsSnapshotCache cache = new MetricsSnapshotCache(Duration.ofMinutes(1));
+
+        assertThat(cache.get(metric, () -> "first").value()).isEqualTo("first");
+        assertThat(cache.get(metric, () -> "second").value()).isEqualTo("first");
+
+        cache.invalidate(Set.of(metric));
+        assertThat(cache.get(metric, () -> "third").value()).isEqualTo("third");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mmtorresoptical.OpticalClinicManagementSystem.specification;
+
+import com.mmtorresoptical.OpticalClinicManagementSystem.model.Patient;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatientSpecificationTests {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nameContainsMatchesASingleCharacterAnywhereInTheName() {
+        Root<Patient> root = mock(Root.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        Path<Object> fullName = mock(Path.class);
+        Expression<String> lowered = mock(Expression.class);
+        when(root.get("fullNameSortable")).thenReturn(fullName);
+        when(cb.lower(any())).thenReturn(lowered);
+
+        PatientSpecification.nameContains("A").toPredicate(root, mock(CriteriaQuery.class), cb);
+
+        verify(cb).like(lowered, "%a%", '\\');
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nameContainsMatchesLikeWildcardsLiterally() {
+        Root<Patient> root = mock(Root.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        Path<Object> fullName = mock(Path.class);
+        Expression<String> lowered = mock(Expression.class);
+        when(root.get("fullNameSortable")).thenReturn(fullName);
+        when(cb.lower(any())).thenReturn(lowered);
+
+        PatientSpecification.nameContains("%_").toPredicate(root, mock(CriteriaQuery.class), cb);
+
+        verify(cb).like(lowered, "%\\%\\_%", '\\');
+    }
+}
@@ -45,10 +45,80 @@ export const fetchLastRestore = async (): Promise<LastBackupInfo> => {
   return data;
 };
 
-export const downloadBackup = async (password: string): Promise<void> => {
+export interface BackupJobStatus {
+  jobId: string;
+  type: "BACKUP" | "RESTORE" | "VERIFY" | "BASE_BACKUP" | "POINT_IN_TIME_RESTORE";
+  status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+  phase: string | null;
+  percent: number | null;
+  errorMessage: string | null;
+}
+
+const JOB_POLL_INTERVAL_MS = 1000;
+// How long a restore's status may stay unreachable before the poller gives up
+const RESTORE_POLL_GRACE_MS = 1800000; // 30 minutes, same as the upload
+
+const sleep = (ms: number) => new Promise((resolve) => setTimeout(resolve, ms));
+
+// While pg_restore reloads the users table the server cannot look up the caller, so status
+// requests briefly fail with 401/5xx. Restore polling goes through raw axios, which skips the
+// instance's logout-on-401 interceptor, and keeps retrying through that window.
+const fetchRestoreJob = async (jobId: string): Promise<BackupJobStatus | null> => {
+  const token = localStorage.getItem("authToken");
+  try {
+    const { data } = await axios.get<BackupJobStatus>(`${BASE_URL}/admin/database/jobs/${jobId}`, {
+      headers: token ? { Authorization: `Bearer ${token}` } : {},
+    });
+    return data;
+  } catch (error) {
+    if (axios.isAxiosError(error)) {
+      const status = error.response?.status;
+      if (status === undefined || status === 401 || status >= 500) return null;
+    }
+    throw error;
+  }
+};
+
+// Backups and restores run as background jobs on the server; poll until the job finishes
+const waitForJob = async (
+  jobId: string,
+  type: BackupJobStatus["type"],
+  onProgress?: (job: BackupJobStatus) => void,
+): Promise<BackupJobStatus> => {
+  let unreachableSince: number | null = null;
+  for (;;) {
+    let data: BackupJobStatus | null;
+    if (type === "RESTORE") {
+      data = await fetchRestoreJob(jobId);
+      if (data === null) {
+        unreachableSince ??= Date.now();
+        if (Date.now() - unreachableSince > RESTORE_POLL_GRACE_MS) {
+          throw new Error("Lost contact with the server while the restore was running. Please sign in again and check the last restore.");
+        }
+        await sleep(JOB_POLL_INTERVAL_MS);
+        continue;
+      }
+      unreachableSince = null;
+    } else {
+      ({ data } = await api.get<BackupJobStatus>(`/admin/database/jobs/${jobId}`));
+    }
+    onProgress?.(data);
+    if (data.status === "COMPLETED") return data;
+    if (data.status === "FAILED") throw new Error(data.errorMessage || "Backup operation failed");
+    await sleep(JOB_POLL_INTERVAL_MS);
+  }
+};
+
+export const downloadBackup = async (
+  password: string,
+  onProgress?: (job: BackupJobStatus) => void,
+): Promise<void> => {
+  const { data: submitted } = await api.post<BackupJobStatus>("/admin/database/backup", { currentPassword: password });
+  await waitForJob(submitted.jobId, "BACKUP", onProgress);
+
   let response;
   try {
-    response = await api.post("/admin/database/backup", { currentPassword: password }, {
+    response = await api.get(`/admin/database/jobs/${submitted.jobId}/download`, {
       responseType: "blob",
       timeout: 1800000, // 30 minutes
     });
@@ -85,19 +155,24 @@ export const downloadBackup = async (password: string): Promise<void> => {
 
 // Uses raw axios instead of the configured instance to avoid the default
 // Content-Type: application/json header — restore requires multipart/form-data.
-export const restoreBackup = async (file: File, password: string): Promise<string> => {
+export const restoreBackup = async (
+  file: File,
+  password: string,
+  onProgress?: (job: BackupJobStatus) => void,
+): Promise<string> => {
   const formData = new FormData();
   formData.append("file", file);
   formData.append("currentPassword", password);
 
   const token = localStorage.getItem("authToken");
 
+  let submitted: BackupJobStatus;
   try {
     const response = await axios.post(`${BASE_URL}/admin/database/restore`, formData, {
-      timeout: 1800000, // 30 minutes
+      timeout: 1800000, // 30 minutes, for the upload itself
       headers: token ? { Authorization: `Bearer ${token}` } : {},
     });
-    return (response.data as { message: string }).message;
+    submitted = response.data as BackupJobStatus;
   } catch (error) {
     if (axios.isAxiosError(error) && error.response?.data) {
       const serverMessage = error.response.data;
@@ -111,4 +186,7 @@ export const restoreBackup = async (file: File, password: string): Promise<strin
     }
     throw error;
   }
+
+  await waitForJob(submitted.jobId, "RESTORE", onProgress);
+  return "Database restored successfully. A safety backup was created before the restore operation.";
 };
@@ -9,13 +9,9 @@ import { toast } from "sonner";
 import SegmentedControl from "@/shared/components/ui/segmented-control";
 import { Button } from "@/shared/components/ui/button";
 import { Card, CardContent } from "@/shared/components/ui/card";
-import { useQuery } from "@tanstack/react-query";
-import { useReportData, usePatientGrowthTrend, useLowStockProducts, useOverstockedProducts, useOutOfStockProducts, useTransactionMonthlyTrend, useCategoryBreakdown, useInventoryValueTrend } from "@/features/reports/hooks/reportQuery";
-import { createAccountsReceivableQueryOptions } from "@/features/sales/hooks/transactionQuery";
-import { fetchOutOfStockProducts, logReportExport } from "@/features/reports/services/reportApi";
-import { generateTransactionPdf } from "@/features/reports/services/transactionPdfExport";
+import { useReportData, usePatientGrowthTrend, useLowStockProducts, useOverstockedProducts, useOutOfStockProducts } from "@/features/reports/hooks/reportQuery";
+import { downloadPdfReport, logReportExport } from "@/features/reports/services/reportApi";
 import { generatePatientPdf } from "@/features/reports/services/patientPdfExport";
-import { generateInventoryPdf } from "@/features/reports/services/inventoryPdfExport";
 import InventoryValueChart from "@/features/reports/components/inventory/InventoryValueChart";
 import CategoryBreakdownChart from "@/features/reports/components/inventory/CategoryBreakdownChart";
 import TopSellingProductsTable from "@/features/reports/components/inventory/TopSellingProductsTable";
@@ -85,12 +81,6 @@ const Reports: React.FC = () => {
 
   const { data: growthTrend } = usePatientGrowthTrend();
 
-  // Data for client-side PDF exports
-  const { data: monthlyTrend } = useTransactionMonthlyTrend();
-  const { data: receivables } = useQuery(createAccountsReceivableQueryOptions());
-  const { data: valueTrend } = useInventoryValueTrend();
-  const { data: categoryBreakdown } = useCategoryBreakdown();
-
   // ── Auto-populate dates for transaction report ────────────────────
 
   useEffect(() => {
@@ -115,25 +105,13 @@ const Reports: React.FC = () => {
     setExportingPdf(true);
     try {
       let exported = false;
-      if (reportType === "TRANSACTIONS" && data && monthlyTrend && receivables) {
-        generateTransactionPdf(
-          data as TransactionHierarchicalReportDataset,
-          monthlyTrend,
-          receivables,
-        );
+      if (reportType === "TRANSACTIONS" || reportType === "INVENTORY_ANALYTICS") {
+        // Rendered server-side so large date ranges don't lock up the browser
+        await downloadPdfReport(reportType, minDate || undefined, maxDate || undefined);
         exported = true;
       } else if (reportType === "PATIENTS" && data && growthTrend) {
         generatePatientPdf(data as PatientReportDataset, growthTrend);
         exported = true;
-      } else if (reportType === "INVENTORY_ANALYTICS" && data && valueTrend && categoryBreakdown) {
-        const allOutOfStock = await fetchOutOfStockProducts(0, 1000);
-        generateInventoryPdf(
-          data as ComprehensiveInventoryReportDataset,
-          valueTrend,
-          categoryBreakdown,
-          allOutOfStock.content,
-        );
-        exported = true;
       } else {
         toast.error("Required data not yet loaded. Please try again.");
       }
@@ -1,7 +1,7 @@
 import jsPDF from "jspdf";
 import type { PatientReportDataset, PatientGrowthPoint, AgeGroupStat } from "@/features/reports/types";
 
-// ── Helpers (mirrors transactionPdfExport.ts) ────────────────────────
+// ── Helpers ───────────────────────────────────────────────────────────
 
 const number = (value: number) => new Intl.NumberFormat("en-PH").format(value);
 
@@ -50,7 +50,6 @@ interface ChartRect {
 
 /**
  * Draws a vector area+line chart for patient growth trend data.
- * Mirrors the Net Revenue area chart in transactionPdfExport.ts.
  */
 function drawAreaChart(
   doc: jsPDF,
@@ -400,7 +399,7 @@ const AGE_GROUP_COLORS: [number, number, number][] = [
   [99, 102, 241],
 ];
 
-// ── Main export (mirrors generateTransactionPdf) ─────────────────────
+// ── Main export ──────────────────────────────────────────────────────
 
 function generatePatientPdf(
   report: PatientReportDataset,